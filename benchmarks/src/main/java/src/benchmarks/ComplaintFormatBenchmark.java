@@ -0,0 +1,74 @@
+package src.benchmarks;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import src.CompactComplaintStore;
+import src.Complaint;
+import src.ComplaintStatus;
+import src.IssueCategory;
+
+// Complaint.toString, the line printed for every complaint in the console lists and search results.
+// Formatting one complaint does not depend on how many exist, so instead of a data size this is
+// parameterized by where the complaint lives: a plain object (EAGER/LAZY) or a compact-store view (COMPACT).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ComplaintFormatBenchmark {
+
+    private static final int COMPLAINTS = 1024; // Cycled through so no single object stays hot
+
+    @Param({"OBJECT", "COMPACT_VIEW"})
+    public String storage;
+
+    private Complaint[] complaints;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void createComplaints() {
+        Random random = new Random(42);
+        IssueCategory[] categories = IssueCategory.values();
+        ComplaintStatus[] statuses = ComplaintStatus.values();
+        LocalDateTime now = LocalDateTime.now();
+        List<Complaint> created = new ArrayList<>(COMPLAINTS);
+        for (int i = 0; i < COMPLAINTS; i++) {
+            Complaint comp = new Complaint(i + 1, 1 + random.nextInt(SeededManagerState.ZONES),
+                    SeededManagerState.randomDetails(random), categories[random.nextInt(categories.length)],
+                    statuses[random.nextInt(statuses.length)], now.minusMinutes(random.nextInt(60 * 24 * 30)));
+            if (i % 8 == 0) {
+                comp.recordDuplicateReport(); // Some lines carry the duplicate-report suffix
+            }
+            created.add(comp);
+        }
+        if (storage.equals("COMPACT_VIEW")) {
+            created = CompactComplaintStore.copyOf(created).rows();
+        }
+        complaints = created.toArray(new Complaint[0]);
+    }
+
+    @Benchmark
+    public String toStringFormat() {
+        Complaint comp = complaints[next];
+        next = (next + 1) & (COMPLAINTS - 1);
+        return comp.toString();
+    }
+}
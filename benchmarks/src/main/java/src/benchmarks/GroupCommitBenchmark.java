@@ -0,0 +1,63 @@
+package src.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import src.ComplaintManagerConfig;
+import src.IssueCategory;
+
+// Ingest throughput of the group-commit writer against its batch size: each invocation queues
+// BURST complaints through logNewComplaintAsync and waits until all of them are committed to H2.
+// The journal is off, so the H2 commit is what makes a complaint durable.
+// e.g. java -jar benchmarks.jar GroupCommit -p size=10000 -p batchSize=1,16,256,1024 -p duplicateDetection=false
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GroupCommitBenchmark extends SeededManagerState {
+
+    private static final int BURST = 1_000;
+    private static final IssueCategory[] CATEGORIES = IssueCategory.values();
+
+    @Param({"1", "16", "256", "1024"})
+    public int batchSize;
+
+    @Param({"2"})
+    public long lingerMillis;
+
+    private final Random random = new Random(7);
+    private final CompletableFuture<?>[] pending = new CompletableFuture<?>[BURST];
+
+    @Override
+    protected ComplaintManagerConfig config() {
+        return super.config()
+                .setJournalEnabled(false)
+                .setWriteBatchSize(batchSize)
+                .setWriteLingerMillis(lingerMillis);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BURST)
+    public void logNewComplaintAsync() {
+        for (int i = 0; i < BURST; i++) {
+            pending[i] = manager.logNewComplaintAsync(1 + random.nextInt(ZONES), randomDetails(random),
+                    CATEGORIES[random.nextInt(CATEGORIES.length)]);
+        }
+        CompletableFuture.allOf(pending).join();
+    }
+}
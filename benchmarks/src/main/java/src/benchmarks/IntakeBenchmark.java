@@ -0,0 +1,48 @@
+package src.benchmarks;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import src.ComplaintManager;
+import src.ComplaintStatus;
+import src.IssueCategory;
+
+// Throughput of the two mutating calls, durable as the caller sees them (journaled, or committed
+// to H2 without a journal). Run with -t N to measure N concurrent intake clients.
+// Logged complaints stay in the manager, so the data grows by what the trial logs.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class IntakeBenchmark extends SeededManagerState {
+
+    private static final IssueCategory[] CATEGORIES = IssueCategory.values();
+    private static final ComplaintStatus[] STATUSES = ComplaintStatus.values();
+
+    // logNewComplaint without its console message (same path: duplicate check, journal, queued H2 insert)
+    @Benchmark
+    public ComplaintManager.Submission logNewComplaint() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return manager.submitComplaint(1 + random.nextInt(ZONES), randomDetails(random),
+                CATEGORIES[random.nextInt(CATEGORIES.length)]);
+    }
+
+    // A random seeded complaint gets a random status; about a third already have it and persist nothing
+    @Benchmark
+    public boolean modifyStatus() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return manager.modifyStatus(1 + random.nextInt(size), STATUSES[random.nextInt(STATUSES.length)]);
+    }
+}
@@ -0,0 +1,58 @@
+package src.benchmarks;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import src.Complaint;
+import src.ComplaintManagerConfig;
+import src.ComplaintStatus;
+import src.IssueCategory;
+
+// Latency of one mutation as the table grows: each call is a single-row INSERT or UPDATE committed
+// to H2 (no journal, no linger), so the time should stay flat across sizes. The full-table rewrite
+// that every mutation used to run is PersistenceBenchmark.saveDataToDatabase.
+// e.g. java -jar benchmarks.jar MutationLatency -p size=10000,100000,1000000 -p duplicateDetection=false
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MutationLatencyBenchmark extends SeededManagerState {
+
+    private static final IssueCategory[] CATEGORIES = IssueCategory.values();
+    private static final ComplaintStatus[] STATUSES = ComplaintStatus.values();
+
+    @Override
+    protected ComplaintManagerConfig config() {
+        return super.config()
+                .setJournalEnabled(false)      // Wait for the H2 commit itself
+                .setWriteLingerMillis(0);      // and do not wait for other writes to join the batch
+    }
+
+    @Benchmark
+    public Complaint logNewComplaint() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return manager.submitComplaint(1 + random.nextInt(ZONES), randomDetails(random),
+                CATEGORIES[random.nextInt(CATEGORIES.length)]).complaint;
+    }
+
+    // Always a real change: cycles the status of a random seeded complaint
+    @Benchmark
+    public boolean modifyStatus() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int trackingID = 1 + random.nextInt(size);
+        ComplaintStatus current = manager.findById(trackingID).orElseThrow().getStatus();
+        return manager.modifyStatus(trackingID, STATUSES[(current.ordinal() + 1) % STATUSES.length]);
+    }
+}
@@ -0,0 +1,54 @@
+package src.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Whole-table H2 resync and reload, and the file backup written and restored.
+// Each call takes from milliseconds to minutes depending on size, so every
+// iteration is a single timed call.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PersistenceBenchmark extends SeededManagerState {
+
+    @Override
+    protected void afterSeeding() {
+        manager.saveBackupToFile(); // loadBackupFromFile needs a snapshot to read
+    }
+
+    // Rewrites every row in one transaction (skipped in LAZY mode)
+    @Benchmark
+    public void saveDataToDatabase() {
+        manager.saveDataToDatabase();
+    }
+
+    // Pages the whole table back into memory and rebuilds the indexes
+    @Benchmark
+    public boolean loadDataFromDatabase() {
+        return manager.loadDataFromDatabase();
+    }
+
+    // Writes the columnar snapshot and compacts the journal
+    @Benchmark
+    public boolean saveBackupToFile() {
+        return manager.saveBackupToFile();
+    }
+
+    // Reads the snapshot, replaces memory with it and rewrites the H2 table to match
+    @Benchmark
+    public boolean loadBackupFromFile() {
+        return manager.loadBackupFromFile();
+    }
+}
@@ -0,0 +1,122 @@
+package src.benchmarks;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import src.Complaint;
+import src.ComplaintJournal;
+import src.ComplaintManager;
+import src.ComplaintManagerConfig;
+import src.ComplaintStatus;
+import src.IssueCategory;
+
+// A ComplaintManager with its own temporary data directory (H2 database, backup, journal),
+// seeded with `size` complaints before the trial and deleted after it.
+// Large sizes need a bigger heap than the JVM default, e.g. -jvmArgsAppend -Xmx16g for 10M in EAGER mode.
+@State(Scope.Benchmark)
+public class SeededManagerState {
+
+    static final int ZONES = 50;
+    private static final int SEED_BATCH = 10_000; // Complaints per importComplaints call
+    private static final int SEED_DAYS = 30;      // Submission dates are spread over the last 30 days
+    private static final String[] ISSUES = {
+        "Pothole near pole", "Street light out at block", "Water leaking from main at house",
+        "Garbage not collected on lane", "Blocked drain outside house", "Fallen tree across road near pole"
+    };
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int size;
+
+    @Param({"EAGER"}) // EAGER, LAZY or COMPACT
+    public String mode;
+
+    @Param({"INTERVAL"}) // EVERY_RECORD, INTERVAL or OS_MANAGED
+    public String fsync;
+
+    @Param({"true"}) // false leaves the similarity check out of every intake
+    public boolean duplicateDetection;
+
+    protected Path dataDirectory;
+    protected ComplaintManager manager;
+
+    @Setup(Level.Trial)
+    public void openSeededManager() throws IOException {
+        dataDirectory = Files.createTempDirectory("cirp-bench");
+        manager = new ComplaintManager(config());
+        seed(manager, size);
+        manager.flushPendingWrites();
+        afterSeeding();
+    }
+
+    @TearDown(Level.Trial)
+    public void closeManager() throws IOException {
+        manager.close();
+        deleteRecursively(dataDirectory);
+    }
+
+    // Settings of the manager under test; every file lives in the temporary directory
+    protected ComplaintManagerConfig config() {
+        return new ComplaintManagerConfig()
+                .setDataDirectory(dataDirectory)
+                .setStartupMode(ComplaintManagerConfig.StartupMode.valueOf(mode))
+                .setJournalFsyncPolicy(ComplaintJournal.FsyncPolicy.valueOf(fsync))
+                .setDuplicateDetectionEnabled(duplicateDetection);
+    }
+
+    // Hook for per-benchmark preparation once the data is in place
+    protected void afterSeeding() {
+    }
+
+    // Imports count complaints in batches: mixed zones, categories and statuses, submitted over the last 30 days.
+    // Fixed random seed, so every trial sees the same data.
+    static void seed(ComplaintManager manager, int count) {
+        Random random = new Random(42);
+        IssueCategory[] categories = IssueCategory.values();
+        ComplaintStatus[] statuses = ComplaintStatus.values();
+        LocalDateTime now = LocalDateTime.now();
+        for (int done = 0; done < count; done += SEED_BATCH) {
+            int batchSize = Math.min(SEED_BATCH, count - done);
+            int firstId = manager.reserveTrackingIds(batchSize);
+            List<Complaint> batch = new ArrayList<>(batchSize);
+            for (int i = 0; i < batchSize; i++) {
+                batch.add(new Complaint(firstId + i, 1 + random.nextInt(ZONES),
+                        randomDetails(random), categories[random.nextInt(categories.length)],
+                        statuses[random.nextInt(statuses.length)],
+                        now.minusSeconds(random.nextInt(SEED_DAYS * 24 * 3600))));
+            }
+            manager.importComplaints(batch);
+        }
+    }
+
+    // e.g. "Pothole near pole 4821"; the number keeps near-identical texts from counting as duplicates
+    static String randomDetails(Random random) {
+        return ISSUES[random.nextInt(ISSUES.length)] + " " + random.nextInt(1_000_000);
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.delete(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package src.benchmarks;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import src.Complaint;
+import src.ComplaintSnapshot;
+import src.ComplaintStatus;
+import src.IssueCategory;
+
+// The columnar ComplaintSnapshot against the Java-serialized list it replaced, on the same complaints:
+// save and load time here, file sizes printed once per trial. No manager or database is involved.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SnapshotFormatBenchmark {
+
+    @Param({"1000000"})
+    public int size;
+
+    private Path directory;
+    private Path snapshotFile;
+    private Path serializedFile;
+    private List<Complaint> complaints;
+
+    @Setup(Level.Trial)
+    public void writeBothFiles() throws IOException {
+        Random random = new Random(42);
+        IssueCategory[] categories = IssueCategory.values();
+        ComplaintStatus[] statuses = ComplaintStatus.values();
+        LocalDateTime now = LocalDateTime.now();
+        complaints = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            complaints.add(new Complaint(i + 1, 1 + random.nextInt(SeededManagerState.ZONES),
+                    SeededManagerState.randomDetails(random), categories[random.nextInt(categories.length)],
+                    statuses[random.nextInt(statuses.length)], now.minusSeconds(random.nextInt(30 * 24 * 3600))));
+        }
+        directory = Files.createTempDirectory("cirp-snapshot-bench");
+        snapshotFile = directory.resolve("snapshot.bin");
+        serializedFile = directory.resolve("serialized.bin");
+        ComplaintSnapshot.write(snapshotFile, complaints);
+        writeSerialized();
+        System.out.printf("%nFile size at %d complaints: snapshot %.1f MB, serialized %.1f MB%n", size,
+                Files.size(snapshotFile) / 1e6, Files.size(serializedFile) / 1e6);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFiles() throws IOException {
+        Files.deleteIfExists(snapshotFile);
+        Files.deleteIfExists(serializedFile);
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public void saveSnapshot() throws IOException {
+        ComplaintSnapshot.write(snapshotFile, complaints);
+    }
+
+    @Benchmark
+    public List<Complaint> loadSnapshot() throws IOException {
+        return ComplaintSnapshot.read(snapshotFile);
+    }
+
+    // What saveBackupToFile did before the snapshot format
+    @Benchmark
+    public void saveSerialized() throws IOException {
+        writeSerialized();
+    }
+
+    @Benchmark
+    public Object loadSerialized() throws IOException, ClassNotFoundException {
+        try (InputStream in = Files.newInputStream(serializedFile);
+             ObjectInputStream ois = new ObjectInputStream(new BufferedInputStream(in))) {
+            return ois.readObject();
+        }
+    }
+
+    private void writeSerialized() throws IOException {
+        try (OutputStream out = Files.newOutputStream(serializedFile);
+             ObjectOutputStream oos = new ObjectOutputStream(new BufferedOutputStream(out))) {
+            oos.writeObject(complaints);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package src.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import src.ComplaintManager;
+import src.ComplaintManagerConfig;
+
+// Time until a manager over an existing database is ready: EAGER loads every row, LAZY only reads
+// the max ID and the aggregated counts. Each iteration opens one manager on the seeded directory.
+// e.g. java -jar benchmarks.jar Startup -p mode=EAGER,LAZY -p size=10000,100000,1000000
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StartupBenchmark extends SeededManagerState {
+
+    // LAZY mode builds the keyword index on a background thread that reads the whole table; it is off
+    // by default here so that thread cannot spill over into the next iteration's timing
+    @Param({"false"})
+    public boolean searchIndex;
+
+    private ComplaintManager opened;
+
+    @Override
+    protected ComplaintManagerConfig config() {
+        return super.config().setSearchIndexEnabled(searchIndex);
+    }
+
+    @Override
+    protected void afterSeeding() {
+        manager.close(); // The embedded database can only be opened by one manager at a time
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeOpened() {
+        if (opened != null) {
+            opened.close();
+            opened = null;
+        }
+    }
+
+    @Benchmark
+    public ComplaintManager openManager() {
+        opened = new ComplaintManager(config());
+        return opened;
+    }
+}
@@ -0,0 +1,94 @@
+package src.benchmarks;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import src.Complaint;
+import src.ComplaintColumns;
+import src.ComplaintStatus;
+import src.IssueCategory;
+import src.TrendAggregator;
+
+// Historical group-by-count over a columnar copy of the complaints: the fork-join TrendAggregator on
+// a pool of the given parallelism against its single-threaded baseline. No manager or database is
+// involved. "zone,category,status,hour" has more groups than the dense tables allow, so it measures
+// the hash-table path; the other groupings use the dense arrays. Sequential runs ignore parallelism.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class TrendAggregatorBenchmark {
+
+    @Param({"1000000"})
+    public int size;
+
+    @Param({"sequential", "parallel"})
+    public String mode;
+
+    @Param({"1", "2", "4"})
+    public int parallelism;
+
+    @Param({"category,status", "zone,category,day", "zone,category,status,hour"})
+    public String groupBy;
+
+    private ComplaintColumns columns;
+    private Set<TrendAggregator.Dimension> dimensions;
+    private ForkJoinPool pool;
+    private TrendAggregator aggregator;
+
+    @Setup(Level.Trial)
+    public void buildColumns() {
+        Random random = new Random(42);
+        IssueCategory[] categories = IssueCategory.values();
+        ComplaintStatus[] statuses = ComplaintStatus.values();
+        LocalDateTime now = LocalDateTime.now();
+        List<Complaint> complaints = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            complaints.add(new Complaint(i + 1, 1 + random.nextInt(SeededManagerState.ZONES), "",
+                    categories[random.nextInt(categories.length)], statuses[random.nextInt(statuses.length)],
+                    now.minusSeconds(random.nextInt(30 * 24 * 3600))));
+        }
+        columns = ComplaintColumns.of(complaints);
+
+        dimensions = EnumSet.noneOf(TrendAggregator.Dimension.class);
+        for (String name : groupBy.split(",")) {
+            dimensions.add(TrendAggregator.Dimension.valueOf(name.trim().toUpperCase()));
+        }
+        pool = new ForkJoinPool(parallelism);
+        aggregator = new TrendAggregator(pool);
+    }
+
+    @TearDown(Level.Trial)
+    public void shutDownPool() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public List<TrendAggregator.GroupCount> aggregate() {
+        return mode.equals("parallel")
+                ? aggregator.aggregate(columns, dimensions, null, null)
+                : TrendAggregator.aggregateSequential(columns, dimensions, null, null);
+    }
+}
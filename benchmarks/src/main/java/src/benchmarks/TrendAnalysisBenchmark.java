@@ -0,0 +1,32 @@
+package src.benchmarks;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import src.IssueCategory;
+
+// getTrendAnalysis reads incrementally maintained counters, so its time should not depend on size;
+// a size-dependent result here means a scan crept back in.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TrendAnalysisBenchmark extends SeededManagerState {
+
+    @Benchmark
+    public Map<IssueCategory, Integer> getTrendAnalysis() {
+        return manager.getTrendAnalysis();
+    }
+}
@@ -0,0 +1,137 @@
+package src;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+class BulkTransferTest {
+
+    // Details that need CSV quoting or JSON escaping
+    private static final String[] DETAILS = {
+        "Plain text",
+        "Commas, in the middle, of it",
+        "A \"quoted\" word",
+        "Two\nlines",
+        "Backslash \\ and tab\tand unicode é中"
+    };
+
+    @TempDir
+    Path directory;
+
+    // Everything exported comes back with the same fields (under new tracking IDs).
+    @ParameterizedTest
+    @EnumSource(BulkTransfer.Format.class)
+    void exportThenImportKeepsEveryField(BulkTransfer.Format format) throws Exception {
+        Path file = directory.resolve("complaints." + format.name().toLowerCase());
+        List<Complaint> original;
+        ComplaintManager source = manager("source");
+        try {
+            for (int i = 0; i < DETAILS.length; i++) {
+                Complaint comp = source.submitComplaint(i + 1, DETAILS[i], IssueCategory.values()[i]).complaint;
+                if (i % 2 == 1) {
+                    source.modifyStatus(comp.getTrackingID(), ComplaintStatus.CLOSED);
+                }
+            }
+            assertEquals(DETAILS.length, BulkTransfer.exportFile(source, file, format));
+            original = source.getAllComplaints();
+        } finally {
+            source.close();
+        }
+
+        ComplaintManager target = manager("target");
+        try {
+            BulkTransfer.ImportResult result = BulkTransfer.importFile(target, file, format, 2);
+            assertEquals(DETAILS.length, result.imported);
+            assertEquals(0, result.rejected);
+            List<Complaint> imported = target.getAllComplaints();
+            assertEquals(original.size(), imported.size());
+            for (int i = 0; i < original.size(); i++) {
+                Complaint expected = original.get(i);
+                Complaint actual = imported.get(i);
+                assertEquals(expected.getDetails(), actual.getDetails());
+                assertEquals(expected.getZoneNumber(), actual.getZoneNumber());
+                assertEquals(expected.getCategory(), actual.getCategory());
+                assertEquals(expected.getStatus(), actual.getStatus());
+                assertEquals(expected.getFormattedDate(), actual.getFormattedDate());
+            }
+        } finally {
+            target.close();
+        }
+    }
+
+    // Quoted fields spanning lines stay whole however the file is cut into chunks, and error line
+    // numbers count the lines inside them.
+    @Test
+    void quotedNewlinesSurviveChunkBoundaries() throws Exception {
+        StringBuilder csv = new StringBuilder("zone,category,details\n");
+        int records = 50;
+        for (int i = 0; i < records; i++) {
+            csv.append(i + 1).append(",WATER_OUTAGE,\"Leak ").append(i).append(",\nsecond \"\"line\"\"\"\n");
+        }
+        csv.append("x,WATER_OUTAGE,Bad zone\n");
+        Path file = directory.resolve("multiline.csv");
+        Files.writeString(file, csv, StandardCharsets.UTF_8);
+
+        for (int chunkBytes : new int[] {16, 37, 1 << 16}) {
+            ComplaintManager target = manager("chunks-" + chunkBytes);
+            try {
+                BulkTransfer.ImportResult result =
+                        BulkTransfer.importFile(target, file, BulkTransfer.Format.CSV, 3, chunkBytes);
+                assertEquals(records, result.imported, "chunk size " + chunkBytes);
+                assertEquals(1, result.rejected);
+                assertEquals("line " + (2 + records * 2) + ": invalid zone 'x'", result.errors.get(0));
+                List<Complaint> imported = target.getAllComplaints();
+                for (int i = 0; i < records; i++) {
+                    assertEquals("Leak " + i + ",\nsecond \"line\"", imported.get(i).getDetails());
+                }
+            } finally {
+                target.close();
+            }
+        }
+    }
+
+    // Bad NDJSON lines are skipped and reported by line number; the good ones are imported.
+    @Test
+    void ndjsonErrorsAreReportedByLine() throws Exception {
+        Path file = directory.resolve("mixed.ndjson");
+        Files.writeString(file, String.join("\n",
+                "{\"zone\":1,\"category\":\"WATER_OUTAGE\",\"details\":\"Good one\"}",
+                "{\"zone\":1,\"category\":\"WATER_OUTAGE\",\"details\":\"Unclosed}",
+                "{\"zone\":2,\"category\":\"NOT_A_CATEGORY\",\"details\":\"Bad category\"}",
+                "",
+                "{\"zone\":[3],\"category\":\"WATER_OUTAGE\",\"details\":\"Nested\"}",
+                "{\"zone\":4,\"category\":\"street_lighting\",\"status\":\"closed\",\"details\":\"Good two\"}"),
+                StandardCharsets.UTF_8);
+
+        ComplaintManager target = manager("ndjson");
+        try {
+            BulkTransfer.ImportResult result = BulkTransfer.importFile(target, file, BulkTransfer.Format.NDJSON, 1);
+            assertEquals(2, result.imported);
+            assertEquals(3, result.rejected);
+            assertTrue(result.errors.get(0).startsWith("line 2: malformed JSON"), result.errors.get(0));
+            assertEquals("line 3: unknown category 'NOT_A_CATEGORY'", result.errors.get(1));
+            assertTrue(result.errors.get(2).startsWith("line 5: malformed JSON: nested values"), result.errors.get(2));
+
+            List<Complaint> imported = target.getAllComplaints();
+            assertEquals("Good two", imported.get(1).getDetails());
+            assertEquals(ComplaintStatus.CLOSED, imported.get(1).getStatus());
+        } finally {
+            target.close();
+        }
+    }
+
+    private ComplaintManager manager(String name) {
+        return new ComplaintManager(new ComplaintManagerConfig()
+                .setDataDirectory(directory.resolve(name))
+                .setDuplicateDetectionEnabled(false));
+    }
+}
@@ -0,0 +1,142 @@
+package src;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+class CompactComplaintStoreTest {
+
+    private static final LocalDateTime SUBMITTED = LocalDateTime.of(2024, 6, 1, 14, 5, 30);
+
+    // Views find their rows by ID across chunks, for dense, sparse and re-added IDs alike
+    @Test
+    void mapsTrackingIdsToRows() {
+        CompactComplaintStore store = new CompactComplaintStore();
+        int rows = 40_000; // More than two chunks
+        for (int id = 1; id <= rows; id++) {
+            store.add(complaint(id, "Report " + id + (id % 5 == 0 ? " – détails" : "")));
+        }
+        store.add(complaint(2_000_000_000, "Far beyond the row count"));
+        store.add(complaint(0, "Zero"));
+        store.add(complaint(17, "Stored again"));
+
+        assertEquals(rows + 3, store.size());
+        assertEquals("Report 1", store.get(1).getDetails());
+        assertEquals("Report 20000 – détails", store.get(20_000).getDetails());
+        assertEquals(20_000, store.get(20_000).getTrackingID());
+        assertEquals(SUBMITTED, store.get(rows).getSubmissionDate());
+        assertEquals("Far beyond the row count", store.get(2_000_000_000).getDetails());
+        assertEquals("Zero", store.get(0).getDetails());
+        assertEquals("Stored again", store.get(17).getDetails()); // The newer row wins
+        assertNull(store.get(rows + 1));
+        assertFalse(store.contains(-5));
+        assertEquals("Report 16385 – détails", store.rows().get(16_384).getDetails()); // First row of the second chunk
+    }
+
+    // Status and duplicate changes go to the columns, so every view of the row sees them
+    @Test
+    void updatesThroughOneViewShowInAnother() {
+        CompactComplaintStore store = new CompactComplaintStore();
+        Complaint added = store.add(complaint(7, "Leak"));
+        Complaint looked = store.get(7);
+
+        assertTrue(looked.compareAndSetStatus(ComplaintStatus.SUBMITTED, ComplaintStatus.IN_REVIEW));
+        assertFalse(added.compareAndSetStatus(ComplaintStatus.SUBMITTED, ComplaintStatus.CLOSED));
+        assertEquals(ComplaintStatus.IN_REVIEW, added.getStatus());
+        added.setStatus(ComplaintStatus.CLOSED);
+        assertEquals(ComplaintStatus.CLOSED, store.rows().get(0).getStatus());
+
+        assertEquals(1, added.recordDuplicateReport());
+        looked.setDuplicateReports(5);
+        assertEquals(5, added.getDuplicateReports());
+    }
+
+    // Racing compare-and-sets let exactly one thread win each row; racing increments all count
+    @Test
+    void concurrentUpdatesAreAtomic() throws Exception {
+        CompactComplaintStore store = new CompactComplaintStore();
+        for (int id = 1; id <= 64; id++) {
+            store.add(complaint(id, "Row " + id)); // Neighbouring bytes in the same status array
+        }
+        int threads = 8;
+        int increments = 1_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(pool.submit(() -> {
+                    startSignal.await();
+                    int wins = 0;
+                    for (int id = 1; id <= 64; id++) {
+                        if (store.get(id).compareAndSetStatus(ComplaintStatus.SUBMITTED, ComplaintStatus.IN_REVIEW)) {
+                            wins++;
+                        }
+                    }
+                    for (int i = 0; i < increments; i++) {
+                        store.get(32).recordDuplicateReport();
+                    }
+                    return wins;
+                }));
+            }
+            startSignal.countDown();
+            int wins = 0;
+            for (Future<Integer> result : results) {
+                wins += result.get();
+            }
+            assertEquals(64, wins);
+            assertEquals(threads * increments, store.get(32).getDuplicateReports());
+            for (Complaint comp : store.rows()) {
+                assertEquals(ComplaintStatus.IN_REVIEW, comp.getStatus());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // A view serializes as a plain Complaint with its current values
+    @Test
+    void viewSerializesAsAPlainComplaint() throws Exception {
+        CompactComplaintStore store = new CompactComplaintStore();
+        Complaint view = store.add(complaint(9, "Streetlight flickering"));
+        view.setStatus(ComplaintStatus.IN_REVIEW);
+        view.recordDuplicateReport();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(view);
+        }
+        Complaint copy;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            copy = (Complaint) in.readObject();
+        }
+
+        assertEquals(Complaint.class, copy.getClass());
+        assertEquals(9, copy.getTrackingID());
+        assertEquals(3, copy.getZoneNumber());
+        assertEquals("Streetlight flickering", copy.getDetails());
+        assertEquals(IssueCategory.values()[1], copy.getCategory());
+        assertEquals(ComplaintStatus.IN_REVIEW, copy.getStatus());
+        assertEquals(SUBMITTED, copy.getSubmissionDate());
+        assertEquals(1, copy.getDuplicateReports());
+    }
+
+    private static Complaint complaint(int trackingID, String details) {
+        return new Complaint(trackingID, 3, details, IssueCategory.values()[1], ComplaintStatus.SUBMITTED, SUBMITTED);
+    }
+}
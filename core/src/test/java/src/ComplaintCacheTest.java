@@ -0,0 +1,99 @@
+package src;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class ComplaintCacheTest {
+
+    // LFU drops the least used entry, the oldest one among equals, and keeps working as use counts
+    // climb and entries leave from the middle of the frequency list.
+    @Test
+    void lfuEvictsLeastFrequentThenOldest() {
+        ComplaintCache cache = new ComplaintCache(ComplaintCache.EvictionPolicy.LFU, 3, 0);
+        cache.putIfAbsent(complaint(1));
+        cache.putIfAbsent(complaint(2));
+        cache.putIfAbsent(complaint(3));
+        for (int i = 0; i < 3; i++) {
+            cache.get(1);
+        }
+        cache.get(2);
+
+        cache.putIfAbsent(complaint(4)); // 3 was used least
+        assertNull(cache.get(3));
+        cache.putIfAbsent(complaint(5)); // 4 and 5 are new; 4 is older
+        assertNull(cache.get(4));
+
+        cache.invalidate(2); // Empties a node in the middle of the list
+        cache.putIfAbsent(complaint(6));
+        cache.putIfAbsent(complaint(7)); // 5 and 6 tie at the lowest count; 5 is older
+        assertNull(cache.get(5));
+        assertNotNull(cache.get(1));
+        assertNotNull(cache.get(6));
+        assertNotNull(cache.get(7));
+        assertEquals(3, cache.size());
+    }
+
+    // A pinned entry is stepped over; the next least frequent one goes instead.
+    @Test
+    void lfuSkipsPinnedEntries() {
+        ComplaintCache cache = new ComplaintCache(ComplaintCache.EvictionPolicy.LFU, 2, 0);
+        cache.putIfAbsent(complaint(1));
+        cache.getOrLoadPinned(1, id -> null); // Hit: pins 1
+        cache.putIfAbsent(complaint(2));
+        cache.get(2);
+        cache.get(2);
+
+        cache.putIfAbsent(complaint(3));
+        assertNull(cache.get(2));
+        cache.unpin(1);
+        assertNotNull(cache.get(1));
+    }
+
+    // Threads that wait on the same load see a hit; only the load itself is a miss.
+    @Test
+    void concurrentMissIsCountedOncePerLoad() throws Exception {
+        ComplaintCache cache = new ComplaintCache(4);
+        AtomicInteger loaderCalls = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread first = new Thread(() -> cache.getOrLoad(1, id -> {
+            loaderCalls.incrementAndGet();
+            loading.countDown();
+            await(release);
+            return complaint(id);
+        }));
+        first.start();
+        loading.await();
+        Thread second = new Thread(() -> cache.getOrLoad(1, id -> {
+            loaderCalls.incrementAndGet();
+            return complaint(id);
+        }));
+        second.start();
+        release.countDown();
+        first.join();
+        second.join();
+
+        assertEquals(1, loaderCalls.get());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getLoadCount());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Complaint complaint(int trackingID) {
+        return new Complaint(trackingID, 1, "Pothole " + trackingID, IssueCategory.values()[0]);
+    }
+}
@@ -0,0 +1,174 @@
+package src;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ComplaintHttpServerTest {
+
+    @TempDir
+    Path dataDirectory;
+
+    private ComplaintManager manager;
+    private ComplaintHttpServer server;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        manager = new ComplaintManager(new ComplaintManagerConfig().setDataDirectory(dataDirectory));
+        server = new ComplaintHttpServer(manager, 0, 4);
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+        manager.close();
+    }
+
+    // A new complaint is 201 with its location, a repeat of an open one 200; it can be read and updated
+    @Test
+    void createsReadsAndUpdatesComplaints() throws IOException {
+        String body = "{\"zone\":3,\"category\":\"WATER_OUTAGE\",\"details\":\"Burst main on Elm Street\"}";
+        Reply created = send("POST", "/complaints", body);
+        assertEquals(201, created.status);
+        int trackingID = LoadGenerator.parseTrackingId(created.body);
+        assertEquals("/complaints/" + trackingID, created.location);
+
+        Reply duplicate = send("POST", "/complaints", body);
+        assertEquals(200, duplicate.status);
+        assertEquals(trackingID, LoadGenerator.parseTrackingId(duplicate.body));
+
+        Reply read = send("GET", "/complaints/" + trackingID, null);
+        assertEquals(200, read.status);
+        assertTrue(read.body.contains("\"details\":\"Burst main on Elm Street\""), read.body);
+
+        Reply updated = send("PUT", "/complaints/" + trackingID + "/status", "{\"status\":\"closed\"}");
+        assertEquals(200, updated.status);
+        assertTrue(updated.body.contains("\"status\":\"CLOSED\""), updated.body);
+
+        Reply listed = send("GET", "/complaints?zone=3&status=closed", null);
+        assertEquals(200, listed.status);
+        assertTrue(listed.body.startsWith("{\"count\":1,"), listed.body);
+    }
+
+    // Unknown paths and complaints are 404, unsupported methods 405 with the allowed ones
+    @Test
+    void routesUnknownPathsAndMethods() throws IOException {
+        assertEquals(404, send("GET", "/nothing-here", null).status);
+        assertEquals(404, send("GET", "/complaints/12345", null).status);
+        assertEquals(404, send("GET", "/complaints/abc", null).status);
+        assertEquals(404, send("PUT", "/complaints/12345/status", "{\"status\":\"CLOSED\"}").status);
+        assertEquals(404, send("GET", "/complaints/1/history", null).status);
+        assertEquals(404, send("GET", "/trends/later", null).status);
+
+        Reply delete = send("DELETE", "/complaints", null);
+        assertEquals(405, delete.status);
+        assertEquals("GET, POST", delete.allow);
+        assertEquals(405, send("POST", "/trends", "{}").status);
+        assertEquals(405, send("POST", "/complaints/1", "{}").status);
+    }
+
+    // Bad input is 400 with the reason in the error body
+    @Test
+    void rejectsInvalidRequests() throws IOException {
+        Reply missing = send("POST", "/complaints", "{\"zone\":3,\"category\":\"WATER_OUTAGE\"}");
+        assertEquals(400, missing.status);
+        assertEquals("{\"error\":\"details are required\"}", missing.body);
+        assertEquals(400, send("POST", "/complaints", "{\"zone\":\"x\",\"category\":\"WATER_OUTAGE\",\"details\":\"a\"}").status);
+        assertEquals(400, send("POST", "/complaints", "{\"zone\":3,\"category\":\"FIRE\",\"details\":\"a\"}").status);
+        assertEquals(400, send("POST", "/complaints", "{\"zone\":3,\"category\":\"WATER_OUTAGE\",\"details\":\""
+                + "x".repeat(Complaint.MAX_DETAILS_LENGTH + 1) + "\"}").status);
+        assertEquals(400, send("POST", "/complaints", "{\"zone\":3,").status);
+        assertEquals(400, send("GET", "/complaints?status=lost", null).status);
+        assertEquals(400, send("GET", "/complaints?from=yesterday", null).status);
+        assertEquals(400, send("GET", "/complaints?limit=0", null).status);
+        assertEquals(400, send("GET", "/trends?hours=0", null).status);
+        assertEquals(0, manager.getAllComplaints().size());
+    }
+
+    // An oversized body is refused from its Content-Length; an unreadable Content-Length is a bad request
+    @Test
+    void checksTheContentLength() throws IOException {
+        assertEquals(413, rawStatus("POST /complaints HTTP/1.1\r\nHost: localhost\r\nContent-Length: "
+                + (64 * 1024 + 1) + "\r\n\r\n"));
+        assertEquals(400, rawStatus("POST /complaints HTTP/1.1\r\nHost: localhost\r\nContent-Length: abc"
+                + "\r\n\r\n"));
+    }
+
+    // History defaults to the last 30 days and refuses empty, reversed or over-long ranges
+    @Test
+    void boundsTheHistoryRange() throws IOException {
+        manager.submitComplaint(1, "Street light out", IssueCategory.values()[0]);
+        Reply recent = send("GET", "/trends/history?groupBy=category", null);
+        assertEquals(200, recent.status);
+        assertTrue(recent.body.startsWith("{\"groupCount\":1,"), recent.body);
+
+        assertEquals(200, send("GET", "/trends/history?from=2024-01-01&to=2024-12-31", null).status);
+        assertEquals(400, send("GET", "/trends/history?from=2024-01-01&to=2025-06-01", null).status);
+        assertEquals(400, send("GET", "/trends/history?from=2024-02-01&to=2024-01-01", null).status);
+        assertEquals(400, send("GET", "/trends/history?from=2000-01-01", null).status);
+        assertEquals(400, send("GET", "/trends/history?groupBy=weather", null).status);
+    }
+
+    private static class Reply {
+        final int status;
+        final String body;
+        final String location;
+        final String allow;
+
+        Reply(int status, String body, String location, String allow) {
+            this.status = status;
+            this.body = body;
+            this.location = location;
+            this.allow = allow;
+        }
+    }
+
+    private Reply send(String method, String path, String body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection)
+                URI.create("http://localhost:" + server.getPort() + path).toURL().openConnection();
+        connection.setRequestMethod(method);
+        if (body != null) {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            connection.setDoOutput(true);
+            connection.setFixedLengthStreamingMode(bytes.length);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(bytes);
+            }
+        }
+        int status = connection.getResponseCode();
+        try (InputStream in = status >= 400 ? connection.getErrorStream() : connection.getInputStream()) {
+            String text = in == null ? "" : new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            return new Reply(status, text, connection.getHeaderField("Location"), connection.getHeaderField("Allow"));
+        }
+    }
+
+    // Sends a hand-written request (for headers HttpURLConnection will not send) and returns the status
+    // from the response's first line. The announced body is never sent, so nothing more is read.
+    private int rawStatus(String request) throws IOException {
+        try (Socket socket = new Socket("localhost", server.getPort())) {
+            socket.setSoTimeout(10_000);
+            socket.getOutputStream().write(request.getBytes(StandardCharsets.US_ASCII));
+            socket.getOutputStream().flush();
+            InputStream in = socket.getInputStream();
+            StringBuilder statusLine = new StringBuilder();
+            for (int c = in.read(); c >= 0 && c != '\r'; c = in.read()) {
+                statusLine.append((char) c);
+            }
+            return Integer.parseInt(statusLine.substring("HTTP/1.1 ".length(), "HTTP/1.1 ".length() + 3));
+        }
+    }
+}
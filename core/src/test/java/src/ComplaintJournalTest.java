@@ -0,0 +1,226 @@
+package src;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ComplaintJournalTest {
+
+    private static final LocalDateTime SUBMITTED = LocalDateTime.of(2024, 5, 1, 9, 30);
+
+    @TempDir
+    Path directory;
+
+    // A record cut short by a crash is dropped along with nothing else, and the file is cut back
+    // so later appends follow the last intact record.
+    @Test
+    void tornTailIsCutOffAndAppendsContinueAfterIt() throws IOException {
+        Path file = directory.resolve("journal.log");
+        long intactEnd;
+        try (ComplaintJournal journal = openJournal(file)) {
+            journal.appendCreate(complaint(1, "First"));
+            journal.appendStatus(complaint(1, "First", ComplaintStatus.CLOSED));
+            intactEnd = journal.position();
+            journal.appendCreate(complaint(2, "Second, torn"));
+        }
+        truncate(file, Files.size(file) - 3);
+
+        assertEquals(List.of("CREATE 1 First", "STATUS 1 CLOSED"), replay(file));
+        assertEquals(intactEnd, Files.size(file));
+
+        try (ComplaintJournal journal = openJournal(file)) {
+            journal.appendCreate(complaint(3, "Third"));
+        }
+        assertEquals(List.of("CREATE 1 First", "STATUS 1 CLOSED", "CREATE 3 Third"), replay(file));
+    }
+
+    // A record whose checksum does not match ends the replay there: it and everything after it
+    // are discarded, even intact records.
+    @Test
+    void corruptRecordEndsTheReplay() throws IOException {
+        Path file = directory.resolve("journal.log");
+        long secondStart;
+        try (ComplaintJournal journal = openJournal(file)) {
+            journal.appendCreate(complaint(1, "First"));
+            secondStart = journal.position();
+            journal.appendCreate(complaint(2, "Second"));
+            journal.appendDuplicates(complaint(1, "First"));
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[(int) secondStart + 10] ^= 0x40; // Inside the second record's payload
+        Files.write(file, bytes);
+
+        assertEquals(List.of("CREATE 1 First"), replay(file));
+        assertEquals(secondStart, Files.size(file));
+        assertEquals(List.of("CREATE 1 First"), replay(file)); // Nothing left to cut the second time
+    }
+
+    // A length prefix that runs past the end of the file is treated as a torn record, not read
+    @Test
+    void impossibleLengthEndsTheReplay() throws IOException {
+        Path file = directory.resolve("journal.log");
+        try (ComplaintJournal journal = openJournal(file)) {
+            journal.appendCreate(complaint(1, "First"));
+        }
+        long intactEnd = Files.size(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[] {0x7f, 0, 0, 0, 1, 2, 3, 4, 5}));
+        }
+        assertEquals(List.of("CREATE 1 First"), replay(file));
+        assertEquals(intactEnd, Files.size(file));
+    }
+
+    // Compaction keeps exactly the records after the offset, also across reopening the file
+    @Test
+    void compactionKeepsOnlyTheTailAfterTheOffset() throws IOException {
+        Path file = directory.resolve("journal.log");
+        try (ComplaintJournal journal = openJournal(file)) {
+            journal.appendCreate(complaint(1, "First"));
+            journal.appendCreate(complaint(2, "Second"));
+            long covered = journal.position();
+            journal.appendStatus(complaint(1, "First", ComplaintStatus.IN_REVIEW));
+            journal.discardUpTo(covered);
+            assertEquals(List.of("STATUS 1 IN_REVIEW"), replay(journal));
+            journal.appendCreate(complaint(3, "Third"));
+        }
+        assertEquals(List.of("STATUS 1 IN_REVIEW", "CREATE 3 Third"), replay(file));
+    }
+
+    // After a snapshot, the journal holds only later mutations; restoring the snapshot and replaying
+    // that tail (here with the database gone) gives back everything.
+    @Test
+    void snapshotOffsetSurvivesRestart() throws IOException {
+        ComplaintManagerConfig config = new ComplaintManagerConfig()
+                .setDataDirectory(directory)
+                .setDuplicateDetectionEnabled(false);
+        ComplaintManager manager = new ComplaintManager(config);
+        int first;
+        try {
+            first = manager.submitComplaint(1, "Before the snapshot", IssueCategory.values()[0]).complaint.getTrackingID();
+            manager.submitComplaint(2, "Also before", IssueCategory.values()[1]);
+            assertTrue(manager.saveBackupToFile());
+            assertEquals(0, manager.getJournalBytes());
+
+            int third = manager.submitComplaint(3, "After the snapshot", IssueCategory.values()[2]).complaint.getTrackingID();
+            manager.modifyStatus(first, ComplaintStatus.CLOSED);
+            assertEquals(List.of("CREATE " + third + " After the snapshot", "STATUS " + first + " CLOSED"),
+                    replay(directory.resolve("COMPLAINT_JOURNAL.log")));
+        } finally {
+            manager.close();
+        }
+        try (DirectoryStream<Path> databaseFiles = Files.newDirectoryStream(directory, "*.db")) {
+            for (Path databaseFile : databaseFiles) {
+                Files.delete(databaseFile);
+            }
+        }
+
+        ComplaintManager restarted = new ComplaintManager(config);
+        try {
+            Map<String, ComplaintStatus> statuses = new HashMap<>();
+            for (Complaint comp : restarted.getAllComplaints()) {
+                statuses.put(comp.getDetails(), comp.getStatus());
+            }
+            assertEquals(Map.of("Before the snapshot", ComplaintStatus.CLOSED,
+                    "Also before", ComplaintStatus.SUBMITTED,
+                    "After the snapshot", ComplaintStatus.SUBMITTED), statuses);
+        } finally {
+            restarted.close();
+        }
+    }
+
+    // Concurrent EVERY_RECORD appenders share fsyncs; every record still lands, each writer's in order
+    @Test
+    void concurrentSyncedAppendsAllReplay() throws Exception {
+        Path file = directory.resolve("journal.log");
+        int writers = 8;
+        int perWriter = 200;
+        ExecutorService pool = Executors.newFixedThreadPool(writers);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        try (ComplaintJournal journal = openJournal(file)) {
+            List<Future<?>> results = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                int writer = w;
+                results.add(pool.submit(() -> {
+                    startSignal.await();
+                    for (int i = 0; i < perWriter; i++) {
+                        journal.appendCreate(complaint(writer * perWriter + i + 1, "Writer " + writer));
+                    }
+                    return null;
+                }));
+            }
+            startSignal.countDown();
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        List<Integer> ids = new ArrayList<>();
+        ComplaintJournal.replay(file, record -> ids.add(record.trackingID));
+        assertEquals(writers * perWriter, ids.size());
+        int[] lastPerWriter = new int[writers];
+        for (int id : ids) {
+            int writer = (id - 1) / perWriter;
+            assertTrue(id > lastPerWriter[writer], "writer " + writer + " out of order");
+            lastPerWriter[writer] = id;
+        }
+    }
+
+    private static ComplaintJournal openJournal(Path file) throws IOException {
+        return new ComplaintJournal(file, ComplaintJournal.FsyncPolicy.EVERY_RECORD, 0);
+    }
+
+    private static Complaint complaint(int trackingID, String details) {
+        return complaint(trackingID, details, ComplaintStatus.SUBMITTED);
+    }
+
+    private static Complaint complaint(int trackingID, String details, ComplaintStatus status) {
+        return new Complaint(trackingID, 4, details, IssueCategory.values()[0], status, SUBMITTED);
+    }
+
+    private static List<String> replay(Path file) throws IOException {
+        List<String> records = new ArrayList<>();
+        ComplaintJournal.replay(file, record -> records.add(describe(record)));
+        return records;
+    }
+
+    private static List<String> replay(ComplaintJournal journal) throws IOException {
+        List<String> records = new ArrayList<>();
+        journal.replay(record -> records.add(describe(record)));
+        return records;
+    }
+
+    private static String describe(ComplaintJournal.Record record) {
+        switch (record.type) {
+            case ComplaintJournal.TYPE_CREATE: return "CREATE " + record.trackingID + " " + record.details;
+            case ComplaintJournal.TYPE_STATUS: return "STATUS " + record.trackingID + " " + record.status;
+            default: return "DUPLICATES " + record.trackingID + " " + record.duplicateReports;
+        }
+    }
+
+    private static void truncate(Path file, long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(size);
+        }
+    }
+}
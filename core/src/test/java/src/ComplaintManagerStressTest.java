@@ -0,0 +1,121 @@
+package src;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+// Many intake clients logging and closing complaints at once: no tracking ID may be lost or handed
+// out twice, the open counters must match the final statuses, and a restart must see the same data.
+class ComplaintManagerStressTest {
+
+    private static ComplaintManagerConfig config(Path directory, ComplaintManagerConfig.StartupMode mode) {
+        return new ComplaintManagerConfig()
+                .setDataDirectory(directory)
+                .setStartupMode(mode)
+                .setDuplicateDetectionEnabled(false); // Random texts, but keep the ID count exact
+    }
+
+    private static final int THREADS = 8;
+    private static final int OPS_PER_THREAD = 500;
+    private static final IssueCategory[] CATEGORIES = IssueCategory.values();
+
+    @TempDir
+    Path dataDirectory;
+
+    @ParameterizedTest
+    @EnumSource(ComplaintManagerConfig.StartupMode.class)
+    void concurrentIntakeKeepsEveryTrackingIdOnce(ComplaintManagerConfig.StartupMode mode) throws Exception {
+        ComplaintManagerConfig config = config(dataDirectory, mode);
+        List<Integer> ids = new ArrayList<>();
+        int closed = 0;
+
+        ComplaintManager manager = new ComplaintManager(config);
+        try {
+            for (List<Integer> threadIds : runClients(manager, THREADS, OPS_PER_THREAD)) {
+                ids.addAll(threadIds);
+            }
+            Set<Integer> unique = new HashSet<>(ids);
+            assertEquals(THREADS * OPS_PER_THREAD, ids.size());
+            assertEquals(ids.size(), unique.size(), "a tracking ID was handed out twice");
+
+            for (Complaint comp : manager.getAllComplaints()) {
+                assertTrue(unique.remove(comp.getTrackingID()), "unexpected complaint " + comp.getTrackingID());
+                if (comp.getStatus() == ComplaintStatus.CLOSED) {
+                    closed++;
+                }
+            }
+            assertTrue(unique.isEmpty(), "complaints were lost: " + unique.size());
+            // Every client closes each second complaint it logged
+            assertEquals(ids.size() / 2, closed);
+            assertEquals(ids.size() - closed, openCount(manager.getTrendAnalysis()));
+        } finally {
+            manager.close();
+        }
+
+        // A fresh manager on the same directory reads back the same complaints and statuses
+        ComplaintManager reopened = new ComplaintManager(config);
+        try {
+            assertEquals(ids.size() - closed, openCount(reopened.getTrendAnalysis()));
+            for (int id : ids) {
+                assertTrue(reopened.findById(id).isPresent(), "complaint " + id + " missing after restart");
+            }
+        } finally {
+            reopened.close();
+        }
+    }
+
+    // Starts all clients together; each logs opsPerThread complaints and closes every second one.
+    // Returns the tracking IDs each client was given.
+    private static List<List<Integer>> runClients(ComplaintManager manager, int threads, int opsPerThread)
+            throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        try {
+            List<Future<List<Integer>>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int client = t;
+                Callable<List<Integer>> task = () -> {
+                    startSignal.await();
+                    List<Integer> ids = new ArrayList<>(opsPerThread);
+                    for (int i = 0; i < opsPerThread; i++) {
+                        Complaint comp = manager.submitComplaint(1 + client, "Client " + client + " report " + i,
+                                CATEGORIES[i % CATEGORIES.length]).complaint;
+                        ids.add(comp.getTrackingID());
+                        if (i % 2 == 1) {
+                            assertTrue(manager.modifyStatus(comp.getTrackingID(), ComplaintStatus.CLOSED));
+                        }
+                    }
+                    return ids;
+                };
+                results.add(pool.submit(task));
+            }
+            startSignal.countDown();
+            List<List<Integer>> ids = new ArrayList<>();
+            for (Future<List<Integer>> result : results) {
+                ids.add(result.get());
+            }
+            return ids;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static long openCount(Map<IssueCategory, Integer> trends) {
+        return trends.values().stream().mapToLong(Integer::longValue).sum();
+    }
+}
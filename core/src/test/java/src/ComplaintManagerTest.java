@@ -0,0 +1,107 @@
+package src;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ComplaintManagerTest {
+
+    @TempDir
+    Path dataDirectory;
+
+    private ComplaintManager manager;
+
+    @BeforeEach
+    void openManager() {
+        manager = new ComplaintManager(new ComplaintManagerConfig().setDataDirectory(dataDirectory));
+    }
+
+    @AfterEach
+    void closeManager() {
+        manager.close();
+    }
+
+    // Details that would not fit the DETAILS column are refused before anything is stored
+    @Test
+    void rejectsDetailsLongerThanTheColumn() {
+        String tooLong = "x".repeat(Complaint.MAX_DETAILS_LENGTH + 1);
+        assertThrows(IllegalArgumentException.class,
+                () -> manager.submitComplaint(1, tooLong, IssueCategory.values()[0]));
+        assertEquals(0, manager.getAllComplaints().size());
+
+        String longest = "x".repeat(Complaint.MAX_DETAILS_LENGTH);
+        manager.submitComplaint(1, longest, IssueCategory.values()[0]);
+        assertEquals(1, manager.getAllComplaints().size());
+    }
+
+    // A row H2 refuses is dead-lettered, and the journal can still be compacted afterwards
+    @Test
+    void refusedRowIsDeadLetteredAndJournalCompacts() throws Exception {
+        // Take the tracking ID the manager hands out next behind its back, so its INSERT hits the primary key
+        try (Connection conn = DriverManager.getConnection(ComplaintManager.databaseUrl(dataDirectory), "sa", "");
+             Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("INSERT INTO COMPLAINTS VALUES (1, 1, 'Planted row', '2024-01-01 00:00:00', "
+                    + "'" + IssueCategory.values()[0].name() + "', 'SUBMITTED', 0)");
+        }
+        Complaint refused = manager.submitComplaint(2, "Water main burst", IssueCategory.values()[0]).complaint;
+        assertEquals(1, refused.getTrackingID());
+        manager.flushPendingWrites();
+        assertEquals(1, manager.getComplaintWriter().getRejectedWrites());
+
+        List<ComplaintJournal.Record> deadLetters = new ArrayList<>();
+        ComplaintJournal.replay(dataDirectory.resolve("COMPLAINT_DEAD_LETTERS.log"), deadLetters::add);
+        assertEquals(1, deadLetters.size());
+        assertEquals("Water main burst", deadLetters.get(0).details);
+
+        assertTrue(manager.saveBackupToFile());
+        assertEquals(0, manager.getJournalBytes());
+        assertTrue(Files.exists(dataDirectory.resolve("COMPLAINT_DEAD_LETTERS.log")));
+    }
+
+    // Identical submissions racing each other store one complaint; the rest are linked to it,
+    // including those that matched it before it was published
+    @Test
+    void concurrentIdenticalSubmissionsStoreOneComplaint() throws Exception {
+        int clients = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        try {
+            List<Future<ComplaintManager.Submission>> results = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                results.add(pool.submit(() -> {
+                    startSignal.await();
+                    return manager.submitComplaint(4, "Burst water main outside house 12", IssueCategory.values()[0]);
+                }));
+            }
+            startSignal.countDown();
+            int stored = 0;
+            for (Future<ComplaintManager.Submission> result : results) {
+                if (!result.get().duplicate) {
+                    stored++;
+                }
+            }
+            assertEquals(1, stored);
+            assertEquals(1, manager.getAllComplaints().size());
+            assertEquals(clients - 1, manager.getAllComplaints().get(0).getDuplicateReports());
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
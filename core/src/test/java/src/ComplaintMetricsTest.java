@@ -0,0 +1,103 @@
+package src;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import src.ComplaintMetrics.Operation;
+
+class ComplaintMetricsTest {
+
+    @TempDir
+    Path directory;
+
+    // Counters add up; reset clears them and the histograms but keeps the "last ..." values
+    @Test
+    void countersAndReset() {
+        ComplaintMetrics metrics = new ComplaintMetrics(null); // No gauges are read here
+        metrics.complaintAdmitted(false);
+        metrics.complaintAdmitted(false);
+        metrics.complaintAdmitted(true);
+        metrics.statusUpdated(true, true);
+        metrics.statusUpdated(true, false); // Same status again: not a change
+        metrics.statusUpdated(false, false);
+        metrics.databaseSaved(10);
+        metrics.databaseSaved(4);
+        metrics.databaseLoaded(9);
+        metrics.backupWritten(2048);
+        metrics.getLatency(Operation.MODIFY_STATUS).record(3_000);
+        metrics.getLatency(Operation.MODIFY_STATUS).record(5_000);
+        metrics.recordError(Operation.MODIFY_STATUS);
+
+        assertEquals(2, metrics.getComplaintsLogged());
+        assertEquals(1, metrics.getDuplicatesLinked());
+        assertEquals(1, metrics.getStatusChanges());
+        assertEquals(1, metrics.getStatusUpdatesForUnknownIds());
+        assertEquals(4, metrics.getLastSaveRows());
+        assertEquals(14, metrics.getTotalSaveRows());
+        assertEquals(9, metrics.getLastLoadRows());
+        assertEquals(1, metrics.getBackupsWritten());
+        assertEquals(2048, metrics.getLastBackupBytes());
+
+        ComplaintMetrics.OperationStats stats = metrics.getModifyStatus();
+        assertEquals(2, stats.getCount());
+        assertEquals(1, stats.getErrors());
+        assertEquals(4.0, stats.getMeanMicros());
+        assertEquals(3.0, stats.getP50Micros(), 0.03);
+        assertEquals(5.0, stats.getMaxMicros());
+
+        metrics.reset();
+        assertEquals(0, metrics.getComplaintsLogged());
+        assertEquals(0, metrics.getDuplicatesLinked());
+        assertEquals(0, metrics.getStatusChanges());
+        assertEquals(0, metrics.getStatusUpdatesForUnknownIds());
+        assertEquals(0, metrics.getTotalSaveRows());
+        assertEquals(0, metrics.getBackupsWritten());
+        assertEquals(0, metrics.getModifyStatus().getCount());
+        assertEquals(0, metrics.getErrors(Operation.MODIFY_STATUS));
+        assertEquals(4, metrics.getLastSaveRows());
+        assertEquals(9, metrics.getLastLoadRows());
+        assertEquals(2048, metrics.getLastBackupBytes());
+    }
+
+    // The manager records its operations, and each manager gets its own JMX name until it closes
+    @Test
+    void managerRecordsOperationsAndRegistersWithJmx() {
+        ComplaintManager first = new ComplaintManager(new ComplaintManagerConfig()
+                .setDataDirectory(directory.resolve("first")));
+        ComplaintManager second = new ComplaintManager(new ComplaintManagerConfig()
+                .setDataDirectory(directory.resolve("second")));
+        ComplaintMetrics metrics = first.getMetrics();
+        try {
+            int id = first.submitComplaint(2, "Pothole on the ring road", IssueCategory.values()[0])
+                    .complaint.getTrackingID();
+            first.submitComplaint(2, "Pothole on the ring road", IssueCategory.values()[0]);
+            first.modifyStatus(id, ComplaintStatus.IN_REVIEW);
+            first.modifyStatus(id + 100, ComplaintStatus.CLOSED);
+
+            assertEquals(1, metrics.getComplaintsLogged());
+            assertEquals(1, metrics.getDuplicatesLinked());
+            assertEquals(1, metrics.getStatusChanges());
+            assertEquals(1, metrics.getStatusUpdatesForUnknownIds());
+            assertEquals(2, metrics.getLogNewComplaint().getCount());
+            assertEquals(2, metrics.getModifyStatus().getCount());
+            assertTrue(metrics.dump().contains("Complaints logged: 1 (plus 1 linked as duplicates)"));
+
+            assertNotNull(metrics.getRegisteredName());
+            assertNotEquals(metrics.getRegisteredName(), second.getMetrics().getRegisteredName());
+            assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(metrics.getRegisteredName()));
+        } finally {
+            first.close();
+            second.close();
+        }
+        assertNull(metrics.getRegisteredName());
+    }
+}
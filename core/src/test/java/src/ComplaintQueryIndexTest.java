@@ -0,0 +1,126 @@
+package src;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ComplaintQueryIndexTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 2, 1, 0, 0);
+    private static final IssueCategory[] CATEGORIES = IssueCategory.values();
+    private static final ComplaintStatus[] STATUSES = ComplaintStatus.values();
+
+    private final List<Complaint> complaints = new ArrayList<>();
+    private ComplaintQueryIndex index;
+
+    @BeforeEach
+    void indexComplaints() {
+        Random random = new Random(11);
+        index = new ComplaintQueryIndex();
+        for (int id = 1; id <= 5_000; id++) {
+            Complaint comp = new Complaint(id, 1 + random.nextInt(20), "",
+                    CATEGORIES[random.nextInt(CATEGORIES.length)], ComplaintStatus.SUBMITTED,
+                    START.plusMinutes(random.nextInt(60 * 24 * 60))); // Out of time order
+            complaints.add(comp);
+            index.add(comp);
+        }
+        for (Complaint comp : complaints) {
+            if (random.nextInt(3) > 0) {
+                comp.setStatus(STATUSES[random.nextInt(STATUSES.length)]);
+                index.updateStatus(comp);
+            }
+        }
+    }
+
+    // Every combination of zone, category, status and date filters returns what a full scan finds
+    @Test
+    void combinedFiltersMatchAFullScan() {
+        Random random = new Random(5);
+        for (int round = 0; round < 2_000; round++) {
+            ComplaintQuery query = new ComplaintQuery().setLimit(random.nextBoolean() ? 5_000 : 1 + random.nextInt(40));
+            if (random.nextBoolean()) {
+                query.setZone(1 + random.nextInt(21)); // Zone 21 has no complaints
+            }
+            if (random.nextBoolean()) {
+                query.setCategories(pick(random, CATEGORIES).toArray(new IssueCategory[0]));
+            }
+            if (random.nextBoolean()) {
+                query.setStatuses(pick(random, STATUSES).toArray(new ComplaintStatus[0]));
+            }
+            if (random.nextBoolean()) {
+                LocalDateTime from = random.nextBoolean() ? null : START.plusHours(random.nextInt(60 * 24));
+                LocalDateTime to = from == null ? START.plusHours(1 + random.nextInt(60 * 24))
+                        : random.nextBoolean() ? null : from.plusMinutes(1 + random.nextInt(60 * 24 * 10));
+                query.setSubmittedBetween(from, to);
+            }
+            assertArrayEquals(fullScan(query), index.query(query), "round " + round);
+        }
+    }
+
+    // The smallest candidate list is walked whichever filter it comes from
+    @Test
+    void selectiveFiltersOfEachKind() {
+        Complaint target = complaints.get(1234);
+        target.setStatus(ComplaintStatus.CLOSED);
+        index.updateStatus(target);
+
+        ComplaintQuery narrowDate = new ComplaintQuery().setZone(target.getZoneNumber())
+                .setCategories(target.getCategory()).setStatuses(ComplaintStatus.CLOSED)
+                .setSubmittedBetween(target.getSubmissionDate(), target.getSubmissionDate().plusSeconds(1));
+        assertArrayEquals(fullScan(narrowDate), index.query(narrowDate));
+        assertEquals(target.getTrackingID(), index.query(narrowDate)[0]);
+
+        ComplaintQuery allStatuses = new ComplaintQuery().setZone(3).setStatuses(STATUSES);
+        assertArrayEquals(fullScan(allStatuses), index.query(allStatuses));
+        ComplaintQuery oneCategoryAnyZone = new ComplaintQuery().setCategories(CATEGORIES[0])
+                .setSubmittedBetween(START, START.plusDays(59));
+        assertArrayEquals(fullScan(oneCategoryAnyZone), index.query(oneCategoryAnyZone));
+        assertEquals(0, index.query(new ComplaintQuery().setZone(99)).length);
+    }
+
+    // A status update moves the complaint between status filters
+    @Test
+    void statusUpdatesMoveBetweenFilters() {
+        Complaint comp = complaints.get(0);
+        comp.setStatus(ComplaintStatus.SUBMITTED);
+        index.updateStatus(comp);
+        ComplaintQuery submitted = new ComplaintQuery().setZone(comp.getZoneNumber())
+                .setStatuses(ComplaintStatus.SUBMITTED).setLimit(5_000);
+        ComplaintQuery closed = new ComplaintQuery().setZone(comp.getZoneNumber())
+                .setStatuses(ComplaintStatus.CLOSED).setLimit(5_000);
+        int submittedBefore = index.query(submitted).length;
+        int closedBefore = index.query(closed).length;
+
+        comp.setStatus(ComplaintStatus.CLOSED);
+        index.updateStatus(comp);
+        index.updateStatus(comp); // Repeating the update changes nothing
+        assertEquals(submittedBefore - 1, index.query(submitted).length);
+        assertEquals(closedBefore + 1, index.query(closed).length);
+        assertArrayEquals(fullScan(closed), index.query(closed));
+    }
+
+    private int[] fullScan(ComplaintQuery query) {
+        return complaints.stream().filter(query::matches).mapToInt(Complaint::getTrackingID)
+                .sorted().limit(query.getLimit()).toArray();
+    }
+
+    private static <E> List<E> pick(Random random, E[] values) {
+        List<E> picked = new ArrayList<>();
+        for (E value : values) {
+            if (random.nextInt(3) == 0) {
+                picked.add(value);
+            }
+        }
+        if (picked.isEmpty()) {
+            picked.add(values[random.nextInt(values.length)]);
+        }
+        return picked;
+    }
+}
@@ -0,0 +1,143 @@
+package src;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class ComplaintSearchIndexTest {
+
+    // More occurrences, shorter details and rarer terms all score higher
+    @Test
+    void ranksWithBm25() {
+        ComplaintSearchIndex index = indexOf(
+                "water leak near the school",
+                "water water everywhere, water leak in the basement",
+                "leak",
+                "gas leak smell near market",
+                "water pressure low",
+                "water meter broken");
+
+        assertEquals(List.of(2, 5, 6, 1), ids(index.search("water", 10))); // 5 and 6 tie: lower ID first
+        assertEquals(3, ids(index.search("leak", 10)).get(0)); // Shortest details first
+        // "gas" is in one complaint, "water" in four: the rare term decides the order
+        assertEquals(4, ids(index.search("water gas", 10)).get(0));
+        assertTrue(index.search("water", 10).get(0).score > index.search("water", 10).get(1).score);
+    }
+
+    // "word*" matches every term starting with it, not shorter ones
+    @Test
+    void matchesPrefixes() {
+        ComplaintSearchIndex index = indexOf(
+                "pipe burst on main road",
+                "bursting sewer line",
+                "bus stop shelter broken",
+                "Burst-pipe again");
+
+        assertEquals(List.of(1, 2, 4), sorted(ids(index.search("burst*", 10))));
+        assertEquals(List.of(1, 4), sorted(ids(index.search("burst", 10))));
+        assertEquals(List.of(1, 2, 3, 4), sorted(ids(index.search("bu*", 10))));
+        assertEquals(List.of(), ids(index.search("bursts", 10)));
+    }
+
+    // "+word" must appear in every result; the other words only rank them
+    @Test
+    void requiredTermsAreAnded() {
+        ComplaintSearchIndex index = indexOf(
+                "transformer sparking near pipe",
+                "pipe burst",
+                "transformer burst into flames",
+                "pipe leaking slowly");
+
+        assertEquals(List.of(1, 2, 3), sorted(ids(index.search("transformer burst", 10))));
+        assertEquals(List.of(3, 1), ids(index.search("+transformer burst", 10)));
+        assertEquals(List.of(2), ids(index.search("+pipe +burst*", 10)));
+        assertEquals(List.of(), ids(index.search("+pipe +flames", 10)));
+        assertEquals(List.of(3), ids(index.search("pipe +flam*", 10)));
+    }
+
+    // A small limit returns the head of the full ranking, both for selective and common terms
+    // (which score into a hash table and a dense array respectively); a huge limit returns everything
+    @Test
+    void topResultsMatchTheFullRanking() {
+        List<String> details = new ArrayList<>();
+        for (int i = 1; i <= 5_000; i++) {
+            StringBuilder text = new StringBuilder("streetlight report");
+            for (int repeat = 0; repeat < i % 4; repeat++) {
+                text.append(" dark");
+            }
+            if (i % 500 == 0) {
+                text.append(" flickering");
+            }
+            for (int filler = 0; filler < i % 7; filler++) {
+                text.append(" pole").append(filler);
+            }
+            details.add(text.toString());
+        }
+        ComplaintSearchIndex index = indexOf(details.toArray(new String[0]));
+
+        for (String query : new String[] {"dark", "flickering", "dark flickering", "+streetlight dark"}) {
+            List<ComplaintSearchIndex.Hit> all = index.search(query, Integer.MAX_VALUE);
+            for (int i = 1; i < all.size(); i++) {
+                ComplaintSearchIndex.Hit previous = all.get(i - 1);
+                ComplaintSearchIndex.Hit hit = all.get(i);
+                assertTrue(previous.score > hit.score
+                        || (previous.score == hit.score && previous.trackingID < hit.trackingID), query);
+            }
+            for (int limit : new int[] {1, 7, 100}) {
+                assertEquals(ids(all.subList(0, Math.min(limit, all.size()))), ids(index.search(query, limit)), query);
+            }
+        }
+        assertEquals(3_750, index.search("dark", Integer.MAX_VALUE).size());
+        assertEquals(10, index.search("flickering", Integer.MAX_VALUE).size());
+        assertEquals(5_000, index.search("+streetlight dark", Integer.MAX_VALUE).size());
+    }
+
+    // Complaints indexed newest first (as in a background load) rank the same as in order
+    @Test
+    void outOfOrderIndexingRanksTheSame() {
+        ComplaintSearchIndex inOrder = new ComplaintSearchIndex();
+        ComplaintSearchIndex reversed = new ComplaintSearchIndex();
+        int count = 1_000;
+        for (int id = 1; id <= count; id++) {
+            inOrder.add(complaint(id, "noise complaint " + (id % 3 == 0 ? "loud music" : "music")));
+        }
+        for (int id = count; id >= 1; id--) {
+            reversed.add(complaint(id, "noise complaint " + (id % 3 == 0 ? "loud music" : "music")));
+        }
+        reversed.add(complaint(5, "indexed twice, ignored"));
+
+        assertEquals(count, reversed.size());
+        assertEquals(ids(inOrder.search("loud music", 50)), ids(reversed.search("loud music", 50)));
+        assertEquals(List.of(), ids(reversed.search("ignored", 10)));
+    }
+
+    private static ComplaintSearchIndex indexOf(String... details) {
+        ComplaintSearchIndex index = new ComplaintSearchIndex();
+        for (int i = 0; i < details.length; i++) {
+            index.add(complaint(i + 1, details[i]));
+        }
+        return index;
+    }
+
+    private static Complaint complaint(int trackingID, String details) {
+        return new Complaint(trackingID, 1, details, IssueCategory.values()[0]);
+    }
+
+    private static List<Integer> ids(List<ComplaintSearchIndex.Hit> hits) {
+        List<Integer> ids = new ArrayList<>();
+        for (ComplaintSearchIndex.Hit hit : hits) {
+            ids.add(hit.trackingID);
+        }
+        return ids;
+    }
+
+    private static List<Integer> sorted(List<Integer> ids) {
+        List<Integer> copy = new ArrayList<>(ids);
+        copy.sort(null);
+        return copy;
+    }
+}
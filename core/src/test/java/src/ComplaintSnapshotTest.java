@@ -0,0 +1,47 @@
+package src;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ComplaintSnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    // The streaming writer (used in LAZY mode) produces the same file as the list writer
+    @Test
+    void streamedSnapshotMatchesListSnapshot() throws IOException {
+        List<Complaint> complaints = new ArrayList<>();
+        LocalDateTime start = LocalDateTime.of(2024, 3, 1, 8, 0);
+        for (int i = 1; i <= 50_000; i++) {
+            Complaint comp = new Complaint(i, 1 + i % 40, "Report " + i + (i % 7 == 0 ? " – détails" : ""),
+                    IssueCategory.values()[i % IssueCategory.values().length],
+                    ComplaintStatus.values()[i % ComplaintStatus.values().length], start.plusMinutes(i));
+            comp.setDuplicateReports(i % 3);
+            complaints.add(comp);
+        }
+        Path fromList = directory.resolve("list.bin");
+        Path fromStream = directory.resolve("stream.bin");
+        ComplaintSnapshot.write(fromList, complaints);
+        ComplaintSnapshot.write(fromStream, complaints.iterator());
+
+        assertArrayEquals(Files.readAllBytes(fromList), Files.readAllBytes(fromStream));
+        List<Complaint> restored = ComplaintSnapshot.read(fromStream);
+        assertEquals(complaints.size(), restored.size());
+        assertEquals(complaints.get(6).getDetails(), restored.get(6).getDetails());
+        assertEquals(complaints.get(41).getDuplicateReports(), restored.get(41).getDuplicateReports());
+        try (var leftovers = Files.list(directory)) {
+            assertEquals(2, leftovers.count()); // No column or temp files left behind
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package src;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ComplaintWriterTest {
+
+    @TempDir
+    Path dataDirectory;
+
+    // A row the database rejects fails only its own future; the rest of its batch is still committed.
+    @Test
+    void rejectedRowDoesNotFailItsBatch() throws Exception {
+        new ComplaintManager(new ComplaintManagerConfig().setDataDirectory(dataDirectory)).close(); // Creates the table
+
+        try (ConnectionPool pool = new ConnectionPool("org.h2.Driver", ComplaintManager.databaseUrl(dataDirectory),
+                "sa", "", 2);
+             ComplaintWriter writer = new ComplaintWriter(pool, 16, 200, 100)) {
+            // A long linger puts all three into one batch
+            CompletableFuture<Void> first = writer.submitInsert(complaint(1));
+            CompletableFuture<Void> sameId = writer.submitInsert(complaint(1));
+            CompletableFuture<Void> second = writer.submitInsert(complaint(2));
+
+            first.join();
+            second.join();
+            assertThrows(CompletionException.class, sameId::join);
+            assertEquals(1, writer.getFailedWrites());
+            assertEquals(2, writer.getCommittedWrites());
+        }
+    }
+
+    private static Complaint complaint(int trackingID) {
+        return new Complaint(trackingID, 1, "Street light out " + trackingID, IssueCategory.values()[0]);
+    }
+}
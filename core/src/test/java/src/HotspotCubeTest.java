@@ -0,0 +1,90 @@
+package src;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class HotspotCubeTest {
+
+    private static final Set<ComplaintStatus> ALL = EnumSet.allOf(ComplaintStatus.class);
+    private static final IssueCategory WATER = IssueCategory.WATER_OUTAGE;
+    private static final IssueCategory NOISE = IssueCategory.EXCESSIVE_NOISE;
+
+    // Moving the ring forward zeroes the hours that fall out of it; all-time totals keep them.
+    @Test
+    void advancingPastRetentionExpiresOldHours() {
+        HotspotCube cube = new HotspotCube(4);
+        long hour = HotspotCube.currentHour();
+        cube.addCount(1, WATER, ComplaintStatus.SUBMITTED, hour, 3);
+        cube.addCount(1, WATER, ComplaintStatus.SUBMITTED, hour + 2, 1);
+        assertEquals(4, cube.count(1, WATER, ALL, hour, hour + 3));
+
+        cube.addCount(1, WATER, ComplaintStatus.SUBMITTED, hour + 4, 2); // Reuses the slot of `hour`
+        assertEquals(0, cube.count(1, WATER, ALL, hour, hour + 1));
+        assertEquals(1, cube.count(1, WATER, ALL, hour + 2, hour + 3));
+        assertEquals(2, cube.count(1, WATER, ALL, hour + 4, hour + 5));
+        assertEquals(6, cube.total(1, WATER, ComplaintStatus.SUBMITTED));
+
+        cube.addCount(1, WATER, ComplaintStatus.SUBMITTED, hour + 100, 1); // Far ahead: every slot reused
+        assertEquals(1, cube.count(1, WATER, ALL, hour, hour + 101));
+        assertEquals(7, cube.total(1, WATER, ComplaintStatus.SUBMITTED));
+    }
+
+    // Hours older than the window still reach the totals but not the hourly counts.
+    @Test
+    void countsBeforeTheWindowOnlyReachTotals() {
+        HotspotCube cube = new HotspotCube(4);
+        long hour = HotspotCube.currentHour();
+        cube.addCount(2, NOISE, ComplaintStatus.CLOSED, hour - 10, 5);
+        assertEquals(0, cube.count(2, NOISE, ALL, hour - 10, hour + 1));
+        assertEquals(5, cube.total(2, NOISE, ComplaintStatus.CLOSED));
+    }
+
+    // A status change moves one count between statuses within the submission hour.
+    @Test
+    void moveStatusShiftsOneCount() {
+        HotspotCube cube = new HotspotCube(24);
+        long hour = HotspotCube.currentHour();
+        Complaint comp = new Complaint(1, 3, "Leak", WATER, ComplaintStatus.SUBMITTED, LocalDateTime.now());
+        cube.add(comp);
+        cube.add(new Complaint(2, 3, "Leak", WATER, ComplaintStatus.SUBMITTED, LocalDateTime.now()));
+
+        cube.moveStatus(comp, ComplaintStatus.SUBMITTED, ComplaintStatus.CLOSED);
+        assertEquals(1, cube.count(3, WATER, EnumSet.of(ComplaintStatus.SUBMITTED), hour, hour + 1));
+        assertEquals(1, cube.count(3, WATER, EnumSet.of(ComplaintStatus.CLOSED), hour, hour + 1));
+        assertEquals(2, cube.count(3, WATER, ALL, hour, hour + 1));
+        assertEquals(1, cube.total(3, WATER, ComplaintStatus.SUBMITTED));
+        assertEquals(1, cube.total(3, WATER, ComplaintStatus.CLOSED));
+    }
+
+    // Fastest growth first, ties broken by the larger current count; pairs silent in the
+    // latest window are left out.
+    @Test
+    void topHotspotsRanksByGrowthThenCount() {
+        HotspotCube cube = new HotspotCube(24);
+        long hour = HotspotCube.currentHour();
+        long previous = hour - 2; // Inside the previous 2-hour window
+        cube.addCount(1, WATER, ComplaintStatus.SUBMITTED, hour, 4);     // 1 -> 4: +300%
+        cube.addCount(1, WATER, ComplaintStatus.SUBMITTED, previous, 1);
+        cube.addCount(2, WATER, ComplaintStatus.SUBMITTED, hour, 2);     // 0 -> 2: +200%
+        cube.addCount(3, NOISE, ComplaintStatus.SUBMITTED, hour, 6);     // 2 -> 6: +200%, more complaints
+        cube.addCount(3, NOISE, ComplaintStatus.SUBMITTED, previous, 2);
+        cube.addCount(4, NOISE, ComplaintStatus.SUBMITTED, previous, 9); // Nothing recent: skipped
+
+        List<HotspotCube.Hotspot> top = cube.topHotspots(10, 2, ALL);
+        assertEquals(3, top.size());
+        assertEquals(1, top.get(0).zoneNumber);
+        assertEquals(3.0, top.get(0).growthRate);
+        assertEquals(3, top.get(1).zoneNumber);
+        assertEquals(2, top.get(2).zoneNumber);
+
+        assertEquals(1, cube.topHotspots(1, 2, ALL).size());
+        assertThrows(IllegalArgumentException.class, () -> cube.topHotspots(10, 13, ALL));
+    }
+}
@@ -0,0 +1,105 @@
+package src;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+    // Values below 128 (and up to 255) get a bucket each; above that every power of two is split
+    // into 128 buckets, so a bucket's top is less than 1% above any value in it
+    @Test
+    void bucketsAreExactThenWithinOnePercent() {
+        for (long value = 0; value < 256; value++) {
+            assertEquals(value, LatencyHistogram.highestValueIn(LatencyHistogram.bucketOf(value)));
+        }
+        assertEquals(256, LatencyHistogram.bucketOf(256));
+        assertEquals(256, LatencyHistogram.bucketOf(257));
+        assertEquals(257, LatencyHistogram.bucketOf(258));
+
+        for (int magnitude = 8; magnitude <= 36; magnitude++) {
+            long power = 1L << magnitude;
+            // Consecutive buckets meet exactly at the power of two
+            assertEquals(LatencyHistogram.bucketOf(power - 1) + 1, LatencyHistogram.bucketOf(power));
+            assertEquals(power - 1, LatencyHistogram.highestValueIn(LatencyHistogram.bucketOf(power - 1)));
+            for (long value : new long[] {power, power + power / 3, 2 * power - 1}) {
+                long top = LatencyHistogram.highestValueIn(LatencyHistogram.bucketOf(value));
+                assertTrue(top >= value && top - value < value / 100.0, "value " + value + " top " + top);
+            }
+        }
+    }
+
+    // 2^37 ns and more all land in the last bucket
+    @Test
+    void hugeValuesShareTheLastBucket() {
+        int last = LatencyHistogram.bucketOf((1L << 37) - 1);
+        assertEquals(last, LatencyHistogram.bucketOf(1L << 37));
+        assertEquals(last, LatencyHistogram.bucketOf(Long.MAX_VALUE));
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(Long.MAX_VALUE / 2);
+        assertEquals(Long.MAX_VALUE / 2, histogram.getPercentileNanos(50)); // The maximum, not the top of the range
+    }
+
+    @Test
+    void percentilesOfExactValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int value = 100; value >= 1; value--) {
+            histogram.record(value);
+        }
+        assertEquals(100, histogram.getCount());
+        assertEquals(1, histogram.getPercentileNanos(0));
+        assertEquals(1, histogram.getPercentileNanos(1));
+        assertEquals(50, histogram.getPercentileNanos(50));
+        assertEquals(51, histogram.getPercentileNanos(50.5));
+        assertEquals(99, histogram.getPercentileNanos(99));
+        assertEquals(100, histogram.getPercentileNanos(100));
+        assertEquals(50.5, histogram.getMeanNanos());
+        assertEquals(100, histogram.getMaxNanos());
+    }
+
+    // Percentiles report the top of the bucket, never above the largest value recorded
+    @Test
+    void percentilesOfLargeValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 990; i++) {
+            histogram.record(1_000_000);
+        }
+        for (int i = 0; i < 10; i++) {
+            histogram.record(5_000_000);
+        }
+        long p50 = histogram.getPercentileNanos(50);
+        assertTrue(p50 >= 1_000_000 && p50 < 1_010_000, "p50 " + p50);
+        assertEquals(p50, histogram.getPercentileNanos(99));
+        assertEquals(5_000_000, histogram.getPercentileNanos(99.1));
+        assertEquals(5_000_000, histogram.getPercentileNanos(100));
+    }
+
+    @Test
+    void emptyNegativeMergeAndReset() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getPercentileNanos(99));
+        assertEquals(0.0, histogram.getMeanNanos());
+
+        histogram.record(-5); // Clock went backwards: counted as 0
+        assertEquals(0, histogram.getMaxNanos());
+        assertEquals(1, histogram.getCount());
+
+        LatencyHistogram other = new LatencyHistogram();
+        other.record(40);
+        other.record(80);
+        histogram.merge(other);
+        assertEquals(3, histogram.getCount());
+        assertEquals(40, histogram.getPercentileNanos(50));
+        assertEquals(80, histogram.getMaxNanos());
+        assertEquals(40.0, histogram.getMeanNanos());
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMaxNanos());
+        assertEquals(0, histogram.getPercentileNanos(100));
+        histogram.record(7);
+        assertEquals(7, histogram.getPercentileNanos(1)); // No counts left over from before the reset
+    }
+}
@@ -0,0 +1,51 @@
+package src;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LoadGeneratorTest {
+
+    @TempDir
+    Path dataDirectory;
+
+    // Bad options print the usage and fail without sending anything
+    @Test
+    void rejectsInvalidOptions() {
+        assertEquals(1, LoadGenerator.run(new String[] {"loadtest", "--concurrency", "0"}));
+        assertEquals(1, LoadGenerator.run(new String[] {"loadtest", "--seconds"}));
+        assertEquals(1, LoadGenerator.run(new String[] {"loadtest", "--rate", "10"}));
+        assertEquals(1, LoadGenerator.run(new String[] {"loadtest", "--mix", "create"}));
+        assertEquals(1, LoadGenerator.run(new String[] {"loadtest", "--mix", "create=-1,get=5"}));
+        assertEquals(1, LoadGenerator.run(new String[] {"loadtest", "--mix", "create=0"}));
+        assertEquals(1, LoadGenerator.run(new String[] {"loadtest", "--mix", "delete=5"}));
+    }
+
+    @Test
+    void readsTheTrackingIdOfACreatedComplaint() {
+        assertEquals(42, LoadGenerator.parseTrackingId("{\"trackingId\":42,\"zone\":3}"));
+        assertEquals(0, LoadGenerator.parseTrackingId("{\"error\":\"details are required\"}"));
+        assertEquals(0, LoadGenerator.parseTrackingId("{\"trackingId\":\"x\"}"));
+    }
+
+    // A short run of every operation against a live server succeeds and stores the created complaints
+    @Test
+    void drivesALiveServer() throws Exception {
+        ComplaintManager manager = new ComplaintManager(new ComplaintManagerConfig().setDataDirectory(dataDirectory));
+        ComplaintHttpServer server = new ComplaintHttpServer(manager, 0, 4);
+        server.start();
+        try {
+            int exitCode = LoadGenerator.run(new String[] {"loadtest", "--url", "http://localhost:" + server.getPort(),
+                    "--concurrency", "4", "--seconds", "1", "--warmup", "0"});
+            assertEquals(0, exitCode);
+            assertTrue(manager.getAllComplaints().size() > 0);
+        } finally {
+            server.stop(0);
+            manager.close();
+        }
+    }
+}
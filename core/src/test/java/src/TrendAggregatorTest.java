@@ -0,0 +1,158 @@
+package src;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import src.TrendAggregator.Dimension;
+
+class TrendAggregatorTest {
+
+    private static final int ROWS = 300_000;      // Several fork-join leaves of 65536 rows
+    private static final int LEAF_ROWS = 1 << 16; // TrendAggregator's smallest leaf
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private static List<Complaint> complaints;
+    private static ComplaintColumns columns;
+    private static ForkJoinPool pool;
+
+    @BeforeAll
+    static void buildColumns() {
+        Random random = new Random(7);
+        IssueCategory[] categories = IssueCategory.values();
+        ComplaintStatus[] statuses = ComplaintStatus.values();
+        complaints = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            complaints.add(new Complaint(i + 1, 1 + random.nextInt(60), "",
+                    categories[random.nextInt(categories.length)], statuses[random.nextInt(statuses.length)],
+                    START.plusSeconds(random.nextInt(90 * 86_400))));
+        }
+        // A group that exists only on the rows either side of each leaf boundary
+        for (int boundary = LEAF_ROWS; boundary < ROWS; boundary += LEAF_ROWS) {
+            for (int row = boundary - 1; row <= boundary; row++) {
+                complaints.set(row, new Complaint(row + 1, 999, "", categories[0], statuses[0], START.plusDays(45)));
+            }
+        }
+        columns = ComplaintColumns.of(complaints);
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterAll
+    static void shutDownPool() {
+        pool.shutdown();
+    }
+
+    // Parallel and sequential aggregation both match a plain count, for dense and hashed group keys
+    @Test
+    void matchesAPlainCount() {
+        List<Set<Dimension>> groupings = List.of(
+                EnumSet.of(Dimension.CATEGORY),
+                EnumSet.of(Dimension.CATEGORY, Dimension.STATUS),
+                EnumSet.of(Dimension.ZONE, Dimension.CATEGORY, Dimension.DAY),
+                EnumSet.of(Dimension.ZONE, Dimension.WEEK),
+                EnumSet.of(Dimension.ZONE, Dimension.CATEGORY, Dimension.STATUS, Dimension.HOUR)); // Hash tables
+        TrendAggregator aggregator = new TrendAggregator(pool);
+        for (Set<Dimension> groupBy : groupings) {
+            for (LocalDateTime[] range : new LocalDateTime[][] {
+                    {null, null}, {START.plusDays(10).plusHours(5), START.plusDays(50)}, {null, START.plusDays(1)}}) {
+                Map<String, Long> expected = plainCount(groupBy, range[0], range[1]);
+                String label = groupBy + " " + range[0] + ".." + range[1];
+                assertEquals(expected, asMap(aggregator.aggregate(columns, groupBy, range[0], range[1])), label);
+                assertEquals(expected, asMap(TrendAggregator.aggregateSequential(columns, groupBy, range[0], range[1])),
+                        label);
+            }
+        }
+    }
+
+    // Rows on both sides of every leaf boundary are counted exactly once
+    @Test
+    void countsRowsAtLeafBoundaries() {
+        List<TrendAggregator.GroupCount> groups = new TrendAggregator(pool)
+                .aggregate(columns, EnumSet.of(Dimension.ZONE), null, null);
+        long boundaryRows = 2L * ((ROWS - 1) / LEAF_ROWS);
+        assertEquals(boundaryRows, asMap(groups).get("999"));
+        assertEquals(ROWS, groups.stream().mapToLong(group -> group.count).sum());
+    }
+
+    // Largest groups come first
+    @Test
+    void sortsLargestGroupsFirst() {
+        List<TrendAggregator.GroupCount> groups = new TrendAggregator(pool)
+                .aggregate(columns, EnumSet.of(Dimension.ZONE, Dimension.STATUS), null, null);
+        for (int i = 1; i < groups.size(); i++) {
+            assertTrue(groups.get(i - 1).count >= groups.get(i).count);
+        }
+    }
+
+    // A range with no rows, an empty range and no rows at all give empty reports
+    @Test
+    void emptyRangesGiveNoGroups() {
+        TrendAggregator aggregator = new TrendAggregator(pool);
+        Set<Dimension> groupBy = EnumSet.of(Dimension.ZONE, Dimension.DAY);
+        assertEquals(List.of(), aggregator.aggregate(columns, groupBy, START.minusDays(30), START.minusDays(1)));
+        assertEquals(List.of(), aggregator.aggregate(columns, groupBy, START.plusDays(5), START.plusDays(5)));
+        assertEquals(List.of(), aggregator.aggregate(columns, groupBy, START.plusDays(5), START.plusDays(4)));
+        assertEquals(List.of(), TrendAggregator.aggregateSequential(columns, groupBy,
+                START.plusYears(1), START.plusYears(2)));
+        ComplaintColumns none = ComplaintColumns.of(new ArrayList<>());
+        assertEquals(List.of(), aggregator.aggregate(none, groupBy, null, null));
+        assertEquals(List.of(), aggregator.aggregate(none, EnumSet.of(Dimension.CATEGORY), null, null));
+    }
+
+    // Counts the complaints in [from, to) per group key, one row at a time
+    private static Map<String, Long> plainCount(Set<Dimension> groupBy, LocalDateTime from, LocalDateTime to) {
+        Map<String, Long> counts = new HashMap<>();
+        for (Complaint comp : complaints) {
+            LocalDateTime submitted = comp.getSubmissionDate();
+            if ((from != null && submitted.isBefore(from)) || (to != null && !submitted.isBefore(to))) {
+                continue;
+            }
+            LocalDateTime bucketStart = null;
+            for (Dimension dimension : groupBy) {
+                long bucketSeconds = dimension.bucketSeconds();
+                if (bucketSeconds > 0) {
+                    long epoch = submitted.toEpochSecond(ZoneOffset.UTC);
+                    bucketStart = LocalDateTime.ofEpochSecond(Math.floorDiv(epoch, bucketSeconds) * bucketSeconds,
+                            0, ZoneOffset.UTC);
+                }
+            }
+            counts.merge(key(groupBy.contains(Dimension.ZONE) ? comp.getZoneNumber() : null,
+                    groupBy.contains(Dimension.CATEGORY) ? comp.getCategory() : null,
+                    groupBy.contains(Dimension.STATUS) ? comp.getStatus() : null, bucketStart), 1L, Long::sum);
+        }
+        return counts;
+    }
+
+    private static Map<String, Long> asMap(List<TrendAggregator.GroupCount> groups) {
+        Map<String, Long> counts = new HashMap<>();
+        for (TrendAggregator.GroupCount group : groups) {
+            Long previous = counts.put(key(group.zoneNumber, group.category, group.status, group.bucketStart), group.count);
+            assertEquals(null, previous, "group reported twice: " + group);
+        }
+        return counts;
+    }
+
+    private static String key(Integer zone, IssueCategory category, ComplaintStatus status, LocalDateTime bucketStart) {
+        StringBuilder key = new StringBuilder();
+        for (Object part : new Object[] {zone, category, status, bucketStart}) {
+            if (part != null) {
+                key.append(key.length() > 0 ? "|" : "").append(part);
+            }
+        }
+        return key.toString();
+    }
+}
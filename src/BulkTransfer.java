@@ -0,0 +1,590 @@
+package src;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Moves complaints between files and the database in bulk, for the non-interactive command-line mode.
+//
+// Import: the file is read in chunks of whole records, chunks are parsed and validated in parallel,
+// and each parsed chunk (in file order) gets a block of tracking IDs and is inserted into H2 in one
+// transaction. Export: complaints are streamed from H2 a page at a time and written out.
+// Either way only a few chunks or pages are in memory at once, however large the file is.
+//
+// Both formats use the same fields: trackingId, zone, category, status, submitted, duplicateReports
+// and details. CSV has a header row naming them (in any order); NDJSON has one JSON object per line.
+// On import zone, category and details are required, status defaults to SUBMITTED, submitted to now
+// and duplicateReports to 0. Tracking IDs in the file are ignored; new ones are assigned.
+public final class BulkTransfer {
+
+    public enum Format {
+        CSV,
+        NDJSON;
+
+        // Picks the format from the file extension (.csv, or .ndjson/.jsonl/.json)
+        public static Format fromFileName(String fileName) {
+            String lower = fileName.toLowerCase(Locale.ROOT);
+            if (lower.endsWith(".csv")) {
+                return CSV;
+            }
+            if (lower.endsWith(".ndjson") || lower.endsWith(".jsonl") || lower.endsWith(".json")) {
+                return NDJSON;
+            }
+            throw new IllegalArgumentException("Cannot tell the format of " + fileName + "; use --format csv|ndjson.");
+        }
+    }
+
+    private static final int CHUNK_BYTES = 4 << 20;        // Raw bytes handed to one parser task
+    private static final int MAX_REPORTED_ERRORS = 20;     // Rejected records listed in the result
+    private static final int EXPORT_PAGE_SIZE = 5_000;
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private BulkTransfer() {
+    }
+
+    // Outcome of an import
+    public static final class ImportResult {
+        public final long imported;
+        public final long rejected;
+        public final List<String> errors;   // The first MAX_REPORTED_ERRORS problems, with line numbers
+        public final boolean completed;     // False if the database rejected a group and the import stopped
+        public final long elapsedNanos;
+
+        ImportResult(long imported, long rejected, List<String> errors, boolean completed, long elapsedNanos) {
+            this.imported = imported;
+            this.rejected = rejected;
+            this.errors = Collections.unmodifiableList(errors);
+            this.completed = completed;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public double recordsPerSecond() {
+            return elapsedNanos == 0 ? 0 : (imported + rejected) * 1e9 / elapsedNanos;
+        }
+    }
+
+    // --- Import ---
+
+    // Imports every valid record of the file. Parsing runs on parserThreads threads, with at most
+    // two chunks per thread waiting to be stored.
+    public static ImportResult importFile(ComplaintManager manager, Path file, Format format, int parserThreads)
+            throws IOException {
+        return importFile(manager, file, format, parserThreads, CHUNK_BYTES);
+    }
+
+    // chunkBytes: size of the pieces the file is read in (tests use small ones to put records across cuts)
+    static ImportResult importFile(ComplaintManager manager, Path file, Format format, int parserThreads,
+                                   int chunkBytes) throws IOException {
+        if (parserThreads < 1) {
+            throw new IllegalArgumentException("At least one parser thread is needed.");
+        }
+        long start = System.nanoTime();
+        AtomicInteger threadNumber = new AtomicInteger(1);
+        ExecutorService parsers = Executors.newFixedThreadPool(parserThreads, runnable -> {
+            Thread thread = new Thread(runnable, "bulk-import-parser-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long imported = 0;
+        long rejected = 0;
+        List<String> errors = new ArrayList<>();
+        boolean completed = true;
+        try (InputStream in = Files.newInputStream(file)) {
+            ChunkReader reader = new ChunkReader(in, format == Format.CSV, chunkBytes);
+            int[] columns = null; // CSV column position of each field, -1 if absent
+            if (format == Format.CSV) {
+                String header = reader.readHeader();
+                if (header == null) {
+                    return new ImportResult(0, 0, errors, true, System.nanoTime() - start);
+                }
+                columns = mapHeader(header);
+            }
+            int[] csvColumns = columns;
+
+            ArrayDeque<Future<ParsedChunk>> inFlight = new ArrayDeque<>();
+            Chunk chunk;
+            while (completed && (chunk = reader.next()) != null) {
+                Chunk toParse = chunk;
+                inFlight.add(parsers.submit(() -> format == Format.CSV
+                        ? parseCsv(toParse, csvColumns)
+                        : parseNdjson(toParse)));
+                if (inFlight.size() >= parserThreads * 2) {
+                    ParsedChunk parsed = await(inFlight.poll());
+                    rejected += collectErrors(parsed, errors);
+                    int stored = store(manager, parsed);
+                    imported += stored;
+                    completed = stored == parsed.count;
+                }
+            }
+            while (completed && !inFlight.isEmpty()) {
+                ParsedChunk parsed = await(inFlight.poll());
+                rejected += collectErrors(parsed, errors);
+                int stored = store(manager, parsed);
+                imported += stored;
+                completed = stored == parsed.count;
+            }
+        } finally {
+            parsers.shutdownNow();
+        }
+        return new ImportResult(imported, rejected, errors, completed, System.nanoTime() - start);
+    }
+
+    // Assigns the chunk a block of IDs (in file order) and inserts it; returns how many were stored.
+    private static int store(ComplaintManager manager, ParsedChunk parsed) {
+        if (parsed.count == 0) {
+            return 0;
+        }
+        int firstId = manager.reserveTrackingIds(parsed.count);
+        List<Complaint> batch = new ArrayList<>(parsed.count);
+        for (int i = 0; i < parsed.count; i++) {
+            Complaint comp = new Complaint(firstId + i, parsed.zones[i], parsed.details[i],
+                    parsed.categories[i], parsed.statuses[i], parsed.submitted[i]);
+            comp.setDuplicateReports(parsed.duplicateReports[i]);
+            batch.add(comp);
+        }
+        return manager.importComplaints(batch);
+    }
+
+    private static long collectErrors(ParsedChunk parsed, List<String> errors) {
+        for (String error : parsed.errors) {
+            if (errors.size() == MAX_REPORTED_ERRORS) {
+                break;
+            }
+            errors.add(error);
+        }
+        return parsed.rejected;
+    }
+
+    private static ParsedChunk await(Future<ParsedChunk> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Import interrupted.", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Parsing failed: " + e.getCause(), e.getCause());
+        }
+    }
+
+    // Finds where each known field sits in the CSV header. Unknown columns are ignored.
+    private static int[] mapHeader(String header) throws IOException {
+        if (header.startsWith("\uFEFF")) {
+            header = header.substring(1); // Byte order mark
+        }
+        List<String> names = new ArrayList<>();
+        int end = parseCsvRecord(header, 0, names, new int[1]);
+        if (end < 0) {
+            throw new IOException("CSV header has an unterminated quote.");
+        }
+        int[] columns = new int[ComplaintJson.FIELDS.length];
+        Arrays.fill(columns, -1);
+        for (int i = 0; i < names.size(); i++) {
+            int field = ComplaintJson.fieldIndex(names.get(i).trim());
+            if (field >= 0) {
+                columns[field] = i;
+            }
+        }
+        for (int required : new int[] {ComplaintJson.ZONE, ComplaintJson.CATEGORY, ComplaintJson.DETAILS}) {
+            if (columns[required] < 0) {
+                throw new IOException("CSV header is missing the '" + ComplaintJson.FIELDS[required] + "' column.");
+            }
+        }
+        return columns;
+    }
+
+    // --- Chunking ---
+
+    // A run of complete records and the file line it starts on
+    private static final class Chunk {
+        final String text;
+        final long firstLine;
+
+        Chunk(String text, long firstLine) {
+            this.text = text;
+            this.firstLine = firstLine;
+        }
+    }
+
+    // Reads the input in chunkBytes pieces, each cut after the last complete record. For CSV a
+    // newline only ends a record outside quotes (quoted fields may span lines). Splitting on the
+    // newline byte is safe for UTF-8, which never uses it inside a multi-byte character.
+    private static final class ChunkReader {
+        private final InputStream in;
+        private final boolean csv;
+        private byte[] buffer;
+        private int filled;
+        private boolean endOfInput;
+        private long nextLine = 1;
+
+        ChunkReader(InputStream in, boolean csv, int chunkBytes) {
+            this.in = in;
+            this.csv = csv;
+            this.buffer = new byte[chunkBytes];
+        }
+
+        // Returns the first line (the CSV header), or null for an empty file.
+        String readHeader() throws IOException {
+            Chunk first = nextCut(true);
+            return first == null ? null : first.text.strip();
+        }
+
+        Chunk next() throws IOException {
+            return nextCut(false);
+        }
+
+        private Chunk nextCut(boolean singleRecord) throws IOException {
+            int scanned = 0;
+            while (true) {
+                fill();
+                if (filled == 0) {
+                    return null;
+                }
+                int cut = findCut(scanned, singleRecord);
+                if (cut < 0 && endOfInput) {
+                    cut = filled; // Last record without a trailing newline
+                }
+                if (cut > 0) {
+                    return take(cut);
+                }
+                scanned = filled;
+                if (filled == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2); // One record larger than a chunk
+                }
+            }
+        }
+
+        // Offset just past the last (or first, for a single record) record-ending newline, or -1.
+        private int findCut(int from, boolean singleRecord) {
+            boolean inQuotes = false;
+            int cut = -1;
+            // Quote state depends on everything since the start of the buffer, so rescan from 0 for CSV
+            for (int i = csv ? 0 : from; i < filled; i++) {
+                byte b = buffer[i];
+                if (b == '"' && csv) {
+                    inQuotes = !inQuotes; // An escaped "" toggles twice
+                } else if (b == '\n' && !inQuotes) {
+                    cut = i + 1;
+                    if (singleRecord) {
+                        return cut;
+                    }
+                }
+            }
+            return cut;
+        }
+
+        private Chunk take(int length) {
+            String text = new String(buffer, 0, length, StandardCharsets.UTF_8);
+            Chunk chunk = new Chunk(text, nextLine);
+            for (int i = 0; i < length; i++) {
+                if (buffer[i] == '\n') {
+                    nextLine++;
+                }
+            }
+            System.arraycopy(buffer, length, buffer, 0, filled - length);
+            filled -= length;
+            return chunk;
+        }
+
+        private void fill() throws IOException {
+            while (!endOfInput && filled < buffer.length) {
+                int read = in.read(buffer, filled, buffer.length - filled);
+                if (read < 0) {
+                    endOfInput = true;
+                } else {
+                    filled += read;
+                }
+            }
+        }
+    }
+
+    // --- Parsing and validation ---
+
+    // Valid records of one chunk, column by column, plus the problems found
+    private static final class ParsedChunk {
+        int count;
+        int[] zones = new int[1024];
+        IssueCategory[] categories = new IssueCategory[1024];
+        ComplaintStatus[] statuses = new ComplaintStatus[1024];
+        LocalDateTime[] submitted = new LocalDateTime[1024];
+        int[] duplicateReports = new int[1024];
+        String[] details = new String[1024];
+        long rejected;
+        final List<String> errors = new ArrayList<>();
+        final LocalDateTime now = LocalDateTime.now();
+
+        // Validates one record's values (indexed like ComplaintJson.FIELDS); returns an error message or null.
+        String add(String[] values) {
+            String zoneValue = trimmed(values[ComplaintJson.ZONE]);
+            String categoryValue = trimmed(values[ComplaintJson.CATEGORY]);
+            String statusValue = trimmed(values[ComplaintJson.STATUS]);
+            String submittedValue = trimmed(values[ComplaintJson.SUBMITTED]);
+            String duplicatesValue = trimmed(values[ComplaintJson.DUPLICATE_REPORTS]);
+            String detailsValue = values[ComplaintJson.DETAILS] == null ? "" : values[ComplaintJson.DETAILS].strip();
+
+            int zone;
+            try {
+                zone = Integer.parseInt(zoneValue);
+            } catch (NumberFormatException e) {
+                return "invalid zone '" + zoneValue + "'";
+            }
+            IssueCategory category;
+            try {
+                category = IssueCategory.valueOf(categoryValue.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return "unknown category '" + categoryValue + "'";
+            }
+            ComplaintStatus status = ComplaintStatus.SUBMITTED;
+            if (!statusValue.isEmpty()) {
+                try {
+                    status = ComplaintStatus.valueOf(statusValue.toUpperCase(Locale.ROOT));
+                } catch (IllegalArgumentException e) {
+                    return "unknown status '" + statusValue + "'";
+                }
+            }
+            LocalDateTime submittedAt = now;
+            if (!submittedValue.isEmpty()) {
+                try {
+                    submittedAt = submittedValue.indexOf('T') >= 0
+                            ? LocalDateTime.parse(submittedValue).withNano(0)
+                            : LocalDateTime.parse(submittedValue, DATE_FORMAT);
+                } catch (DateTimeParseException e) {
+                    return "invalid submitted date '" + submittedValue + "' (expected yyyy-MM-dd HH:mm:ss)";
+                }
+            }
+            int duplicates = 0;
+            if (!duplicatesValue.isEmpty()) {
+                try {
+                    duplicates = Integer.parseInt(duplicatesValue);
+                } catch (NumberFormatException e) {
+                    duplicates = -1;
+                }
+                if (duplicates < 0) {
+                    return "invalid duplicateReports '" + duplicatesValue + "'";
+                }
+            }
+            if (detailsValue.isEmpty()) {
+                return "details are empty";
+            }
+            if (detailsValue.length() > Complaint.MAX_DETAILS_LENGTH) {
+                return "details are longer than " + Complaint.MAX_DETAILS_LENGTH + " characters";
+            }
+
+            if (count == zones.length) {
+                int capacity = count * 2;
+                zones = Arrays.copyOf(zones, capacity);
+                categories = Arrays.copyOf(categories, capacity);
+                statuses = Arrays.copyOf(statuses, capacity);
+                submitted = Arrays.copyOf(submitted, capacity);
+                duplicateReports = Arrays.copyOf(duplicateReports, capacity);
+                details = Arrays.copyOf(details, capacity);
+            }
+            zones[count] = zone;
+            categories[count] = category;
+            statuses[count] = status;
+            submitted[count] = submittedAt;
+            duplicateReports[count] = duplicates;
+            details[count] = detailsValue;
+            count++;
+            return null;
+        }
+
+        void reject(long line, String message) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add("line " + line + ": " + message);
+            }
+        }
+
+        private static String trimmed(String value) {
+            return value == null ? "" : value.trim();
+        }
+    }
+
+    private static ParsedChunk parseCsv(Chunk chunk, int[] columns) {
+        ParsedChunk parsed = new ParsedChunk();
+        String text = chunk.text;
+        List<String> fields = new ArrayList<>();
+        String[] values = new String[ComplaintJson.FIELDS.length];
+        int[] newlines = new int[1];
+        long line = chunk.firstLine;
+        int position = 0;
+        while (position < text.length()) {
+            fields.clear();
+            newlines[0] = 0;
+            int end = parseCsvRecord(text, position, fields, newlines);
+            long recordLine = line;
+            if (end < 0) {
+                parsed.reject(recordLine, "unterminated quoted field");
+                break;
+            }
+            line += newlines[0];
+            position = end;
+            if (fields.size() == 1 && fields.get(0).isBlank()) {
+                continue; // Blank line
+            }
+            for (int field = 0; field < ComplaintJson.FIELDS.length; field++) {
+                int column = columns[field];
+                values[field] = column >= 0 && column < fields.size() ? fields.get(column) : null;
+            }
+            String error = parsed.add(values);
+            if (error != null) {
+                parsed.reject(recordLine, error);
+            }
+        }
+        return parsed;
+    }
+
+    // Parses one RFC 4180 record starting at position into fields. Returns the offset after the
+    // record (past its newline), or -1 if a quoted field is not closed. newlines[0] gets the number
+    // of line breaks consumed, including those inside quoted fields.
+    private static int parseCsvRecord(String text, int position, List<String> fields, int[] newlines) {
+        StringBuilder field = new StringBuilder();
+        int i = position;
+        int length = text.length();
+        while (true) {
+            field.setLength(0);
+            if (i < length && text.charAt(i) == '"') {
+                i++;
+                while (true) {
+                    if (i >= length) {
+                        return -1;
+                    }
+                    char c = text.charAt(i++);
+                    if (c == '"') {
+                        if (i < length && text.charAt(i) == '"') {
+                            field.append('"');
+                            i++;
+                        } else {
+                            break;
+                        }
+                    } else {
+                        if (c == '\n') {
+                            newlines[0]++;
+                        }
+                        field.append(c);
+                    }
+                }
+            }
+            // Unquoted text (or anything after a closing quote) up to the next separator
+            while (i < length) {
+                char c = text.charAt(i);
+                if (c == ',' || c == '\n') {
+                    break;
+                }
+                if (c != '\r') {
+                    field.append(c);
+                }
+                i++;
+            }
+            fields.add(field.toString());
+            if (i >= length) {
+                return length;
+            }
+            if (text.charAt(i++) == '\n') {
+                newlines[0]++;
+                return i;
+            }
+        }
+    }
+
+    private static ParsedChunk parseNdjson(Chunk chunk) {
+        ParsedChunk parsed = new ParsedChunk();
+        String text = chunk.text;
+        String[] values = new String[ComplaintJson.FIELDS.length];
+        long line = chunk.firstLine;
+        int position = 0;
+        while (position < text.length()) {
+            int end = text.indexOf('\n', position);
+            if (end < 0) {
+                end = text.length();
+            }
+            String record = text.substring(position, end).strip();
+            position = end + 1;
+            long recordLine = line++;
+            if (record.isEmpty()) {
+                continue;
+            }
+            Arrays.fill(values, null);
+            String error = new ComplaintJson.ObjectParser(record).parseInto(values);
+            if (error == null) {
+                error = parsed.add(values);
+            }
+            if (error != null) {
+                parsed.reject(recordLine, error);
+            }
+        }
+        return parsed;
+    }
+
+    // --- Export ---
+
+    // Writes every complaint to the file in tracking ID order; returns the number written.
+    public static long exportFile(ComplaintManager manager, Path file, Format format) throws IOException {
+        long written = 0;
+        StringBuilder line = new StringBuilder(512);
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            if (format == Format.CSV) {
+                out.write(String.join(",", ComplaintJson.FIELDS));
+                out.newLine();
+            }
+            Iterator<Complaint> complaints = manager.streamComplaints(EXPORT_PAGE_SIZE).iterator();
+            while (complaints.hasNext()) {
+                Complaint comp = complaints.next();
+                line.setLength(0);
+                if (format == Format.CSV) {
+                    appendCsv(line, comp);
+                } else {
+                    ComplaintJson.append(line, comp);
+                }
+                out.append(line);
+                out.newLine();
+                written++;
+            }
+        }
+        return written;
+    }
+
+    private static void appendCsv(StringBuilder line, Complaint comp) {
+        line.append(comp.getTrackingID()).append(',')
+            .append(comp.getZoneNumber()).append(',')
+            .append(comp.getCategory()).append(',')
+            .append(comp.getStatus()).append(',')
+            .append(comp.getFormattedDate()).append(',')
+            .append(comp.getDuplicateReports()).append(',');
+        String details = comp.getDetails();
+        boolean quote = details.indexOf(',') >= 0 || details.indexOf('"') >= 0 || details.indexOf('\n') >= 0
+                || details.indexOf('\r') >= 0 || !details.equals(details.strip());
+        if (!quote) {
+            line.append(details);
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < details.length(); i++) {
+            char c = details.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        line.append('"');
+    }
+}
@@ -1,12 +1,24 @@
 package src;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
 import java.util.InputMismatchException;
+import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
 import java.util.Comparator;
 
 public class CIRPAnalyzer {
 
+    private static final int LIST_PAGE_SIZE = 20; // Complaints shown per screen in the full list
+    private static final int SEARCH_RESULT_LIMIT = 100; // Most matches printed by one search
+    private static final int HOTSPOT_LIST_SIZE = 10;    // Growing zone/category hotspots in the trend report
+    static final int DEFAULT_HTTP_PORT = 8080;          // Port of the "serve" mode (and the load test's default target)
+    private static final int DEFAULT_HTTP_THREADS = 200; // Handler threads when virtual threads are not available
+
     private ComplaintManager manager;
     private Scanner consoleScanner; // Renamed Scanner instance
 
@@ -17,6 +29,18 @@ public class CIRPAnalyzer {
     }
 
     public static void main(String[] args) {
+        // Non-interactive modes: "serve", "loadtest", or bulk "import <file>" / "export <file>"
+        if (args.length > 0) {
+            if (args[0].equals("serve")) {
+                int exitCode = runServeCommand(args);
+                if (exitCode != 0) {
+                    System.exit(exitCode);
+                }
+                return; // The server keeps running until the process is stopped
+            }
+            System.exit(args[0].equals("loadtest") ? LoadGenerator.run(args) : runBulkCommand(args));
+        }
+
         System.out.println("==================================================");
         System.out.println("  COMMUNITY COMPLAINT LOGGER & PATTERN ANALYZER");
         System.out.println("==================================================");
@@ -25,15 +49,147 @@ public class CIRPAnalyzer {
         app.startInterface(); // Renamed main loop method
     }
 
+    // Usage: import|export <file> [--format csv|ndjson] [--threads N]. Returns the process exit code.
+    // Starts the manager in lazy mode without keyword search or duplicate detection, so memory
+    // stays bounded however large the file or the table is.
+    private static int runBulkCommand(String[] args) {
+        String usage = "Usage: java -cp \".:lib/*\" src.CIRPAnalyzer import|export <file.csv|file.ndjson> "
+                + "[--format csv|ndjson] [--threads N]";
+        if (args.length < 2 || !(args[0].equals("import") || args[0].equals("export"))) {
+            System.err.println(usage);
+            return 1;
+        }
+        boolean importing = args[0].equals("import");
+        Path file = Paths.get(args[1]);
+        BulkTransfer.Format format = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        try {
+            for (int i = 2; i < args.length; i++) {
+                if (args[i].equals("--format") && i + 1 < args.length) {
+                    format = BulkTransfer.Format.valueOf(args[++i].toUpperCase());
+                } else if (args[i].equals("--threads") && i + 1 < args.length) {
+                    threads = Integer.parseInt(args[++i]);
+                } else {
+                    System.err.println(usage);
+                    return 1;
+                }
+            }
+            if (format == null) {
+                format = BulkTransfer.Format.fromFileName(file.getFileName().toString());
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("🛑 " + e.getMessage());
+            System.err.println(usage);
+            return 1;
+        }
+        if (importing && !Files.isRegularFile(file)) {
+            System.err.println("🛑 Import file not found: " + file);
+            return 1;
+        }
+
+        ComplaintManager bulkManager = new ComplaintManager(new ComplaintManagerConfig()
+                .setStartupMode(ComplaintManagerConfig.StartupMode.LAZY)
+                .setSearchIndexEnabled(false)
+                .setDuplicateDetectionEnabled(false));
+        try {
+            if (importing) {
+                BulkTransfer.ImportResult result = BulkTransfer.importFile(bulkManager, file, format, threads);
+                System.out.printf("📥 Imported %d complaint(s) from %s in %.1f s (%.0f records/s).%n",
+                        result.imported, file, result.elapsedNanos / 1e9, result.recordsPerSecond());
+                if (result.rejected > 0) {
+                    System.err.println("⚠️ " + result.rejected + " record(s) rejected:");
+                    result.errors.forEach(error -> System.err.println("   " + error));
+                    if (result.rejected > result.errors.size()) {
+                        System.err.println("   ...");
+                    }
+                }
+                if (!result.completed) {
+                    System.err.println("🛑 Import stopped early because the database rejected a group of records.");
+                    return 1;
+                }
+            } else {
+                long start = System.nanoTime();
+                long written = BulkTransfer.exportFile(bulkManager, file, format);
+                double seconds = (System.nanoTime() - start) / 1e9;
+                System.out.printf("📤 Exported %d complaint(s) to %s in %.1f s (%.0f records/s).%n",
+                        written, file, seconds, seconds == 0 ? 0 : written / seconds);
+            }
+            return 0;
+        } catch (IOException e) {
+            System.err.println("Error during bulk " + args[0] + ": " + e.getMessage());
+            return 1;
+        } finally {
+            bulkManager.close();
+        }
+    }
+
+    // Usage: serve [--port N] [--mode eager|lazy|compact] [--threads N] [--fsync every_record|interval|os_managed]
+    // Starts the HTTP API (see ComplaintHttpServer) and returns 0 once it is listening. Stopping the
+    // process (Ctrl+C) saves the file backup and closes the manager, as the console's shut-down does.
+    private static int runServeCommand(String[] args) {
+        String usage = "Usage: java -cp \".:lib/*\" src.CIRPAnalyzer serve [--port N] [--mode eager|lazy|compact] "
+                + "[--threads N] [--fsync every_record|interval|os_managed]";
+        int port = DEFAULT_HTTP_PORT;
+        int threads = DEFAULT_HTTP_THREADS;
+        ComplaintManagerConfig config = new ComplaintManagerConfig();
+        try {
+            for (int i = 1; i < args.length; i++) {
+                if (i + 1 >= args.length) {
+                    System.err.println(usage);
+                    return 1;
+                }
+                String value = args[++i];
+                switch (args[i - 1]) {
+                    case "--port": port = Integer.parseInt(value); break;
+                    case "--threads": threads = Integer.parseInt(value); break;
+                    case "--mode":
+                        config.setStartupMode(ComplaintManagerConfig.StartupMode.valueOf(value.toUpperCase()));
+                        break;
+                    case "--fsync":
+                        config.setJournalFsyncPolicy(ComplaintJournal.FsyncPolicy.valueOf(value.toUpperCase()));
+                        break;
+                    default:
+                        System.err.println(usage);
+                        return 1;
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("🛑 " + e.getMessage());
+            System.err.println(usage);
+            return 1;
+        }
+
+        ComplaintManager serverManager = new ComplaintManager(config);
+        ComplaintHttpServer server;
+        try {
+            server = new ComplaintHttpServer(serverManager, port, threads);
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("🛑 Could not start the HTTP server on port " + port + ": " + e.getMessage());
+            serverManager.close();
+            return 1;
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            System.out.println("\n--- SERVER SHUTDOWN IN PROGRESS ---");
+            server.stop(2);
+            serverManager.saveBackupToFile();
+            serverManager.close();
+        }, "http-server-shutdown"));
+        server.start();
+        System.out.println("🌐 Complaint API listening on http://localhost:" + server.getPort() + " ("
+                + (server.usesVirtualThreads() ? "virtual threads" : threads + " handler threads")
+                + "). Press Ctrl+C to stop.");
+        return 0;
+    }
+
     // Renamed main loop method
     private void startInterface() {
         int userChoice = -1;
-        while (userChoice != 6) {
+        while (userChoice != 9) {
             showMainMenu();
             
             // Gracefully handle exceptions when user inputs text instead of a number
             try {
-                System.out.print("Enter your menu selection (1-6): ");
+                System.out.print("Enter your menu selection (1-9): ");
                 userChoice = consoleScanner.nextInt();
                 consoleScanner.nextLine(); // Consume the remaining newline
 
@@ -43,7 +199,10 @@ public class CIRPAnalyzer {
                     case 3: changeComplaintStatus(); break;
                     case 4: showTrendReport(); break;
                     case 5: handleDataMenu(); break;
-                    case 6: closeApplication(); break;
+                    case 6: searchComplaints(); break;
+                    case 7: searchComplaintDetails(); break;
+                    case 8: showMetrics(); break;
+                    case 9: closeApplication(); break;
                     default: System.out.println("\n❌ Unknown selection. Please enter a number from the menu.");
                 }
             } catch (InputMismatchException e) {
@@ -63,7 +222,10 @@ public class CIRPAnalyzer {
         System.out.println("3. Change Complaint Status (Review/Close)");
         System.out.println("4. Generate Trend Report (Analyze Hotspots)");
         System.out.println("5. Manual Data Backup/Restore (File I/O)");
-        System.out.println("6. Shut Down Application");
+        System.out.println("6. Search Complaints (Zone/Category/Status/Date)");
+        System.out.println("7. Search Complaint Details (Keywords)");
+        System.out.println("8. Show Operational Metrics (Latency & Counters)");
+        System.out.println("9. Shut Down Application");
         System.out.println("---------------------------------");
     }
 
@@ -99,19 +261,39 @@ public class CIRPAnalyzer {
         } catch (InputMismatchException e) {
             System.err.println("🛑 Invalid input for Zone Number or Category. Please try again.");
             consoleScanner.nextLine(); 
+        } catch (IllegalArgumentException e) {
+            System.err.println("❌ " + e.getMessage() + " Operation cancelled.");
         }
     }
 
     private void displayAllComplaints() {
         System.out.println("\n--- FULL COMPLAINTS LIST ---");
-        var complaints = manager.getAllComplaints();
-        if (complaints.isEmpty()) {
-            System.out.println("No complaints currently logged in the system.");
-            return;
+
+        // Page through the table so only one screenful is ever held in memory
+        int lastTrackingID = 0;
+        int shown = 0;
+        while (true) {
+            List<Complaint> page = manager.getComplaintPage(lastTrackingID, LIST_PAGE_SIZE);
+            if (page.isEmpty()) {
+                break;
+            }
+            // Display the page using the overridden toString method
+            page.forEach(System.out::println);
+            shown += page.size();
+            lastTrackingID = page.get(page.size() - 1).getTrackingID();
+
+            if (page.size() < LIST_PAGE_SIZE) {
+                break;
+            }
+            System.out.print("-- " + shown + " shown. Press Enter for more, or type q to stop: ");
+            if (consoleScanner.nextLine().trim().equalsIgnoreCase("q")) {
+                break;
+            }
         }
 
-        // Display the list using the overridden toString method
-        complaints.forEach(System.out::println);
+        if (shown == 0) {
+            System.out.println("No complaints currently logged in the system.");
+        }
     }
 
     private void changeComplaintStatus() {
@@ -176,14 +358,103 @@ public class CIRPAnalyzer {
                   System.out.printf("%-25s | %-10d %s%n", entry.getKey(), entry.getValue(), trend);
               });
         System.out.println("--------------------------|-----------");
+
+        // Zone/category pairs with the fastest-growing complaint volume
+        List<HotspotCube.Hotspot> hotspots = manager.getHotspots(HOTSPOT_LIST_SIZE, 24);
+        if (!hotspots.isEmpty()) {
+            System.out.println("\nFastest-growing hotspots (last 24h vs the 24h before):");
+            hotspots.forEach(hotspot -> System.out.println("  " + hotspot));
+        }
+    }
+
+    // Filtered search; leaving a prompt blank means "any"
+    private void searchComplaints() {
+        System.out.println("\n--- SEARCH COMPLAINTS ---");
+        System.out.println("Leave a field blank to match everything.");
+        ComplaintQuery query = new ComplaintQuery().setLimit(SEARCH_RESULT_LIMIT);
+
+        try {
+            System.out.print("Zone Number: ");
+            String zoneInput = consoleScanner.nextLine().trim();
+            if (!zoneInput.isEmpty()) {
+                query.setZone(Integer.parseInt(zoneInput));
+            }
+
+            IssueCategory[] categories = IssueCategory.values();
+            for (int i = 0; i < categories.length; i++) {
+                System.out.println((i + 1) + ". " + categories[i]);
+            }
+            System.out.print("Category number: ");
+            String categoryInput = consoleScanner.nextLine().trim();
+            if (!categoryInput.isEmpty()) {
+                query.setCategories(categories[Integer.parseInt(categoryInput) - 1]);
+            }
+
+            System.out.print("Status (1. Open only, 2. SUBMITTED, 3. IN_REVIEW, 4. CLOSED): ");
+            String statusInput = consoleScanner.nextLine().trim();
+            if (!statusInput.isEmpty()) {
+                int statusChoice = Integer.parseInt(statusInput);
+                if (statusChoice == 1) {
+                    query.setOpenOnly();
+                } else {
+                    query.setStatuses(ComplaintStatus.values()[statusChoice - 2]);
+                }
+            }
+
+            System.out.print("Submitted in the last N days: ");
+            String daysInput = consoleScanner.nextLine().trim();
+            if (!daysInput.isEmpty()) {
+                query.setSubmittedBetween(LocalDateTime.now().minusDays(Integer.parseInt(daysInput)), null);
+            }
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            System.err.println("🛑 Invalid search input. Search cancelled.");
+            return;
+        }
+
+        List<Complaint> results = manager.findComplaints(query);
+        if (results.isEmpty()) {
+            System.out.println("No complaints match these filters.");
+            return;
+        }
+        results.forEach(System.out::println);
+        String more = results.size() == SEARCH_RESULT_LIMIT ? " (first " + SEARCH_RESULT_LIMIT + " shown)" : "";
+        System.out.println("-- " + results.size() + " matching complaint(s)" + more + ".");
+    }
+
+    // Ranked keyword search over the free-text details
+    private void searchComplaintDetails() {
+        System.out.println("\n--- SEARCH COMPLAINT DETAILS ---");
+        System.out.println("Words match any complaint containing them; use word* for a prefix and +word to require it.");
+        System.out.print("Keywords: ");
+        String keywords = consoleScanner.nextLine().trim();
+        if (keywords.isEmpty()) {
+            System.err.println("🛑 No keywords entered. Search cancelled.");
+            return;
+        }
+
+        List<Complaint> results = manager.searchDetails(keywords, SEARCH_RESULT_LIMIT);
+        if (results.isEmpty()) {
+            System.out.println("No complaint details match these keywords.");
+            return;
+        }
+        results.forEach(System.out::println);
+        String more = results.size() == SEARCH_RESULT_LIMIT ? " (best " + SEARCH_RESULT_LIMIT + " shown)" : "";
+        System.out.println("-- " + results.size() + " matching complaint(s), best match first" + more + ".");
+    }
+
+    // Latency percentiles and counters gathered since startup (the same figures JMX publishes)
+    private void showMetrics() {
+        System.out.println("\n--- OPERATIONAL METRICS ---");
+        System.out.print(manager.getMetrics().dump());
     }
 
     private void handleDataMenu() {
         System.out.println("\n--- DATA PERSISTENCE & BACKUP OPTIONS ---");
         System.out.println("1. Manually Save Current Data to File Backup");
         System.out.println("2. Manually Restore Data From File Backup");
-        System.out.println("3. Back to Main Menu");
-        System.out.print("Enter choice (1-3): ");
+        System.out.println("3. Force Full Database Resync (rewrite all rows)");
+        System.out.println("4. Back to Main Menu");
+        System.out.print("Enter choice (1-4): ");
 
         try {
             int choice = consoleScanner.nextInt();
@@ -192,7 +463,11 @@ public class CIRPAnalyzer {
             switch (choice) {
                 case 1: manager.saveBackupToFile(); break;
                 case 2: manager.loadBackupFromFile(); break;
-                case 3: break;
+                case 3:
+                    manager.saveDataToDatabase();
+                    System.out.println("🗄️ Database fully resynchronized from memory.");
+                    break;
+                case 4: break;
                 default: System.out.println("❌ Invalid choice.");
             }
         } catch (InputMismatchException e) {
@@ -205,9 +480,10 @@ public class CIRPAnalyzer {
     private void closeApplication() {
         System.out.println("\n--- SYSTEM SHUTDOWN IN PROGRESS ---");
         
-        // Ensure both persistence methods are called before termination
-        manager.saveDataToDatabase();
+        // Rows are already written through to the database on every change,
+        // so only the file backup is refreshed before the connection is released
         manager.saveBackupToFile();
+        manager.close();
         
         System.out.println("All data synchronized and backed up. Thank you.");
         consoleScanner.close(); 
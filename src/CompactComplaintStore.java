@@ -0,0 +1,292 @@
+package src;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+// Holds every complaint column by column (COMPACT startup mode) instead of as one Complaint object
+// graph each: an int per ID and zone, a byte per category and status ordinal, a long for the
+// submission time and the details packed as UTF-8. That is roughly 30 bytes plus the text per
+// complaint, against about 200 for a Complaint with its String and LocalDateTime.
+//
+// Callers still work with Complaint: get() and rows() hand out lightweight views that read (and,
+// for the status and duplicate count, update) the columns directly. A view is created per lookup,
+// so two lookups of the same ID give equal data but different objects.
+//
+// Rows are stored in fixed-size chunks that are never reallocated, so a view stays valid while
+// more rows are appended. Adding rows must be serialised by the caller (ComplaintManager holds
+// its store write lock); views can be read and updated from any thread.
+public class CompactComplaintStore {
+
+    private static final int CHUNK_SHIFT = 14;
+    private static final int CHUNK_ROWS = 1 << CHUNK_SHIFT; // 16K rows per chunk
+    private static final int CHUNK_MASK = CHUNK_ROWS - 1;
+    private static final int INITIAL_DETAIL_BYTES = CHUNK_ROWS * 32; // Grown as the chunk fills
+    private static final int ABSENT = 0; // rowById holds row + 1, so 0 marks an unknown ID
+
+    private static final VarHandle BYTE_ELEMENTS = MethodHandles.arrayElementVarHandle(byte[].class);
+    private static final VarHandle INT_ELEMENTS = MethodHandles.arrayElementVarHandle(int[].class);
+    private static final IssueCategory[] CATEGORY_VALUES = IssueCategory.values();
+    private static final ComplaintStatus[] STATUS_VALUES = ComplaintStatus.values();
+
+    // One block of CHUNK_ROWS rows; row i of every array describes the same complaint
+    private static final class Chunk {
+        final int[] trackingIds = new int[CHUNK_ROWS];
+        final int[] zones = new int[CHUNK_ROWS];
+        final byte[] categories = new byte[CHUNK_ROWS];
+        final byte[] statuses = new byte[CHUNK_ROWS];          // Changed by compare-and-set
+        final long[] epochSeconds = new long[CHUNK_ROWS];      // Submission time, UTC-normalised local clock
+        final int[] duplicateReports = new int[CHUNK_ROWS];    // Changed atomically
+        final int[] detailEnds = new int[CHUNK_ROWS];          // End offset of each row's details
+        // Details of every row, UTF-8, back to back. Replaced by a larger copy while the chunk fills
+        // (old rows keep the same offsets), and trimmed once it is full.
+        volatile byte[] detailBytes = new byte[INITIAL_DETAIL_BYTES];
+
+        int detailStart(int offset) {
+            return offset == 0 ? 0 : detailEnds[offset - 1];
+        }
+    }
+
+    private Chunk[] chunks = new Chunk[4];
+    private int chunkCount;
+    private volatile int size; // Rows before this index are fully written
+
+    // Tracking IDs are handed out sequentially, so a plain array indexed by ID maps them to rows at
+    // 4 bytes each. IDs far beyond the row count (only seen in hand-edited data) go to a map instead.
+    private int[] rowById = new int[1024];
+    private final Map<Integer, Integer> sparseRowById = new HashMap<>();
+
+    public CompactComplaintStore() {
+    }
+
+    // Copies a list of complaints into a new store.
+    public static CompactComplaintStore copyOf(List<Complaint> complaints) {
+        CompactComplaintStore store = new CompactComplaintStore();
+        for (Complaint comp : complaints) {
+            store.add(comp);
+        }
+        return store;
+    }
+
+    // Appends a complaint and returns its view (an ID stored twice maps to the newer row).
+    public Complaint add(Complaint comp) {
+        int row = size;
+        int offset = row & CHUNK_MASK;
+        if (offset == 0) {
+            if (chunkCount > 0) {
+                trimDetails(chunks[chunkCount - 1]);
+            }
+            if (chunkCount == chunks.length) {
+                chunks = Arrays.copyOf(chunks, chunkCount * 2);
+            }
+            chunks[chunkCount++] = new Chunk();
+        }
+        Chunk chunk = chunks[row >>> CHUNK_SHIFT];
+
+        chunk.trackingIds[offset] = comp.getTrackingID();
+        chunk.zones[offset] = comp.getZoneNumber();
+        chunk.categories[offset] = (byte) comp.getCategory().ordinal();
+        chunk.statuses[offset] = (byte) comp.getStatus().ordinal();
+        chunk.epochSeconds[offset] = comp.getSubmissionDate().toEpochSecond(ZoneOffset.UTC);
+        chunk.duplicateReports[offset] = comp.getDuplicateReports();
+        appendDetails(chunk, offset, comp.getDetails());
+
+        mapId(comp.getTrackingID(), row);
+        size = row + 1; // Publishes the row
+        return new View(chunk, offset, comp.getTrackingID(), comp.getZoneNumber(), comp.getCategory());
+    }
+
+    // Returns a view of the complaint with this tracking ID, or null if it is not stored.
+    public Complaint get(int trackingID) {
+        int row = rowOf(trackingID);
+        return row < 0 ? null : view(chunks, row);
+    }
+
+    public boolean contains(int trackingID) {
+        return rowOf(trackingID) >= 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Read-only list of views over the rows stored so far. Rows added later are not included,
+    // but status and duplicate count changes to the listed rows are visible.
+    public List<Complaint> rows() {
+        return new Rows(chunks, size);
+    }
+
+    // Copies the fixed-width columns for a scan, without creating any per-row objects.
+    public ComplaintColumns toColumns() {
+        int count = size;
+        Chunk[] current = chunks;
+        int[] trackingIds = new int[count];
+        int[] zones = new int[count];
+        byte[] categories = new byte[count];
+        byte[] statuses = new byte[count];
+        long[] epochSeconds = new long[count];
+        for (int start = 0; start < count; start += CHUNK_ROWS) {
+            Chunk chunk = current[start >>> CHUNK_SHIFT];
+            int length = Math.min(CHUNK_ROWS, count - start);
+            System.arraycopy(chunk.trackingIds, 0, trackingIds, start, length);
+            System.arraycopy(chunk.zones, 0, zones, start, length);
+            System.arraycopy(chunk.categories, 0, categories, start, length);
+            System.arraycopy(chunk.statuses, 0, statuses, start, length);
+            System.arraycopy(chunk.epochSeconds, 0, epochSeconds, start, length);
+        }
+        return new ComplaintColumns(trackingIds, zones, categories, statuses, epochSeconds);
+    }
+
+    // --- Internal helpers ---
+
+    private static Complaint view(Chunk[] chunks, int row) {
+        Chunk chunk = chunks[row >>> CHUNK_SHIFT];
+        int offset = row & CHUNK_MASK;
+        return new View(chunk, offset, chunk.trackingIds[offset], chunk.zones[offset],
+                CATEGORY_VALUES[chunk.categories[offset]]);
+    }
+
+    private static void appendDetails(Chunk chunk, int offset, String details) {
+        byte[] encoded = details == null ? new byte[0] : details.getBytes(StandardCharsets.UTF_8);
+        int start = chunk.detailStart(offset);
+        byte[] arena = chunk.detailBytes;
+        if (start + encoded.length > arena.length) {
+            arena = Arrays.copyOf(arena, Math.max(start + encoded.length, arena.length + (arena.length >> 1)));
+        }
+        System.arraycopy(encoded, 0, arena, start, encoded.length);
+        chunk.detailEnds[offset] = start + encoded.length;
+        chunk.detailBytes = arena;
+    }
+
+    // Drops the unused tail of a full chunk's details array.
+    private static void trimDetails(Chunk chunk) {
+        int used = chunk.detailEnds[CHUNK_ROWS - 1];
+        if (used < chunk.detailBytes.length) {
+            chunk.detailBytes = Arrays.copyOf(chunk.detailBytes, used);
+        }
+    }
+
+    private void mapId(int trackingID, int row) {
+        // Dense enough for the array: grow it, as long as it stays within a few slots per row
+        if (trackingID >= rowById.length && trackingID <= 4L * (row + CHUNK_ROWS)) {
+            rowById = Arrays.copyOf(rowById, Math.max(trackingID + 1, rowById.length * 2));
+        }
+        if (trackingID > 0 && trackingID < rowById.length) {
+            rowById[trackingID] = row + 1;
+        } else {
+            sparseRowById.put(trackingID, row);
+        }
+    }
+
+    // Returns the row holding this ID, or -1.
+    private int rowOf(int trackingID) {
+        if (trackingID > 0 && trackingID < rowById.length) {
+            int stored = rowById[trackingID];
+            if (stored != ABSENT) {
+                return stored - 1;
+            }
+        }
+        if (sparseRowById.isEmpty()) {
+            return -1;
+        }
+        Integer row = sparseRowById.get(trackingID);
+        return row == null ? -1 : row;
+    }
+
+    // Fixed-size list of views over the rows captured when it was created
+    private static final class Rows extends AbstractList<Complaint> implements RandomAccess {
+        private final Chunk[] chunks;
+        private final int size;
+
+        Rows(Chunk[] chunks, int size) {
+            this.chunks = chunks;
+            this.size = size;
+        }
+
+        @Override
+        public Complaint get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Row " + index + " of " + size);
+            }
+            return view(chunks, index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    // Flyweight Complaint over one row. The immutable ID, zone and category are copied in;
+    // everything else is read from (or written to) the columns on each call.
+    private static final class View extends Complaint {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Chunk chunk;
+        private final int offset;
+
+        View(Chunk chunk, int offset, int trackingID, int zoneNumber, IssueCategory category) {
+            super(trackingID, zoneNumber, null, category, null, null);
+            this.chunk = chunk;
+            this.offset = offset;
+        }
+
+        @Override
+        public String getDetails() {
+            int start = chunk.detailStart(offset);
+            return new String(chunk.detailBytes, start, chunk.detailEnds[offset] - start, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public ComplaintStatus getStatus() {
+            return STATUS_VALUES[(byte) BYTE_ELEMENTS.getVolatile(chunk.statuses, offset)];
+        }
+
+        @Override
+        public LocalDateTime getSubmissionDate() {
+            return LocalDateTime.ofEpochSecond(chunk.epochSeconds[offset], 0, ZoneOffset.UTC);
+        }
+
+        @Override
+        public int getDuplicateReports() {
+            return (int) INT_ELEMENTS.getVolatile(chunk.duplicateReports, offset);
+        }
+
+        @Override
+        public void setStatus(ComplaintStatus status) {
+            BYTE_ELEMENTS.setVolatile(chunk.statuses, offset, (byte) status.ordinal());
+        }
+
+        @Override
+        public void setDuplicateReports(int duplicateReports) {
+            INT_ELEMENTS.setVolatile(chunk.duplicateReports, offset, duplicateReports);
+        }
+
+        @Override
+        public int recordDuplicateReport() {
+            return (int) INT_ELEMENTS.getAndAdd(chunk.duplicateReports, offset, 1) + 1;
+        }
+
+        @Override
+        public boolean compareAndSetStatus(ComplaintStatus expected, ComplaintStatus newStatus) {
+            return BYTE_ELEMENTS.compareAndSet(chunk.statuses, offset,
+                    (byte) expected.ordinal(), (byte) newStatus.ordinal());
+        }
+
+        // Serialized as a plain Complaint holding the current values
+        private Object writeReplace() {
+            Complaint copy = new Complaint(getTrackingID(), getZoneNumber(), getDetails(), getCategory(),
+                    getStatus(), getSubmissionDate());
+            copy.setDuplicateReports(getDuplicateReports());
+            return copy;
+        }
+    }
+}
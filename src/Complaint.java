@@ -1,6 +1,8 @@
 package src;
 
 import java.io.Serializable;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
@@ -8,6 +10,8 @@ import java.time.format.DateTimeFormatter;
 public class Complaint implements Serializable {
     // Unique ID for serialization verification (altered from default LLM value)
     private static final long serialVersionUID = 20251120L; 
+
+    public static final int MAX_DETAILS_LENGTH = 255; // Size of the DETAILS column
     
     private int trackingID;
     private int zoneNumber; // Renamed from wardNumber for uniqueness
@@ -16,7 +20,24 @@ public class Complaint implements Serializable {
     
     // Uses the enums
     private IssueCategory category;
-    private ComplaintStatus status;
+    private volatile ComplaintStatus status; // Mutable; may be changed from several threads
+    // Later submissions linked to this complaint as likely duplicates (also mutable)
+    private volatile int duplicateReports;
+
+    // Shared formatter (DateTimeFormatter is immutable and thread-safe)
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    // Atomic access to the mutable fields
+    private static final VarHandle STATUS;
+    private static final VarHandle DUPLICATE_REPORTS;
+    static {
+        try {
+            STATUS = MethodHandles.lookup().findVarHandle(Complaint.class, "status", ComplaintStatus.class);
+            DUPLICATE_REPORTS = MethodHandles.lookup().findVarHandle(Complaint.class, "duplicateReports", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
 
     // Constructor used for logging a new complaint
     public Complaint(int trackingID, int zoneNumber, String details, IssueCategory category) {
@@ -41,28 +62,49 @@ public class Complaint implements Serializable {
     }
 
     // --- Getters ---
+    // (CompactComplaintStore's views override the getters and mutators of the mutable and
+    //  column-stored fields, so methods here read those fields through them.)
     public int getTrackingID() { return trackingID; }
     public int getZoneNumber() { return zoneNumber; }
     public String getDetails() { return details; }
     public IssueCategory getCategory() { return category; }
     public ComplaintStatus getStatus() { return status; }
     public LocalDateTime getSubmissionDate() { return submissionDate; }
+    public int getDuplicateReports() { return duplicateReports; }
     
     // Returns the date formatted for display and DB storage
     public String getFormattedDate() {
-        return submissionDate.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+        return getSubmissionDate().format(DATE_FORMAT);
     }
 
     // --- Setters ---
     public void setStatus(ComplaintStatus status) {
         this.status = status;
     }
+
+    // Used when loading a stored complaint
+    public void setDuplicateReports(int duplicateReports) {
+        this.duplicateReports = duplicateReports;
+    }
+
+    // Counts one more duplicate submission and returns the new total.
+    public int recordDuplicateReport() {
+        return (int) DUPLICATE_REPORTS.getAndAdd(this, 1) + 1;
+    }
+
+    // Changes the status only if it still equals expected; returns false if another thread got there first.
+    public boolean compareAndSetStatus(ComplaintStatus expected, ComplaintStatus newStatus) {
+        return STATUS.compareAndSet(this, expected, newStatus);
+    }
     
     // Formatting the complaint for clean console output
     @Override
     public String toString() {
+        String details = getDetails();
+        int duplicateReports = getDuplicateReports();
         String shortDetails = details.substring(0, Math.min(30, details.length())) + "...";
-        return String.format("| ID: %-5d | Zone: %-4d | Category: %-18s | Status: %-12s | Date: %s | Details: %s",
-            trackingID, zoneNumber, category, status, getFormattedDate(), shortDetails);
+        String duplicates = duplicateReports > 0 ? " | +" + duplicateReports + " duplicate report(s)" : "";
+        return String.format("| ID: %-5d | Zone: %-4d | Category: %-18s | Status: %-12s | Date: %s | Details: %s%s",
+            trackingID, zoneNumber, category, getStatus(), getFormattedDate(), shortDetails, duplicates);
     }
 }
\ No newline at end of file
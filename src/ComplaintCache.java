@@ -0,0 +1,344 @@
+package src;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+// Bounded in-memory cache of complaints keyed by tracking ID, used when the full table is not
+// loaded into memory (lazy startup). It is bounded by entry count and, optionally, by an
+// estimate of the bytes the cached complaints occupy. Eviction is LRU or LFU.
+public class ComplaintCache {
+
+    // Which entry is dropped when the cache is full
+    public enum EvictionPolicy {
+        LRU, // Least recently used
+        LFU  // Least frequently used (ties broken by least recently used)
+    }
+
+    private static final int NO_VICTIM = 0; // Tracking IDs start at 1
+    private static final int LOAD_LOCK_STRIPES = 64; // Power of two
+
+    // Rough per-complaint heap cost excluding the details text: the Complaint object,
+    // its LocalDateTime, the boxed key and the map entries that hold it
+    private static final int ENTRY_OVERHEAD_BYTES = 160;
+
+    // One cached complaint with its bookkeeping
+    private static class Entry {
+        final Complaint complaint;
+        final long bytes;
+        FrequencyNode node; // LFU only: the node for this entry's use count
+        int pins;          // Callers in the middle of changing this complaint; pinned entries are not evicted
+
+        Entry(Complaint complaint, long bytes) {
+            this.complaint = complaint;
+            this.bytes = bytes;
+        }
+    }
+
+    // LFU only: IDs used the same number of times, oldest first. Nodes form a list in increasing
+    // frequency, so the least frequent entries are always at the head and a use moves an ID at most
+    // one node along: both are O(1), with no search for the next frequency.
+    private static class FrequencyNode {
+        final int frequency;
+        final LinkedHashSet<Integer> ids = new LinkedHashSet<>();
+        FrequencyNode prev;
+        FrequencyNode next;
+
+        FrequencyNode(int frequency) {
+            this.frequency = frequency;
+        }
+    }
+
+    private final EvictionPolicy policy;
+    private final int maxEntries;
+    private final long maxBytes; // 0 = no byte limit
+    private final LinkedHashMap<Integer, Entry> entries;
+    private FrequencyNode lowestFrequency; // LFU only: head of the frequency list, null when empty
+    private long estimatedBytes;
+    // One load per ID at a time: a miss is re-checked and loaded under its stripe, so a load can never
+    // read an older row than an instance that was cached (and changed) while it was in flight
+    private final Object[] loadLocks = new Object[LOAD_LOCK_STRIPES];
+
+    // --- Metrics ---
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong totalLoadNanos = new AtomicLong();
+
+    public ComplaintCache(int maxEntries) {
+        this(EvictionPolicy.LRU, maxEntries, 0);
+    }
+
+    public ComplaintCache(EvictionPolicy policy, int maxEntries, long maxBytes) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Cache size must be at least 1.");
+        }
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("Cache byte limit cannot be negative.");
+        }
+        this.policy = policy;
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        // LRU: access order makes iteration start at the least recently used entry
+        this.entries = new LinkedHashMap<>(16, 0.75f, policy == EvictionPolicy.LRU);
+        for (int i = 0; i < loadLocks.length; i++) {
+            loadLocks[i] = new Object();
+        }
+    }
+
+    // Returns the cached complaint, or null on a miss.
+    public synchronized Complaint get(int trackingID) {
+        Entry entry = entries.get(trackingID);
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        touch(trackingID, entry);
+        return entry.complaint;
+    }
+
+    // Returns the cached complaint, or loads it with the loader on a miss and caches it.
+    // The loader runs outside the cache lock and may return null (unknown ID).
+    public Complaint getOrLoad(int trackingID, IntFunction<Complaint> loader) {
+        return getOrLoad(trackingID, loader, false);
+    }
+
+    // getOrLoad for a caller about to change the complaint: the entry is pinned until unpin(trackingID),
+    // so it cannot be evicted and reloaded as a second instance while the change is being made and queued.
+    public Complaint getOrLoadPinned(int trackingID, IntFunction<Complaint> loader) {
+        return getOrLoad(trackingID, loader, true);
+    }
+
+    private Complaint getOrLoad(int trackingID, IntFunction<Complaint> loader, boolean pin) {
+        Complaint cached = lookup(trackingID, pin);
+        if (cached != null) {
+            return cached;
+        }
+        synchronized (loadLocks[trackingID & (LOAD_LOCK_STRIPES - 1)]) {
+            cached = lookup(trackingID, pin); // Another thread may have loaded it meanwhile (a hit)
+            if (cached != null) {
+                return cached;
+            }
+            misses.incrementAndGet(); // Counted once per load, not once per thread that waited for it
+            long start = System.nanoTime();
+            Complaint loaded = loader.apply(trackingID);
+            loads.incrementAndGet();
+            totalLoadNanos.addAndGet(System.nanoTime() - start);
+            if (loaded == null) {
+                return null;
+            }
+            synchronized (this) {
+                cached = putIfAbsent(loaded); // Never evicts the entry it just added
+                if (pin) {
+                    entries.get(trackingID).pins++;
+                }
+                return cached;
+            }
+        }
+    }
+
+    // Cache hit (pinned if asked), or null
+    private synchronized Complaint lookup(int trackingID, boolean pin) {
+        Entry entry = entries.get(trackingID);
+        if (entry == null) {
+            return null;
+        }
+        hits.incrementAndGet();
+        touch(trackingID, entry);
+        if (pin) {
+            entry.pins++;
+        }
+        return entry.complaint;
+    }
+
+    // Releases a pin taken by getOrLoadPinned; the entry can be evicted again once no pins are left.
+    public synchronized void unpin(int trackingID) {
+        Entry entry = entries.get(trackingID);
+        if (entry != null && entry.pins > 0) {
+            entry.pins--;
+            if (entry.pins == 0) {
+                evictWhileOverLimit(NO_VICTIM); // Catch up on evictions skipped while pinned
+            }
+        }
+    }
+
+    // Caches the complaint unless another thread cached the same ID first; returns the cached copy.
+    // Keeping a single instance per ID matters because status changes are made on that object.
+    public synchronized Complaint putIfAbsent(Complaint complaint) {
+        int trackingID = complaint.getTrackingID();
+        Entry existing = entries.get(trackingID);
+        if (existing != null) {
+            touch(trackingID, existing);
+            return existing.complaint;
+        }
+
+        Entry entry = new Entry(complaint, estimateBytes(complaint));
+        entries.put(trackingID, entry);
+        estimatedBytes += entry.bytes;
+        if (policy == EvictionPolicy.LFU) {
+            if (lowestFrequency == null || lowestFrequency.frequency != 1) {
+                lowestFrequency = linkAfter(null, 1);
+            }
+            entry.node = lowestFrequency;
+            entry.node.ids.add(trackingID);
+        }
+        evictWhileOverLimit(trackingID);
+        return complaint;
+    }
+
+    // Drops one complaint (e.g. after it was changed outside the cache).
+    public synchronized void invalidate(int trackingID) {
+        Entry entry = entries.remove(trackingID);
+        if (entry != null) {
+            forget(trackingID, entry);
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        lowestFrequency = null;
+        estimatedBytes = 0;
+    }
+
+    // --- Eviction ---
+
+    private void touch(int trackingID, Entry entry) {
+        if (policy != EvictionPolicy.LFU) {
+            return; // LRU order is maintained by the access-ordered map
+        }
+        FrequencyNode node = entry.node;
+        int frequency = node.frequency + 1;
+        FrequencyNode next = node.next;
+        if (next == null || next.frequency != frequency) {
+            next = linkAfter(node, frequency);
+        }
+        next.ids.add(trackingID);
+        entry.node = next;
+        removeFromNode(node, trackingID);
+    }
+
+    // New node right after prev (at the head when prev is null)
+    private FrequencyNode linkAfter(FrequencyNode prev, int frequency) {
+        FrequencyNode node = new FrequencyNode(frequency);
+        node.prev = prev;
+        node.next = prev == null ? lowestFrequency : prev.next;
+        if (node.next != null) {
+            node.next.prev = node;
+        }
+        if (prev == null) {
+            lowestFrequency = node;
+        } else {
+            prev.next = node;
+        }
+        return node;
+    }
+
+    // Unlinks the node once its last ID is gone
+    private void removeFromNode(FrequencyNode node, int trackingID) {
+        node.ids.remove(trackingID);
+        if (!node.ids.isEmpty()) {
+            return;
+        }
+        if (node.prev == null) {
+            lowestFrequency = node.next;
+        } else {
+            node.prev.next = node.next;
+        }
+        if (node.next != null) {
+            node.next.prev = node.prev;
+        }
+    }
+
+    // The newest entry is never evicted, so a single oversized complaint still gets cached.
+    // Pinned entries are skipped; if nothing else is left the cache stays over its limit for now.
+    private void evictWhileOverLimit(int newestID) {
+        while (entries.size() > 1
+                && (entries.size() > maxEntries || (maxBytes > 0 && estimatedBytes > maxBytes))) {
+            int victim = pickVictim(newestID);
+            if (victim == NO_VICTIM) {
+                return;
+            }
+            Entry removed = entries.remove(victim);
+            forget(victim, removed);
+            evictions.incrementAndGet();
+        }
+    }
+
+    private int pickVictim(int newestID) {
+        if (policy == EvictionPolicy.LFU) {
+            // Lowest frequency first, oldest first within a frequency; usually the head's first ID,
+            // only the newest and pinned entries are ever stepped over
+            for (FrequencyNode node = lowestFrequency; node != null; node = node.next) {
+                for (int candidate : node.ids) {
+                    if (candidate != newestID && entries.get(candidate).pins == 0) { // LFU map is not access-ordered
+                        return candidate;
+                    }
+                }
+            }
+            return NO_VICTIM;
+        }
+        for (Map.Entry<Integer, Entry> candidate : entries.entrySet()) { // Least recently used first
+            if (candidate.getKey() != newestID && candidate.getValue().pins == 0) {
+                return candidate.getKey();
+            }
+        }
+        return NO_VICTIM;
+    }
+
+    private void forget(int trackingID, Entry entry) {
+        estimatedBytes -= entry.bytes;
+        if (policy == EvictionPolicy.LFU) {
+            removeFromNode(entry.node, trackingID);
+        }
+    }
+
+    // Latin-1 details take one byte per char in a compact String, others two
+    static long estimateBytes(Complaint complaint) {
+        String details = complaint.getDetails();
+        if (details == null) {
+            return ENTRY_OVERHEAD_BYTES;
+        }
+        boolean latin1 = true;
+        for (int i = 0; i < details.length() && latin1; i++) {
+            latin1 = details.charAt(i) < 256;
+        }
+        return ENTRY_OVERHEAD_BYTES + 40 + (long) details.length() * (latin1 ? 1 : 2);
+    }
+
+    // --- Metric getters ---
+    public long getHitCount() { return hits.get(); }
+    public long getMissCount() { return misses.get(); }
+    public long getEvictionCount() { return evictions.get(); }
+    public long getLoadCount() { return loads.get(); }
+    public EvictionPolicy getPolicy() { return policy; }
+    public int getMaxEntries() { return maxEntries; }
+    public long getMaxBytes() { return maxBytes; }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+    public double getHitRate() {
+        long lookups = hits.get() + misses.get();
+        return lookups == 0 ? 0.0 : (double) hits.get() / lookups;
+    }
+
+    public double getAverageLoadMicros() {
+        long count = loads.get();
+        return count == 0 ? 0.0 : totalLoadNanos.get() / 1_000.0 / count;
+    }
+
+    public String getStatsSummary() {
+        return String.format("Cache[%s, size=%d/%d, bytes~%d, hits=%d, misses=%d, hitRate=%.1f%%, evictions=%d, avgLoad=%.1fus]",
+            policy, size(), maxEntries, getEstimatedBytes(), getHitCount(), getMissCount(),
+            getHitRate() * 100, getEvictionCount(), getAverageLoadMicros());
+    }
+}
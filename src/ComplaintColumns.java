@@ -0,0 +1,87 @@
+package src;
+
+import java.time.ZoneOffset;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+// Read-only primitive columnar view of a set of complaints, one array per field, for scans
+// that touch millions of rows (no per-row objects, no boxing). Row i of every array
+// describes the same complaint. Enums are stored by ordinal.
+public final class ComplaintColumns {
+
+    private final int size;
+    private final int[] trackingIds;
+    private final int[] zones;
+    private final byte[] categories;
+    private final byte[] statuses;
+    private final long[] epochSeconds; // Submission time, seconds on the UTC-normalised local clock
+
+    private ComplaintColumns(int size) {
+        this.size = size;
+        this.trackingIds = new int[size];
+        this.zones = new int[size];
+        this.categories = new byte[size];
+        this.statuses = new byte[size];
+        this.epochSeconds = new long[size];
+    }
+
+    // Wraps arrays that are already filled (e.g. copied out of a CompactComplaintStore).
+    ComplaintColumns(int[] trackingIds, int[] zones, byte[] categories, byte[] statuses, long[] epochSeconds) {
+        this.size = trackingIds.length;
+        this.trackingIds = trackingIds;
+        this.zones = zones;
+        this.categories = categories;
+        this.statuses = statuses;
+        this.epochSeconds = epochSeconds;
+    }
+
+    // Builds the columns from a random-access list, filling them in parallel.
+    public static ComplaintColumns of(List<Complaint> complaints) {
+        ComplaintColumns columns = new ComplaintColumns(complaints.size());
+        IntStream.range(0, columns.size).parallel().forEach(i -> columns.set(i, complaints.get(i)));
+        return columns;
+    }
+
+    // Builds the columns from a stream of complaints (e.g. pages read from H2), growing as needed.
+    public static ComplaintColumns of(Iterator<Complaint> complaints) {
+        ComplaintColumns columns = new ComplaintColumns(1024);
+        int count = 0;
+        while (complaints.hasNext()) {
+            if (count == columns.size) {
+                columns = columns.resize(count * 2);
+            }
+            columns.set(count++, complaints.next());
+        }
+        return columns.resize(count);
+    }
+
+    private void set(int row, Complaint comp) {
+        trackingIds[row] = comp.getTrackingID();
+        zones[row] = comp.getZoneNumber();
+        categories[row] = (byte) comp.getCategory().ordinal();
+        statuses[row] = (byte) comp.getStatus().ordinal();
+        epochSeconds[row] = comp.getSubmissionDate().toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private ComplaintColumns resize(int newSize) {
+        if (newSize == size) {
+            return this;
+        }
+        ComplaintColumns resized = new ComplaintColumns(newSize);
+        int copied = Math.min(size, newSize);
+        System.arraycopy(trackingIds, 0, resized.trackingIds, 0, copied);
+        System.arraycopy(zones, 0, resized.zones, 0, copied);
+        System.arraycopy(categories, 0, resized.categories, 0, copied);
+        System.arraycopy(statuses, 0, resized.statuses, 0, copied);
+        System.arraycopy(epochSeconds, 0, resized.epochSeconds, 0, copied);
+        return resized;
+    }
+
+    public int size() { return size; }
+    public int trackingId(int row) { return trackingIds[row]; }
+    public int zone(int row) { return zones[row]; }
+    public int categoryOrdinal(int row) { return categories[row]; }
+    public int statusOrdinal(int row) { return statuses[row]; }
+    public long epochSecond(int row) { return epochSeconds[row]; }
+}
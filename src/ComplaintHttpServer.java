@@ -0,0 +1,535 @@
+package src;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// JSON-over-HTTP API on top of a ComplaintManager, so field apps and kiosks can submit and query
+// complaints concurrently. Built on the JDK's com.sun.net.httpserver: one selector thread accepts
+// connections and each request runs on its own thread from the handler executor.
+//
+// Handlers block (journal fsync, group-commit waits, H2 reads in LAZY mode), so on runtimes with
+// virtual threads (Java 21+) every request gets one, and thousands of requests can wait at once
+// for the price of a few carrier threads. Older runtimes fall back to a fixed pool of platform threads.
+//
+// Endpoints (request and response bodies are JSON objects):
+//   POST /complaints                 {"zone":3,"category":"WATER_OUTAGE","details":"..."}
+//                                    201 with the new complaint, or 200 with the open complaint it duplicates
+//   GET  /complaints/{id}            200 with the complaint, or 404
+//   PUT  /complaints/{id}/status     {"status":"CLOSED"}; 200 with the updated complaint, or 404
+//   GET  /complaints?zone=&category=&status=&from=&to=&limit=
+//                                    Filtered list; category and status take comma-separated values,
+//                                    status=open means SUBMITTED or IN_REVIEW, dates are yyyy-MM-dd[THH:mm:ss]
+//   GET  /trends?hours=24&limit=10   Open counts per category and the fastest-growing hotspots
+//   GET  /trends/history?groupBy=zone,category,day&from=&to=&limit=
+//                                    Historical group counts (see ComplaintManager.getHistoricalTrends);
+//                                    to defaults to now and from to 30 days before it, at most 366 days apart
+// Errors are {"error":"..."} with status 400, 404, 405, 413 or 500.
+public class ComplaintHttpServer {
+
+    private static final int DEFAULT_LIST_LIMIT = 100;
+    private static final int MAX_LIST_LIMIT = 1_000;
+    private static final int DEFAULT_GROUP_LIMIT = 1_000;
+    private static final int DEFAULT_HOTSPOT_LIMIT = 10;
+    private static final int DEFAULT_HISTORY_DAYS = 30;
+    private static final int MAX_HISTORY_DAYS = 366; // Bounds the rows one history request aggregates
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+    private static final int ACCEPT_BACKLOG = 1_024; // Pending connections queued by the OS during bursts
+    private static final int MAX_IDLE_CONNECTIONS = 10_000; // Kept-alive client connections between requests
+
+    private final ComplaintManager manager;
+    private final HttpServer server;
+    private final ExecutorService handlerExecutor;
+    private final boolean virtualThreads;
+
+    // fallbackThreads: size of the platform thread pool used when virtual threads are not available
+    public ComplaintHttpServer(ComplaintManager manager, int port, int fallbackThreads) throws IOException {
+        if (fallbackThreads < 1) {
+            throw new IllegalArgumentException("Handler threads must be at least 1.");
+        }
+        this.manager = manager;
+        ExecutorService virtual = newVirtualThreadExecutor();
+        this.virtualThreads = virtual != null;
+        this.handlerExecutor = virtual != null ? virtual : newHandlerPool(fallbackThreads);
+        // JDK server settings, read when the first server starts (an explicit -D setting wins):
+        // the response headers and body are written separately, so without TCP_NODELAY the body waits
+        // for the client's delayed ACK (~40 ms per request); and only 200 idle keep-alive connections
+        // are kept by default, so with more clients connections get closed under them between requests.
+        setDefaultProperty("sun.net.httpserver.nodelay", "true");
+        setDefaultProperty("sun.net.httpserver.maxIdleConnections", String.valueOf(MAX_IDLE_CONNECTIONS));
+        this.server = HttpServer.create(new InetSocketAddress(port), ACCEPT_BACKLOG);
+        server.createContext("/complaints", this::handleComplaints);
+        server.createContext("/trends", this::handleTrends);
+        server.createContext("/", exchange -> respond(exchange, () -> {
+            throw new ApiException(404, "Unknown path " + exchange.getRequestURI().getPath());
+        }));
+        server.setExecutor(handlerExecutor);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    // Stops accepting requests, gives running ones up to delaySeconds to finish, then stops the handlers.
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        handlerExecutor.shutdown();
+        try {
+            handlerExecutor.awaitTermination(delaySeconds, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public boolean usesVirtualThreads() {
+        return virtualThreads;
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor() if this runtime has it (looked up reflectively,
+    // so the code still compiles and runs on Java 17), otherwise null. Also used by LoadGenerator.
+    static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return null; // Not available (or still a preview feature that is switched off)
+        }
+    }
+
+    private static void setDefaultProperty(String name, String value) {
+        if (System.getProperty(name) == null) {
+            System.setProperty(name, value);
+        }
+    }
+
+    private static ExecutorService newHandlerPool(int threads) {
+        AtomicInteger threadNumber = new AtomicInteger(1);
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "http-handler-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // --- Routing ---
+
+    // A request that cannot be served; turned into an error response with this status
+    private static class ApiException extends Exception {
+        private static final long serialVersionUID = 1L;
+        final int status;
+
+        ApiException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    // Status code and JSON body of a successful request
+    private static class Response {
+        final int status;
+        final String body;
+
+        Response(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+
+    private interface Route {
+        Response handle() throws ApiException, IOException;
+    }
+
+    private void handleComplaints(HttpExchange exchange) {
+        respond(exchange, () -> {
+            String[] path = pathSegments(exchange, "/complaints");
+            String method = exchange.getRequestMethod();
+            if (path.length == 0) {
+                if (method.equals("POST")) {
+                    return createComplaint(exchange);
+                }
+                requireMethod(exchange, "GET", "GET, POST");
+                return new Response(200, listComplaints(exchange));
+            }
+            int trackingID = parseTrackingId(path[0]);
+            if (path.length == 1) {
+                requireMethod(exchange, "GET", "GET");
+                return complaintResponse(200, findComplaint(trackingID));
+            }
+            if (path.length == 2 && path[1].equals("status")) {
+                requireMethod(exchange, "PUT", "PUT");
+                return updateStatus(exchange, trackingID);
+            }
+            throw new ApiException(404, "Unknown path " + exchange.getRequestURI().getPath());
+        });
+    }
+
+    private void handleTrends(HttpExchange exchange) {
+        respond(exchange, () -> {
+            String[] path = pathSegments(exchange, "/trends");
+            requireMethod(exchange, "GET", "GET");
+            if (path.length == 0) {
+                return new Response(200, trendReport(queryParameters(exchange)));
+            }
+            if (path.length == 1 && path[0].equals("history")) {
+                return new Response(200, historicalTrends(queryParameters(exchange)));
+            }
+            throw new ApiException(404, "Unknown path " + exchange.getRequestURI().getPath());
+        });
+    }
+
+    // Runs a route and sends its response, or the error it raised.
+    private static void respond(HttpExchange exchange, Route route) {
+        int status;
+        String body;
+        try {
+            Response response = route.handle();
+            status = response.status;
+            body = response.body;
+        } catch (ApiException e) {
+            status = e.status;
+            body = errorJson(e.getMessage());
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error handling " + exchange.getRequestMethod() + " "
+                    + exchange.getRequestURI() + ": " + e);
+            status = 500;
+            body = errorJson("Internal error");
+        }
+        try {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        } catch (IOException e) {
+            // The client went away; nothing left to tell it
+        } finally {
+            exchange.close();
+        }
+    }
+
+    // --- Complaint endpoints ---
+
+    private Response createComplaint(HttpExchange exchange) throws ApiException, IOException {
+        String[] values = readJsonBody(exchange);
+        int zone = parseInt(values[ComplaintJson.ZONE], "zone");
+        IssueCategory category = parseEnum(IssueCategory.class, values[ComplaintJson.CATEGORY], "category");
+        String details = values[ComplaintJson.DETAILS] == null ? "" : values[ComplaintJson.DETAILS].strip();
+        if (details.isEmpty()) {
+            throw new ApiException(400, "details are required");
+        }
+        if (details.length() > Complaint.MAX_DETAILS_LENGTH) {
+            throw new ApiException(400, "details are longer than " + Complaint.MAX_DETAILS_LENGTH + " characters");
+        }
+
+        ComplaintManager.Submission submission = manager.submitComplaint(zone, details, category);
+        Complaint comp = submission.complaint;
+        if (!submission.duplicate) {
+            exchange.getResponseHeaders().set("Location", "/complaints/" + comp.getTrackingID());
+        }
+        return complaintResponse(submission.duplicate ? 200 : 201, comp);
+    }
+
+    private Response updateStatus(HttpExchange exchange, int trackingID) throws ApiException, IOException {
+        String[] values = readJsonBody(exchange);
+        ComplaintStatus status = parseEnum(ComplaintStatus.class, values[ComplaintJson.STATUS], "status");
+        if (!manager.modifyStatus(trackingID, status)) {
+            throw new ApiException(404, "Complaint " + trackingID + " not found");
+        }
+        return complaintResponse(200, findComplaint(trackingID));
+    }
+
+    private String listComplaints(HttpExchange exchange) throws ApiException {
+        Map<String, String> params = queryParameters(exchange);
+        ComplaintQuery query = new ComplaintQuery();
+        try {
+            if (params.containsKey("zone")) {
+                query.setZone(parseInt(params.get("zone"), "zone"));
+            }
+            if (params.containsKey("category")) {
+                query.setCategories(parseEnumList(IssueCategory.class, params.get("category"), "category")
+                        .toArray(new IssueCategory[0]));
+            }
+            if (params.containsKey("status")) {
+                if (params.get("status").equalsIgnoreCase("open")) {
+                    query.setOpenOnly();
+                } else {
+                    query.setStatuses(parseEnumList(ComplaintStatus.class, params.get("status"), "status")
+                            .toArray(new ComplaintStatus[0]));
+                }
+            }
+            if (params.containsKey("from") || params.containsKey("to")) {
+                query.setSubmittedBetween(parseDate(params.get("from"), "from"), parseDate(params.get("to"), "to"));
+            }
+            query.setLimit(Math.min(MAX_LIST_LIMIT, parseLimit(params, DEFAULT_LIST_LIMIT)));
+        } catch (IllegalArgumentException e) {
+            throw new ApiException(400, e.getMessage());
+        }
+
+        List<Complaint> results = manager.findComplaints(query);
+        StringBuilder json = new StringBuilder(64 + results.size() * 200);
+        json.append("{\"count\":").append(results.size()).append(",\"complaints\":[");
+        for (int i = 0; i < results.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            ComplaintJson.append(json, results.get(i));
+        }
+        return json.append("]}").toString();
+    }
+
+    private Complaint findComplaint(int trackingID) throws ApiException {
+        Optional<Complaint> comp = manager.findById(trackingID);
+        if (comp.isEmpty()) {
+            throw new ApiException(404, "Complaint " + trackingID + " not found");
+        }
+        return comp.get();
+    }
+
+    // --- Trend endpoints ---
+
+    private String trendReport(Map<String, String> params) throws ApiException {
+        int hours = params.containsKey("hours") ? parseInt(params.get("hours"), "hours") : 24;
+        if (hours < 1) {
+            throw new ApiException(400, "hours must be at least 1");
+        }
+        int limit = parseLimit(params, DEFAULT_HOTSPOT_LIMIT);
+
+        StringBuilder json = new StringBuilder(512);
+        json.append("{\"openByCategory\":{");
+        String separator = "";
+        for (Map.Entry<IssueCategory, Integer> entry : manager.getTrendAnalysis().entrySet()) {
+            json.append(separator).append('"').append(entry.getKey()).append("\":").append(entry.getValue());
+            separator = ",";
+        }
+        json.append("},\"hotspots\":[");
+        separator = "";
+        for (HotspotCube.Hotspot hotspot : manager.getHotspots(limit, hours)) {
+            json.append(separator)
+                .append("{\"zone\":").append(hotspot.zoneNumber)
+                .append(",\"category\":\"").append(hotspot.category)
+                .append("\",\"current\":").append(hotspot.currentCount)
+                .append(",\"previous\":").append(hotspot.previousCount)
+                .append(",\"growthRate\":").append(hotspot.growthRate).append('}');
+            separator = ",";
+        }
+        return json.append("]}").toString();
+    }
+
+    private String historicalTrends(Map<String, String> params) throws ApiException {
+        String groupByValue = params.getOrDefault("groupBy", "category");
+        Set<TrendAggregator.Dimension> groupBy;
+        LocalDateTime from;
+        LocalDateTime to;
+        try {
+            groupBy = EnumSet.copyOf(parseEnumList(TrendAggregator.Dimension.class, groupByValue, "groupBy"));
+            from = parseDate(params.get("from"), "from");
+            to = parseDate(params.get("to"), "to");
+        } catch (IllegalArgumentException e) {
+            throw new ApiException(400, e.getMessage());
+        }
+        if (to == null) {
+            to = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).plusSeconds(1); // Through the current second
+        }
+        if (from == null) {
+            from = to.minusDays(DEFAULT_HISTORY_DAYS);
+        }
+        if (!from.isBefore(to)) {
+            throw new ApiException(400, "from must be before to");
+        }
+        if (from.plusDays(MAX_HISTORY_DAYS).isBefore(to)) {
+            throw new ApiException(400, "from and to may be at most " + MAX_HISTORY_DAYS + " days apart");
+        }
+        int limit = parseLimit(params, DEFAULT_GROUP_LIMIT);
+
+        List<TrendAggregator.GroupCount> groups;
+        try {
+            groups = manager.getHistoricalTrends(groupBy, from, to);
+        } catch (IllegalArgumentException e) {
+            throw new ApiException(400, e.getMessage()); // e.g. two date buckets
+        }
+        StringBuilder json = new StringBuilder(64 + Math.min(groups.size(), limit) * 80);
+        json.append("{\"groupCount\":").append(groups.size()).append(",\"groups\":[");
+        for (int i = 0; i < Math.min(groups.size(), limit); i++) {
+            TrendAggregator.GroupCount group = groups.get(i);
+            json.append(i > 0 ? ",{" : "{");
+            if (group.zoneNumber != null) json.append("\"zone\":").append(group.zoneNumber).append(',');
+            if (group.category != null) json.append("\"category\":\"").append(group.category).append("\",");
+            if (group.status != null) json.append("\"status\":\"").append(group.status).append("\",");
+            if (group.bucketStart != null) json.append("\"bucketStart\":\"").append(group.bucketStart).append("\",");
+            json.append("\"count\":").append(group.count).append('}');
+        }
+        return json.append("]}").toString();
+    }
+
+    // --- Request parsing ---
+
+    // Path segments after the context prefix, e.g. "/complaints/42/status" -> ["42", "status"]
+    private static String[] pathSegments(HttpExchange exchange, String prefix) {
+        String rest = exchange.getRequestURI().getPath().substring(prefix.length());
+        while (rest.startsWith("/")) {
+            rest = rest.substring(1);
+        }
+        while (rest.endsWith("/")) {
+            rest = rest.substring(0, rest.length() - 1);
+        }
+        return rest.isEmpty() ? new String[0] : rest.split("/");
+    }
+
+    private static void requireMethod(HttpExchange exchange, String method, String allowed) throws ApiException {
+        if (!exchange.getRequestMethod().equals(method)) {
+            exchange.getResponseHeaders().set("Allow", allowed);
+            throw new ApiException(405, exchange.getRequestMethod() + " is not supported here (allowed: " + allowed + ")");
+        }
+    }
+
+    private static Map<String, String> queryParameters(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null || query.isEmpty()) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            int equals = pair.indexOf('=');
+            String name = equals < 0 ? pair : pair.substring(0, equals);
+            String value = equals < 0 ? "" : pair.substring(equals + 1);
+            params.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    // Reads a flat JSON object body into values indexed like ComplaintJson.FIELDS.
+    private static String[] readJsonBody(HttpExchange exchange) throws ApiException, IOException {
+        Headers headers = exchange.getRequestHeaders();
+        String contentLength = headers.getFirst("Content-Length");
+        if (contentLength != null) {
+            long length;
+            try {
+                length = Long.parseLong(contentLength.trim());
+            } catch (NumberFormatException e) {
+                throw new ApiException(400, "invalid Content-Length '" + contentLength + "'");
+            }
+            if (length > MAX_BODY_BYTES) {
+                throw new ApiException(413, "Request body is larger than " + MAX_BODY_BYTES + " bytes");
+            }
+        }
+        ByteArrayOutputStream body = new ByteArrayOutputStream(256);
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                if (body.size() + read > MAX_BODY_BYTES) {
+                    throw new ApiException(413, "Request body is larger than " + MAX_BODY_BYTES + " bytes");
+                }
+                body.write(buffer, 0, read);
+            }
+        }
+        String[] values = new String[ComplaintJson.FIELDS.length];
+        String error = new ComplaintJson.ObjectParser(body.toString(StandardCharsets.UTF_8).strip()).parseInto(values);
+        if (error != null) {
+            throw new ApiException(400, error);
+        }
+        return values;
+    }
+
+    private static int parseTrackingId(String value) throws ApiException {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new ApiException(404, "Unknown complaint '" + value + "'");
+        }
+    }
+
+    private static int parseInt(String value, String name) throws ApiException {
+        if (value == null || value.isBlank()) {
+            throw new ApiException(400, name + " is required");
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new ApiException(400, "invalid " + name + " '" + value + "'");
+        }
+    }
+
+    private static int parseLimit(Map<String, String> params, int defaultLimit) throws ApiException {
+        int limit = params.containsKey("limit") ? parseInt(params.get("limit"), "limit") : defaultLimit;
+        if (limit < 1) {
+            throw new ApiException(400, "limit must be at least 1");
+        }
+        return limit;
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value, String name) throws ApiException {
+        if (value == null || value.isBlank()) {
+            throw new ApiException(400, name + " is required");
+        }
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ApiException(400, "unknown " + name + " '" + value + "'");
+        }
+    }
+
+    // Comma-separated enum names, e.g. "water_outage,street_lighting"
+    private static <E extends Enum<E>> List<E> parseEnumList(Class<E> type, String value, String name)
+            throws ApiException {
+        List<E> values = new ArrayList<>();
+        for (String part : value.split(",")) {
+            values.add(parseEnum(type, part, name));
+        }
+        return values;
+    }
+
+    // yyyy-MM-dd (start of that day) or yyyy-MM-ddTHH:mm:ss; null if absent
+    private static LocalDateTime parseDate(String value, String name) throws ApiException {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return value.indexOf('T') >= 0 ? LocalDateTime.parse(value.trim()) : LocalDate.parse(value.trim()).atStartOfDay();
+        } catch (DateTimeParseException e) {
+            throw new ApiException(400, "invalid " + name + " date '" + value + "' (expected yyyy-MM-dd[THH:mm:ss])");
+        }
+    }
+
+    // --- Response bodies ---
+
+    private static Response complaintResponse(int status, Complaint comp) {
+        StringBuilder json = new StringBuilder(256);
+        ComplaintJson.append(json, comp);
+        return new Response(status, json.toString());
+    }
+
+    private static String errorJson(String message) {
+        StringBuilder json = new StringBuilder(64).append("{\"error\":");
+        ComplaintJson.appendString(json, message == null ? "" : message);
+        return json.append('}').toString();
+    }
+}
@@ -0,0 +1,120 @@
+package src;
+
+import java.util.Arrays;
+
+// Maps a tracking ID to its Complaint using open addressing over a primitive int[] key table,
+// so lookups never box an Integer and stay constant-time however many complaints are loaded.
+public class ComplaintIndex {
+
+    private static final int EMPTY = 0;          // Tracking IDs start at 1, so 0 marks a free slot
+    private static final float MAX_LOAD = 0.5f;  // Linear probing stays short below half full
+
+    private int[] keys;
+    private Complaint[] values;
+    private int size;
+    private int resizeThreshold;
+
+    public ComplaintIndex() {
+        this(16);
+    }
+
+    public ComplaintIndex(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    // Adds or replaces the complaint stored under its tracking ID.
+    public void put(Complaint complaint) {
+        int key = complaint.getTrackingID();
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Tracking ID 0 cannot be indexed.");
+        }
+        if (size >= resizeThreshold) {
+            rehash(keys.length * 2);
+        }
+        int slot = findSlot(keys, key);
+        if (keys[slot] == EMPTY) {
+            keys[slot] = key;
+            size++;
+        }
+        values[slot] = complaint;
+    }
+
+    // Returns the complaint with this tracking ID, or null if it is not indexed.
+    public Complaint get(int trackingID) {
+        if (trackingID == EMPTY) {
+            return null;
+        }
+        int slot = findSlot(keys, trackingID);
+        return keys[slot] == trackingID ? values[slot] : null;
+    }
+
+    public boolean contains(int trackingID) {
+        return get(trackingID) != null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    // Rebuilds the index from scratch for a freshly loaded list.
+    public void rebuild(Iterable<Complaint> complaints, int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+        for (Complaint comp : complaints) {
+            put(comp);
+        }
+    }
+
+    // --- Internal hashing helpers ---
+
+    // Linear probe from the key's home slot until the key or an empty slot is found.
+    private static int findSlot(int[] table, int key) {
+        int mask = table.length - 1;
+        int slot = mix(key) & mask;
+        while (table[slot] != EMPTY && table[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    // Spreads sequential IDs across the table (Fibonacci hashing).
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private void rehash(int newCapacity) {
+        int[] oldKeys = keys;
+        Complaint[] oldValues = values;
+        allocate(newCapacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = findSlot(keys, oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+                size++;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new Complaint[capacity];
+        size = 0;
+        resizeThreshold = (int) (capacity * MAX_LOAD);
+    }
+
+    // Smallest power of two that keeps expectedSize under the load factor.
+    private static int tableSizeFor(int expectedSize) {
+        long needed = (long) Math.ceil(Math.max(expectedSize, 8) / MAX_LOAD);
+        if (needed > (1 << 30)) {
+            return 1 << 30;
+        }
+        return Integer.highestOneBit((int) needed - 1) << 1;
+    }
+}
@@ -0,0 +1,398 @@
+package src;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+// Append-only write-ahead log of complaint mutations, used to recover changes made after the
+// last snapshot. Replaying is idempotent: creates for known IDs are skipped and status and
+// duplicate records carry absolute values, so replaying records that a snapshot already
+// contains is harmless.
+//
+// Record layout (big-endian):
+//   int payloadLength | payload | int CRC32(payload)
+//   payload = byte type | int trackingID | ...
+//     CREATE: int zone | byte category | byte status | long epochSeconds | UTF-8 details (rest)
+//     STATUS: byte status
+//     DUPLICATES: int duplicate report count
+public class ComplaintJournal implements AutoCloseable {
+
+    // When appended records are forced to disk
+    public enum FsyncPolicy {
+        EVERY_RECORD, // fsync before append returns (no loss on crash)
+        INTERVAL,     // buffered; written and fsynced every N ms (may lose the last N ms)
+        OS_MANAGED    // written on every append, the OS decides when it reaches the disk
+    }
+
+    public static final byte TYPE_CREATE = 1;
+    public static final byte TYPE_STATUS = 2;
+    public static final byte TYPE_DUPLICATES = 3;
+
+    private static final int BUFFER_BYTES = 64 * 1024;
+    private static final int MAX_RECORD_BYTES = 16 * 1024 * 1024; // Sanity limit when replaying
+
+    // One decoded journal record, handed to the replay callback
+    public static class Record {
+        public final byte type;
+        public final int trackingID;
+        public final int zoneNumber;
+        public final IssueCategory category;
+        public final ComplaintStatus status;
+        public final LocalDateTime submissionDate;
+        public final String details;
+        public final int duplicateReports;
+
+        private Record(byte type, int trackingID, int zoneNumber, IssueCategory category,
+                       ComplaintStatus status, LocalDateTime submissionDate, String details, int duplicateReports) {
+            this.type = type;
+            this.trackingID = trackingID;
+            this.zoneNumber = zoneNumber;
+            this.category = category;
+            this.status = status;
+            this.submissionDate = submissionDate;
+            this.details = details;
+            this.duplicateReports = duplicateReports;
+        }
+
+        // Rebuilds the complaint described by a CREATE record
+        public Complaint toComplaint() {
+            return new Complaint(trackingID, zoneNumber, details, category, status, submissionDate);
+        }
+    }
+
+    public interface RecordHandler {
+        void apply(Record record);
+    }
+
+    private final Path file;
+    private final FsyncPolicy fsyncPolicy;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.BIG_ENDIAN);
+    private final CRC32 crc = new CRC32();
+    private final ScheduledExecutorService fsyncTimer;
+    private FileChannel channel;
+    private long position;      // Logical end of the journal, including buffered bytes
+    private long appendedBytes; // Bytes appended since the journal was opened (not reset by compaction)
+
+    // One fsync at a time. It is taken before the journal lock (never while holding it), so records
+    // can be appended while a sync runs; the next sync then covers all of them at once.
+    private final Object syncLock = new Object();
+    private long syncedBytes;   // appendedBytes covered by the last fsync; guarded by syncLock
+
+    public ComplaintJournal(Path file, FsyncPolicy fsyncPolicy, long fsyncIntervalMillis) throws IOException {
+        this.file = file;
+        this.fsyncPolicy = fsyncPolicy;
+        this.channel = openForAppend(file);
+        this.position = channel.size();
+
+        if (fsyncPolicy == FsyncPolicy.INTERVAL) {
+            fsyncTimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "complaint-journal-fsync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            fsyncTimer.scheduleWithFixedDelay(this::syncQuietly, fsyncIntervalMillis, fsyncIntervalMillis,
+                    TimeUnit.MILLISECONDS);
+        } else {
+            fsyncTimer = null;
+        }
+    }
+
+    // --- Appending ---
+
+    // Records a new complaint. The status is read under the journal lock, so the journal
+    // always ends with the complaint's latest status even when updates race.
+    public void appendCreate(Complaint comp) throws IOException {
+        long end;
+        synchronized (this) {
+            byte[] details = comp.getDetails() == null ? new byte[0] : comp.getDetails().getBytes(StandardCharsets.UTF_8);
+            ByteBuffer payload = ByteBuffer.allocate(1 + 4 + 4 + 1 + 1 + 8 + details.length);
+            payload.put(TYPE_CREATE)
+                   .putInt(comp.getTrackingID())
+                   .putInt(comp.getZoneNumber())
+                   .put((byte) comp.getCategory().ordinal())
+                   .put((byte) comp.getStatus().ordinal())
+                   .putLong(comp.getSubmissionDate().toEpochSecond(ZoneOffset.UTC))
+                   .put(details);
+            end = appendRecord(payload.array());
+        }
+        syncIfRequired(end);
+    }
+
+    // Records a status change (the complaint's status at the time of the append).
+    public void appendStatus(Complaint comp) throws IOException {
+        long end;
+        synchronized (this) {
+            ByteBuffer payload = ByteBuffer.allocate(1 + 4 + 1);
+            payload.put(TYPE_STATUS)
+                   .putInt(comp.getTrackingID())
+                   .put((byte) comp.getStatus().ordinal());
+            end = appendRecord(payload.array());
+        }
+        syncIfRequired(end);
+    }
+
+    // Records a complaint's duplicate report count (its count at the time of the append).
+    public void appendDuplicates(Complaint comp) throws IOException {
+        long end;
+        synchronized (this) {
+            ByteBuffer payload = ByteBuffer.allocate(1 + 4 + 4);
+            payload.put(TYPE_DUPLICATES)
+                   .putInt(comp.getTrackingID())
+                   .putInt(comp.getDuplicateReports());
+            end = appendRecord(payload.array());
+        }
+        syncIfRequired(end);
+    }
+
+    // Buffers one record; returns appendedBytes after it. Caller must hold the journal lock.
+    private long appendRecord(byte[] payload) throws IOException {
+        crc.reset();
+        crc.update(payload);
+        int recordLength = 4 + payload.length + 4;
+
+        if (buffer.remaining() < recordLength) {
+            drainBuffer();
+        }
+        if (recordLength > buffer.capacity()) {
+            // Oversized record: bypass the buffer
+            ByteBuffer large = ByteBuffer.allocate(recordLength);
+            large.putInt(payload.length).put(payload).putInt((int) crc.getValue()).flip();
+            writeFully(large);
+        } else {
+            buffer.putInt(payload.length).put(payload).putInt((int) crc.getValue());
+        }
+        position += recordLength;
+        appendedBytes += recordLength;
+
+        if (fsyncPolicy == FsyncPolicy.OS_MANAGED) {
+            drainBuffer();
+        }
+        return appendedBytes;
+    }
+
+    // EVERY_RECORD: returns once the record ending at appendedEnd is on disk. Appenders that arrive
+    // while another one's fsync runs share the next fsync (group commit), so concurrent writers
+    // are not limited to one fsync each.
+    private void syncIfRequired(long appendedEnd) throws IOException {
+        if (fsyncPolicy == FsyncPolicy.EVERY_RECORD) {
+            syncUpTo(appendedEnd);
+        }
+    }
+
+    // Writes buffered records and forces them to disk.
+    public void sync() throws IOException {
+        syncUpTo(Long.MAX_VALUE);
+    }
+
+    private void syncUpTo(long appendedEnd) throws IOException {
+        synchronized (syncLock) {
+            if (syncedBytes >= appendedEnd) {
+                return; // Covered by a sync that ran while this thread waited
+            }
+            long target;
+            FileChannel current;
+            synchronized (this) {
+                drainBuffer();
+                target = appendedBytes;
+                current = channel; // Only replaced by compaction, which also holds syncLock
+            }
+            if (target > syncedBytes) {
+                current.force(false); // Outside the journal lock, so appends carry on meanwhile
+                syncedBytes = target;
+            }
+        }
+    }
+
+    private void syncQuietly() {
+        try {
+            sync();
+        } catch (IOException e) {
+            System.err.println("Error syncing journal: " + e.getMessage());
+        }
+    }
+
+    // Current size in bytes (including records still in the buffer).
+    public synchronized long position() {
+        return position;
+    }
+
+    // --- Compaction ---
+
+    // Drops every record before the given offset, once a snapshot covers them.
+    // The remaining tail is copied to a new file that atomically replaces the old one.
+    public void discardUpTo(long offset) throws IOException {
+        synchronized (syncLock) {
+            sync();
+            if (offset <= 0) {
+                return;
+            }
+            synchronized (this) {
+                drainBuffer(); // Records appended since the sync above go into the tail too
+                Path tempFile = file.resolveSibling(file.getFileName() + ".compact");
+                try (FileChannel tail = FileChannel.open(tempFile, StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                    long remaining = position - offset;
+                    long copied = 0;
+                    while (copied < remaining) {
+                        copied += channel.transferTo(offset + copied, remaining - copied, tail);
+                    }
+                    tail.force(true);
+                }
+                channel.close();
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                channel = openForAppend(file);
+                position = channel.size();
+                syncedBytes = appendedBytes; // The whole tail was forced above
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (fsyncTimer != null) {
+            fsyncTimer.shutdownNow();
+        }
+        synchronized (syncLock) {
+            sync();
+            synchronized (this) {
+                channel.close();
+            }
+        }
+    }
+
+    // --- Replay ---
+
+    // Replays this (open) journal: buffered records are written out first.
+    public int replay(RecordHandler handler) throws IOException {
+        synchronized (syncLock) {
+            sync();
+            synchronized (this) {
+                return replay(file, handler);
+            }
+        }
+    }
+
+    // Reads every intact record in order. A torn or corrupt tail (e.g. from a crash mid-append)
+    // ends the replay and is cut off so new records are appended after the last good one.
+    // An exception thrown by the handler propagates without truncating anything.
+    // Returns the number of records replayed.
+    public static int replay(Path file, RecordHandler handler) throws IOException {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        int replayed = 0;
+        long goodEnd = 0;
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = in.size();
+            ByteBuffer lengthBuffer = ByteBuffer.allocate(4);
+            CRC32 checksum = new CRC32();
+            IssueCategory[] categories = IssueCategory.values();
+            ComplaintStatus[] statuses = ComplaintStatus.values();
+
+            while (goodEnd + 8 <= size) {
+                lengthBuffer.clear();
+                readFully(in, lengthBuffer, goodEnd);
+                int payloadLength = lengthBuffer.getInt(0);
+                if (payloadLength < 6 || payloadLength > MAX_RECORD_BYTES || goodEnd + 8 + payloadLength > size) {
+                    break;
+                }
+                ByteBuffer record = ByteBuffer.allocate(payloadLength + 4);
+                readFully(in, record, goodEnd + 4);
+                checksum.reset();
+                checksum.update(record.array(), 0, payloadLength);
+                if ((int) checksum.getValue() != record.getInt(payloadLength)) {
+                    break;
+                }
+
+                Record decoded = decode(record, payloadLength, categories, statuses);
+                if (decoded == null) {
+                    break; // Passed the checksum but cannot be decoded: treat as the end of the log
+                }
+                // Outside the decode check: a failing handler aborts the replay and leaves the file as it is
+                handler.apply(decoded);
+                replayed++;
+                goodEnd += 8 + payloadLength;
+            }
+
+            if (goodEnd < size) {
+                System.err.println("Journal: discarding " + (size - goodEnd) + " bytes of incomplete records.");
+                in.truncate(goodEnd);
+                in.force(true);
+            }
+        }
+        return replayed;
+    }
+
+    // Decodes one checksummed payload, or returns null if it is not a valid record.
+    private static Record decode(ByteBuffer record, int payloadLength, IssueCategory[] categories,
+                                 ComplaintStatus[] statuses) {
+        try {
+            record.position(0).limit(payloadLength);
+            byte type = record.get();
+            int trackingID = record.getInt();
+            if (type == TYPE_CREATE) {
+                int zone = record.getInt();
+                IssueCategory category = categories[record.get()];
+                ComplaintStatus status = statuses[record.get()];
+                LocalDateTime date = LocalDateTime.ofEpochSecond(record.getLong(), 0, ZoneOffset.UTC);
+                String details = new String(record.array(), record.position(), record.remaining(),
+                        StandardCharsets.UTF_8);
+                return new Record(type, trackingID, zone, category, status, date, details, 0);
+            } else if (type == TYPE_STATUS) {
+                return new Record(type, trackingID, 0, null, statuses[record.get()], null, null, 0);
+            } else if (type == TYPE_DUPLICATES) {
+                return new Record(type, trackingID, 0, null, null, null, null, record.getInt());
+            }
+            return null;
+        } catch (RuntimeException e) { // Buffer underflow, bad ordinal or date
+            return null;
+        }
+    }
+
+    // --- Internal helpers ---
+
+    private static FileChannel openForAppend(Path file) throws IOException {
+        // READ is needed by compaction (transferTo), and cannot be combined with APPEND,
+        // so the channel is positioned at the end instead
+        FileChannel opened = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        opened.position(opened.size());
+        return opened;
+    }
+
+    private void drainBuffer() throws IOException {
+        if (buffer.position() == 0) {
+            return;
+        }
+        buffer.flip();
+        writeFully(buffer);
+        buffer.clear();
+    }
+
+    private void writeFully(ByteBuffer source) throws IOException {
+        while (source.hasRemaining()) {
+            channel.write(source);
+        }
+    }
+
+    private static void readFully(FileChannel in, ByteBuffer target, long offset) throws IOException {
+        while (target.hasRemaining()) {
+            int n = in.read(target, offset + target.position());
+            if (n < 0) {
+                throw new IOException("Unexpected end of journal file.");
+            }
+        }
+    }
+}
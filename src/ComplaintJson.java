@@ -0,0 +1,195 @@
+package src;
+
+// The complaint record as it crosses the wire: the field names shared by the CSV header, NDJSON
+// lines and the HTTP API, a reader for one flat JSON object and the JSON writer for a complaint.
+final class ComplaintJson {
+
+    // Field order used for export and for the parsed values of each record
+    static final String[] FIELDS = {
+        "trackingId", "zone", "category", "status", "submitted", "duplicateReports", "details"
+    };
+    static final int TRACKING_ID = 0;
+    static final int ZONE = 1;
+    static final int CATEGORY = 2;
+    static final int STATUS = 3;
+    static final int SUBMITTED = 4;
+    static final int DUPLICATE_REPORTS = 5;
+    static final int DETAILS = 6;
+
+    private ComplaintJson() {
+    }
+
+    // Position of a field name in FIELDS (case-insensitive), or -1
+    static int fieldIndex(String name) {
+        for (int i = 0; i < FIELDS.length; i++) {
+            if (FIELDS[i].equalsIgnoreCase(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Reads one flat JSON object whose values are strings, numbers, booleans or null.
+    // Known keys are stored as text; nested objects and arrays are rejected.
+    static final class ObjectParser {
+        private final String text;
+        private int position;
+
+        ObjectParser(String text) {
+            this.text = text;
+        }
+
+        // Returns an error message, or null once values holds the fields found.
+        String parseInto(String[] values) {
+            try {
+                expect('{');
+                skipWhitespace();
+                if (peek() == '}') {
+                    position++;
+                    return trailing();
+                }
+                while (true) {
+                    skipWhitespace();
+                    String key = readString();
+                    skipWhitespace();
+                    expect(':');
+                    skipWhitespace();
+                    String value = readValue();
+                    int field = fieldIndex(key);
+                    if (field >= 0) {
+                        values[field] = value;
+                    }
+                    skipWhitespace();
+                    char c = next();
+                    if (c == '}') {
+                        return trailing();
+                    }
+                    if (c != ',') {
+                        return "malformed JSON: expected ',' or '}' at column " + position;
+                    }
+                }
+            } catch (IllegalArgumentException e) {
+                return "malformed JSON: " + e.getMessage();
+            }
+        }
+
+        private String trailing() {
+            skipWhitespace();
+            return position == text.length() ? null : "malformed JSON: unexpected text after the object";
+        }
+
+        private String readValue() {
+            char c = peek();
+            if (c == '"') {
+                return readString();
+            }
+            if (c == '{' || c == '[') {
+                throw new IllegalArgumentException("nested values are not supported (column " + (position + 1) + ")");
+            }
+            int start = position;
+            while (position < text.length() && ",} \t".indexOf(text.charAt(position)) < 0) {
+                position++;
+            }
+            String literal = text.substring(start, position);
+            if (literal.isEmpty()) {
+                throw new IllegalArgumentException("missing value at column " + (start + 1));
+            }
+            return literal.equals("null") ? null : literal;
+        }
+
+        private String readString() {
+            expect('"');
+            StringBuilder value = new StringBuilder();
+            while (true) {
+                char c = next();
+                if (c == '"') {
+                    return value.toString();
+                }
+                if (c != '\\') {
+                    value.append(c);
+                    continue;
+                }
+                char escaped = next();
+                switch (escaped) {
+                    case 'n': value.append('\n'); break;
+                    case 'r': value.append('\r'); break;
+                    case 't': value.append('\t'); break;
+                    case 'b': value.append('\b'); break;
+                    case 'f': value.append('\f'); break;
+                    case 'u':
+                        if (position + 4 > text.length()) {
+                            throw new IllegalArgumentException("truncated \\u escape");
+                        }
+                        try {
+                            value.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+                        } catch (NumberFormatException e) {
+                            throw new IllegalArgumentException("invalid \\u escape at column " + (position + 1));
+                        }
+                        position += 4;
+                        break;
+                    default: value.append(escaped); // \" \\ \/
+                }
+            }
+        }
+
+        private void expect(char expected) {
+            if (next() != expected) {
+                throw new IllegalArgumentException("expected '" + expected + "' at column " + position);
+            }
+        }
+
+        private char next() {
+            if (position >= text.length()) {
+                throw new IllegalArgumentException("unexpected end of line");
+            }
+            return text.charAt(position++);
+        }
+
+        private char peek() {
+            if (position >= text.length()) {
+                throw new IllegalArgumentException("unexpected end of line");
+            }
+            return text.charAt(position);
+        }
+
+        private void skipWhitespace() {
+            while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+                position++;
+            }
+        }
+    }
+
+    static void append(StringBuilder line, Complaint comp) {
+        line.append("{\"trackingId\":").append(comp.getTrackingID())
+            .append(",\"zone\":").append(comp.getZoneNumber())
+            .append(",\"category\":\"").append(comp.getCategory())
+            .append("\",\"status\":\"").append(comp.getStatus())
+            .append("\",\"submitted\":\"").append(comp.getFormattedDate())
+            .append("\",\"duplicateReports\":").append(comp.getDuplicateReports())
+            .append(",\"details\":");
+        appendString(line, comp.getDetails());
+        line.append('}');
+    }
+
+    // Appends text as a quoted JSON string
+    static void appendString(StringBuilder line, String text) {
+        line.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"': line.append("\\\""); break;
+                case '\\': line.append("\\\\"); break;
+                case '\n': line.append("\\n"); break;
+                case '\r': line.append("\\r"); break;
+                case '\t': line.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        line.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        line.append(c);
+                    }
+            }
+        }
+        line.append('"');
+    }
+}
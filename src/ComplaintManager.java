@@ -1,245 +1,1684 @@
 package src;
 
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.*;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import java.time.format.DateTimeFormatter;
 
 // This class manages the list of complaints and handles all persistence logic.
+// It is safe to call from many threads at once (e.g. several intake clients).
 public class ComplaintManager {
     
-    // The main list to hold all complaint objects in runtime memory (Collection requirement)
+    // The main list to hold all complaint objects in runtime memory (Collection requirement).
+    // Only used in EAGER startup mode; in LAZY mode H2 is the source of truth and complaintCache
+    // holds the complaints that have been read or written recently.
     private List<Complaint> complaints;
-    private int idGenerator = 1; // Counter for assigning the next unique ID
+    // Primitive-keyed lookup by tracking ID, kept in step with the list above
+    private ComplaintIndex complaintIndex = new ComplaintIndex();
+    // COMPACT mode keeps every complaint here, column by column, instead of in the list and index above
+    private CompactComplaintStore compactStore;
+    private final boolean lazyMode;
+    private final boolean compactMode;
+    private final ComplaintCache complaintCache; // null in EAGER mode
+    // Zone/category/status/date indexes over the list above; null in LAZY mode (H2 indexes are used)
+    private final ComplaintQueryIndex queryIndex;
+    // Zone x category x status x hour counts for hotspot trends (kept in both modes)
+    private final HotspotCube hotspotCube;
+    // Inverted index over complaint details for keyword search (kept in all modes); null when disabled
+    private final ComplaintSearchIndex searchIndex;
+    // Recent open complaints by similarity signature; null when duplicate detection is off
+    private final DuplicateDetector duplicateDetector;
+    // New complaints already registered with the duplicate detector but not yet published, so a
+    // matching submission waits for its original instead of finding nothing and storing a second copy
+    private final Map<Integer, CompletableFuture<Void>> unpublishedIntakes = new ConcurrentHashMap<>();
+    private final TrendAggregator trendAggregator = new TrendAggregator();
+    // Open (SUBMITTED or IN_REVIEW) complaints per category, indexed by IssueCategory.ordinal()
+    private final LongAdder[] openCountsByCategory = new LongAdder[IssueCategory.values().length];
+    private final AtomicInteger idGenerator = new AtomicInteger(1); // Next unique ID, shared by all threads
+    // Last result of getTrendAnalysis, rebuilt only when an open count has changed since
+    private volatile TrendSnapshot trendSnapshot;
+
+    // Guards the list, the index and the counters as one unit.
+    // Read lock: lookups, status changes (the status itself is changed by compare-and-set) and copies.
+    // Write lock: adding complaints and replacing everything on reload.
+    private final ReadWriteLock storeLock = new ReentrantReadWriteLock();
     
     // JDBC Configuration for H2 Embedded Database (Altered DB Name for mitigation)
     private static final String JDBC_DRIVER = "org.h2.Driver";
-    private static final String DB_URL = "jdbc:h2:./community_h2_db"; // Database file name
+    private static final String DB_NAME = "community_h2_db"; // Database file name, inside the data directory
     private static final String USER = "sa";
     private static final String PASS = ""; 
 
-    // File I/O Serialization backup file name (Altered file name for mitigation)
-    private static final String SERIAL_BACKUP_FILE = "COMPLAINT_DATA_BACKUP.bin";
+    // One connection per core lets concurrent intake clients write in parallel
+    private static final int POOL_SIZE = Math.max(4, Runtime.getRuntime().availableProcessors());
+
+    // SQL prepared once per pooled connection (row-level writes live in ComplaintWriter)
+    private static final String INSERT_SQL = "INSERT INTO COMPLAINTS VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String DELETE_ALL_SQL = "DELETE FROM COMPLAINTS";
+    // Keyset pagination: each page starts after the last tracking ID of the previous one
+    private static final String SELECT_PAGE_SQL = "SELECT * FROM COMPLAINTS WHERE TRACKING_ID > ? "
+            + "ORDER BY TRACKING_ID LIMIT ?";
+    private static final int LOAD_PAGE_SIZE = 5_000; // Rows fetched per page when loading the whole table
+    private static final int IMPORT_COMMIT_ROWS = 1_000; // Rows per JDBC batch and transaction in a bulk import
+    // Rows whose tracking ID the generator could never have issued (see isValidTrackingId)
+    private static final String COUNT_INVALID_IDS_SQL = "SELECT COUNT(*) FROM COMPLAINTS WHERE TRACKING_ID < 1";
+    private static final String SELECT_BY_ID_SQL = "SELECT * FROM COMPLAINTS WHERE TRACKING_ID = ?";
+    private static final String SELECT_ID_RANGE_SQL = "SELECT TRACKING_ID FROM COMPLAINTS WHERE TRACKING_ID BETWEEN ? AND ?";
+    // Metadata read at LAZY startup instead of the full table
+    private static final String SELECT_MAX_ID_SQL = "SELECT MAX(TRACKING_ID) FROM COMPLAINTS";
+    // Counts that fill the hotspot cube and the open counts. Only complaints inside the cube's retention
+    // are grouped by submission hour; older ones just feed the all-time totals, so the number of groups
+    // (and H2's memory for them) stays bounded however much history the table holds.
+    private static final String SELECT_CUBE_COUNTS_SQL = "SELECT ZONE_NUMBER, CATEGORY, STATUS, "
+            + "LEFT(SUBMISSION_DATE, 13), COUNT(*) FROM COMPLAINTS WHERE TRACKING_ID > 0 AND SUBMISSION_DATE >= ? "
+            + "GROUP BY ZONE_NUMBER, CATEGORY, STATUS, LEFT(SUBMISSION_DATE, 13)";
+    private static final String SELECT_OLDER_COUNTS_SQL = "SELECT ZONE_NUMBER, CATEGORY, STATUS, COUNT(*) "
+            + "FROM COMPLAINTS WHERE TRACKING_ID > 0 AND SUBMISSION_DATE < ? GROUP BY ZONE_NUMBER, CATEGORY, STATUS";
+    // Open complaints submitted since a given time: primes duplicate detection at LAZY startup
+    private static final String SELECT_RECENT_OPEN_SQL = "SELECT * FROM COMPLAINTS WHERE TRACKING_ID > 0 "
+            + "AND SUBMISSION_DATE >= ? AND STATUS <> 'CLOSED' ORDER BY SUBMISSION_DATE";
+    // Adds the duplicate report column to tables created before it existed
+    private static final String ADD_DUPLICATES_COLUMN_SQL = "ALTER TABLE COMPLAINTS ADD COLUMN IF NOT EXISTS "
+            + "DUPLICATE_REPORTS INT DEFAULT 0 NOT NULL";
+    // Secondary indexes backing findComplaints in LAZY mode
+    private static final String[] CREATE_INDEX_SQL = {
+        "CREATE INDEX IF NOT EXISTS IDX_COMPLAINTS_ZONE ON COMPLAINTS(ZONE_NUMBER)",
+        "CREATE INDEX IF NOT EXISTS IDX_COMPLAINTS_CATEGORY ON COMPLAINTS(CATEGORY)",
+        "CREATE INDEX IF NOT EXISTS IDX_COMPLAINTS_STATUS ON COMPLAINTS(STATUS)",
+        "CREATE INDEX IF NOT EXISTS IDX_COMPLAINTS_SUBMITTED ON COMPLAINTS(SUBMISSION_DATE)"
+    };
+
+    // Format of the SUBMISSION_DATE column
+    private static final DateTimeFormatter DB_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    // Long-lived connections shared by every persistence call (null if the driver is missing)
+    private ConnectionPool connectionPool;
+    // Background group-commit writer for inserts and status updates (null without a pool)
+    private ComplaintWriter complaintWriter;
+
+    // File I/O backup file name (Altered file name for mitigation).
+    // Written in the ComplaintSnapshot format; older Java-serialized backups can still be read.
+    private static final String BACKUP_FILE = "COMPLAINT_DATA_BACKUP.bin";
+    // Write-ahead journal of mutations made since the last snapshot
+    private static final String JOURNAL_FILE = "COMPLAINT_JOURNAL.log";
+    // Complaints H2 refused to store, in the journal format, for manual repair (never compacted)
+    private static final String DEAD_LETTER_FILE = "COMPLAINT_DEAD_LETTERS.log";
+
+    private final ComplaintManagerConfig config;
+    private final Path backupFile;  // BACKUP_FILE inside the configured data directory
+    private final Path journalFile; // JOURNAL_FILE inside the configured data directory
+    private final Path deadLetterFile; // DEAD_LETTER_FILE inside the configured data directory
+    private ComplaintJournal journal; // null when journaling is disabled or the file cannot be opened
+    // Set when a replay stopped part-way: the journal file is then left alone for the next start
+    private volatile boolean journalReplayFailed = false;
+    // LAZY replay only: tracking IDs of journaled complaints known to exist (see journaledIdsInDatabase)
+    private Set<Integer> replayKnownIds;
+    // Writer failures already repaired by a full table rewrite; any beyond this count mean H2 is
+    // missing rows that only the journal holds, so the journal must not be compacted.
+    // Rows H2 refused outright do not count: they are dead-lettered instead (see quarantineRejectedRow).
+    private volatile long repairedWriteFailures = 0;
+    // Tracking IDs of dead-lettered complaints; table rewrites leave them out
+    private final Set<Integer> quarantinedIds = ConcurrentHashMap.newKeySet();
+    private final Object deadLetterLock = new Object();
+    private final ExecutorService compactionExecutor;
+    private final AtomicBoolean compactionRunning = new AtomicBoolean(false);
+    private final Object snapshotLock = new Object(); // One snapshot write at a time
+    // Latency histograms and counters of the hot paths; registered with JMX by the constructor
+    private final ComplaintMetrics metrics = new ComplaintMetrics(this);
 
     public ComplaintManager() {
+        this(new ComplaintManagerConfig());
+    }
+
+    public ComplaintManager(ComplaintManagerConfig config) {
+        this.config = config;
+        this.backupFile = config.getDataDirectory().resolve(BACKUP_FILE);
+        this.journalFile = config.getDataDirectory().resolve(JOURNAL_FILE);
+        this.deadLetterFile = config.getDataDirectory().resolve(DEAD_LETTER_FILE);
+        this.lazyMode = config.getStartupMode() == ComplaintManagerConfig.StartupMode.LAZY;
+        this.compactMode = config.getStartupMode() == ComplaintManagerConfig.StartupMode.COMPACT;
+        this.compactStore = compactMode ? new CompactComplaintStore() : null;
+        this.complaintCache = lazyMode
+                ? new ComplaintCache(config.getCachePolicy(), config.getCacheMaxEntries(), config.getCacheMaxBytes())
+                : null;
+        this.queryIndex = lazyMode ? null : new ComplaintQueryIndex();
+        this.hotspotCube = new HotspotCube(config.getHotspotRetentionHours());
+        this.searchIndex = config.isSearchIndexEnabled() ? new ComplaintSearchIndex() : null;
+        this.duplicateDetector = config.isDuplicateDetectionEnabled()
+                ? new DuplicateDetector(config.getDuplicateWindowHours(), config.getDuplicateSimilarity())
+                : null;
         this.complaints = new ArrayList<>();
+        for (int i = 0; i < openCountsByCategory.length; i++) {
+            openCountsByCategory[i] = new LongAdder();
+        }
+        this.trendSnapshot = new TrendSnapshot(openCountsByCategory);
         
-        // 1. Ensure the database table structure exists
+        // 1. Open the connection pool and ensure the table structure exists (once per run)
+        try {
+            this.connectionPool = new ConnectionPool(JDBC_DRIVER, databaseUrl(config.getDataDirectory()),
+                    USER, PASS, POOL_SIZE);
+            this.complaintWriter = new ComplaintWriter(connectionPool, config.getWriteBatchSize(),
+                    config.getWriteLingerMillis(), config.getWriteQueueCapacity());
+            this.complaintWriter.setRejectedWriteHandler(this::quarantineRejectedRow);
+        } catch (SQLException e) {
+            System.err.println("Database unavailable: " + e.getMessage());
+        }
         setupDatabaseSchema(); 
         
-        // 2. Try to load data from the database first
-        boolean dbLoaded = loadDataFromDatabase();
+        // 2. Try to load data from the database first, then replay the journal tail on top
+        //    (writes that were journaled but never reached H2 before a crash).
+        //    LAZY mode only reads the max ID and the open counts; rows are loaded on demand.
+        boolean dbLoaded = lazyMode ? loadMetadataFromDatabase() : loadDataFromDatabase();
+        if (dbLoaded) {
+            replayJournal();
+            if (lazyMode && searchIndex != null) {
+                indexDetailsInBackground(); // The details are not in memory, so read them once from H2
+            }
+            if (lazyMode) {
+                loadRecentForDuplicateDetection();
+            }
+        }
         
-        // 3. If the DB was empty, load from the file backup
+        // 3. If the DB was empty, load the latest snapshot (which also replays the journal)
+        // (either load also moves the ID generator past the highest tracking ID found)
         if (!dbLoaded) {
             loadBackupFromFile(); 
         }
-        
-        // 4. Set the next ID based on the highest tracking ID loaded
-        if (!this.complaints.isEmpty()) {
-            this.idGenerator = complaints.stream()
-                                    .mapToInt(Complaint::getTrackingID)
-                                    .max()
-                                    .orElse(0) + 1;
+
+        // 4. Start appending new mutations to the journal
+        if (config.isJournalEnabled() && !journalReplayFailed) {
+            try {
+                this.journal = new ComplaintJournal(journalFile, config.getJournalFsyncPolicy(),
+                        config.getJournalFsyncIntervalMillis());
+            } catch (IOException e) {
+                System.err.println("Journal unavailable, continuing without it: " + e.getMessage());
+            }
         }
+        this.compactionExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "complaint-journal-compaction");
+            thread.setDaemon(true);
+            return thread;
+        });
+        metrics.register();
+    }
+
+    // H2 URL of the database file in the given directory. H2 needs relative paths to start with "./",
+    // so the default directory gives the original "jdbc:h2:./community_h2_db".
+    static String databaseUrl(Path dataDirectory) {
+        Path database = dataDirectory.resolve(DB_NAME);
+        return "jdbc:h2:" + (database.isAbsolute() ? database.toString() : "./" + database.normalize());
     }
     
     // --- Database Connection Helper ---
-    private Connection getConnection() throws SQLException {
+    // Borrows a pooled connection; closing it (try-with-resources) hands it back to the pool.
+    private ConnectionPool.PooledConnection getConnection() throws SQLException {
+        if (connectionPool == null) {
+            throw new SQLException("Database connection pool is not available.");
+        }
+        return connectionPool.borrow();
+    }
+
+    // Finishes any running compaction, commits queued writes, syncs the journal,
+    // then releases all pooled database connections.
+    public void close() {
+        compactionExecutor.shutdown();
         try {
-            Class.forName(JDBC_DRIVER); // Load the H2 JDBC driver
-        } catch (ClassNotFoundException e) {
-            System.err.println("JDBC Driver missing. Make sure h2-*.jar is in the classpath.");
-            throw new SQLException("Driver initialization failed.", e);
+            compactionExecutor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (complaintWriter != null) {
+            complaintWriter.close();
+        }
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                System.err.println("Error closing journal: " + e.getMessage());
+            }
+            journal = null;
+        }
+        if (connectionPool != null) {
+            connectionPool.close();
+        }
+        metrics.unregister();
+    }
+
+    // Pool hit/miss/wait metrics, or null if the database is unavailable
+    public ConnectionPool getConnectionPool() {
+        return connectionPool;
+    }
+
+    // The complaint cache in LAZY mode (hit rate, evictions, load latency), or null in EAGER mode.
+    public ComplaintCache getComplaintCache() {
+        return complaintCache;
+    }
+
+    // Batch/queue metrics of the group-commit writer, or null if the database is unavailable
+    public ComplaintWriter getComplaintWriter() {
+        return complaintWriter;
+    }
+
+    // Operation latencies and counters (also published to JMX)
+    public ComplaintMetrics getMetrics() {
+        return metrics;
+    }
+
+    // Bytes of journal records not yet folded into a snapshot (0 without a journal)
+    public long getJournalBytes() {
+        ComplaintJournal current = journal;
+        return current == null ? 0 : current.position();
+    }
+
+    // Waits until every queued insert/update has been committed to H2.
+    public void flushPendingWrites() {
+        if (complaintWriter != null) {
+            complaintWriter.flush();
         }
-        return DriverManager.getConnection(DB_URL, USER, PASS);
     }
 
     // --- JDBC Persistence Methods ---
 
-    // Initializes the necessary SQL table structure.
+    // Initializes the necessary SQL table structure. Called once from the constructor.
     public void setupDatabaseSchema() {
         String createTableSQL = "CREATE TABLE IF NOT EXISTS COMPLAINTS ("
                 + "TRACKING_ID INT PRIMARY KEY,"
                 + "ZONE_NUMBER INT NOT NULL,"
-                + "DETAILS VARCHAR(255) NOT NULL,"
+                + "DETAILS VARCHAR(" + Complaint.MAX_DETAILS_LENGTH + ") NOT NULL,"
                 + "SUBMISSION_DATE VARCHAR(50) NOT NULL,"
                 + "CATEGORY VARCHAR(50) NOT NULL,"
-                + "STATUS VARCHAR(50) NOT NULL"
+                + "STATUS VARCHAR(50) NOT NULL,"
+                + "DUPLICATE_REPORTS INT DEFAULT 0 NOT NULL"
                 + ")";
 
-        try (Connection conn = getConnection();
-             Statement stmt = conn.createStatement()) {
+        try (ConnectionPool.PooledConnection pooled = getConnection();
+             Statement stmt = pooled.getConnection().createStatement()) {
             stmt.execute(createTableSQL);
+            stmt.execute(ADD_DUPLICATES_COLUMN_SQL);
+            for (String createIndexSQL : CREATE_INDEX_SQL) {
+                stmt.execute(createIndexSQL);
+            }
         } catch (SQLException e) {
             // Catching database setup errors
             System.err.println("Database setup failed: " + e.getMessage());
         }
     }
 
-    // Saves all complaints from the in-memory list to the database.
+    // Full resync: rewrites the whole table from the in-memory list.
+    // Normal mutations are written row by row through the ComplaintWriter,
+    // so this is only needed when explicitly requested.
     public void saveDataToDatabase() {
-        setupDatabaseSchema(); 
-        String deleteSQL = "DELETE FROM COMPLAINTS"; // Clear old data
-        String insertSQL = "INSERT INTO COMPLAINTS VALUES (?, ?, ?, ?, ?, ?)";
-        
-        try (Connection conn = getConnection();
-             PreparedStatement deleteStmt = conn.prepareStatement(deleteSQL);
-             PreparedStatement insertStmt = conn.prepareStatement(insertSQL)) {
-
-            conn.setAutoCommit(false); // Start transaction for efficiency
-            deleteStmt.executeUpdate();
-
-            for (Complaint comp : complaints) {
-                insertStmt.setInt(1, comp.getTrackingID());
-                insertStmt.setInt(2, comp.getZoneNumber());
-                insertStmt.setString(3, comp.getDetails());
-                insertStmt.setString(4, comp.getFormattedDate());
-                insertStmt.setString(5, comp.getCategory().name());
-                insertStmt.setString(6, comp.getStatus().name());
-                insertStmt.addBatch();
-            }
-            insertStmt.executeBatch();
-            conn.commit(); // Finalize transaction
+        if (lazyMode) {
+            System.out.println("Full resync skipped: in lazy mode the database is already the source of truth.");
+            return;
+        }
+        long start = System.nanoTime();
+        List<Complaint> rows = snapshotComplaints();
+        if (rewriteTable(rows)) {
+            metrics.databaseSaved(rows.size());
+        } else {
+            metrics.recordError(ComplaintMetrics.Operation.SAVE_DATA_TO_DATABASE);
+        }
+        metrics.recordSince(ComplaintMetrics.Operation.SAVE_DATA_TO_DATABASE, start);
+    }
+
+    // Replaces every row of the COMPLAINTS table with the given complaints in one transaction.
+    // Dead-lettered complaints are left out, and a row H2 refuses is dead-lettered rather than
+    // failing every rewrite. Returns false (after printing the error) if the rows could not be written.
+    private boolean rewriteTable(List<Complaint> rows) {
+        flushPendingWrites(); // Queued inserts must not land on top of the rewritten table
+        long failuresBefore = complaintWriter != null ? complaintWriter.getUnrejectedFailedWrites() : 0;
+        try (ConnectionPool.PooledConnection pooled = getConnection()) {
+            Connection conn = pooled.getConnection();
+            try {
+                conn.setAutoCommit(false); // Start transaction for efficiency
+                pooled.prepare(DELETE_ALL_SQL).executeUpdate(); // Clear old data
+
+                PreparedStatement insertStmt = pooled.prepare(INSERT_SQL);
+                for (Complaint comp : rows) {
+                    if (!quarantinedIds.contains(comp.getTrackingID())) {
+                        ComplaintWriter.bindComplaintRow(insertStmt, comp);
+                        insertStmt.addBatch();
+                    }
+                }
+                try {
+                    insertStmt.executeBatch();
+                } catch (BatchUpdateException e) {
+                    // Start over one row at a time to find the rows H2 refuses
+                    conn.rollback();
+                    insertStmt.clearBatch();
+                    pooled.prepare(DELETE_ALL_SQL).executeUpdate();
+                    insertRowByRow(insertStmt, rows);
+                }
+                conn.commit(); // Finalize transaction
+                repairedWriteFailures = failuresBefore; // The table now matches memory again
+                return true;
+            } catch (SQLException e) {
+                pooled.invalidate(); // Pool rolls back and discards this connection
+                throw e;
+            }
         } catch (SQLException e) {
             System.err.println("Error saving data to database: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // Inserts the rows one statement at a time in the caller's transaction (a failed statement does not
+    // end an H2 transaction). Rows H2 refuses are dead-lettered and skipped; any other error is thrown.
+    private void insertRowByRow(PreparedStatement insertStmt, List<Complaint> rows) throws SQLException {
+        for (Complaint comp : rows) {
+            if (quarantinedIds.contains(comp.getTrackingID())) {
+                continue;
+            }
+            ComplaintWriter.bindComplaintRow(insertStmt, comp);
+            try {
+                insertStmt.executeUpdate();
+            } catch (SQLException e) {
+                if (!ComplaintWriter.isRejectedRow(e)) {
+                    throw e;
+                }
+                System.err.println("Error writing complaint " + comp.getTrackingID() + " to database: " + e.getMessage());
+                quarantineRejectedRow(comp);
+            }
+        }
+    }
+
+    // Gives a complaint whose row H2 refused outright (a data or constraint error, so retrying cannot help)
+    // a terminal state: it is appended to the dead-letter file, which uses the journal format and is never
+    // compacted, and left out of later table rewrites. Its failed write then no longer keeps the journal
+    // from being compacted. The complaint stays in memory until the next restart, which reads H2 without it.
+    private void quarantineRejectedRow(Complaint comp) {
+        if (!quarantinedIds.add(comp.getTrackingID())) {
+            return; // Already dead-lettered
+        }
+        synchronized (deadLetterLock) {
+            try (ComplaintJournal deadLetters = new ComplaintJournal(deadLetterFile,
+                    ComplaintJournal.FsyncPolicy.EVERY_RECORD, config.getJournalFsyncIntervalMillis())) {
+                deadLetters.appendCreate(comp);
+                if (comp.getDuplicateReports() > 0) {
+                    deadLetters.appendDuplicates(comp);
+                }
+            } catch (IOException e) {
+                System.err.println("Error writing dead-letter record: " + e.getMessage());
+            }
         }
+        System.err.println("Complaint " + comp.getTrackingID() + " was refused by the database; saved to "
+                + deadLetterFile + " for repair.");
     }
 
-    // Loads all complaints from the database into the in-memory list.
+    // Loads all complaints from the database into the in-memory list, one page at a time
+    // so the JDBC driver never buffers the whole table at once.
+    // In COMPACT mode each page goes straight into a compact store, so the full set of
+    // Complaint objects never exists at once.
     public boolean loadDataFromDatabase() {
-        setupDatabaseSchema();
-        String selectSQL = "SELECT * FROM COMPLAINTS";
+        long start = System.nanoTime();
+        try {
+            return loadAllFromDatabase();
+        } finally {
+            metrics.recordSince(ComplaintMetrics.Operation.LOAD_DATA_FROM_DATABASE, start);
+        }
+    }
+
+    private boolean loadAllFromDatabase() {
         List<Complaint> loadedComplaints = new ArrayList<>();
+        CompactComplaintStore loadedStore = compactMode ? new CompactComplaintStore() : null;
+        flushPendingWrites(); // Read our own queued writes
         
-        try (Connection conn = getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(selectSQL)) {
-
-            while (rs.next()) {
-                int id = rs.getInt("TRACKING_ID");
-                int zone = rs.getInt("ZONE_NUMBER");
-                String details = rs.getString("DETAILS");
-                String dateStr = rs.getString("SUBMISSION_DATE");
-                String categoryStr = rs.getString("CATEGORY");
-                String statusStr = rs.getString("STATUS");
-
-                // Reconstruct date/time object
-                LocalDateTime submissionDate = LocalDateTime.parse(dateStr, 
-                        DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
-                
-                // Reconstruct the Complaint object
-                Complaint comp = new Complaint(id, zone, details, 
-                        IssueCategory.valueOf(categoryStr), 
-                        ComplaintStatus.valueOf(statusStr), 
-                        submissionDate);
-                loadedComplaints.add(comp);
-            }
-            this.complaints = loadedComplaints;
+        try {
+            warnAboutInvalidIdRows();
+            int lastId = 0; // Keyset paging from 0 leaves out rows with an invalid ID
+            List<Complaint> page;
+            do {
+                page = fetchPage(lastId, LOAD_PAGE_SIZE);
+                if (loadedStore != null) {
+                    for (Complaint comp : page) {
+                        loadedStore.add(comp);
+                    }
+                } else {
+                    loadedComplaints.addAll(page);
+                }
+                if (!page.isEmpty()) {
+                    lastId = page.get(page.size() - 1).getTrackingID();
+                }
+            } while (page.size() == LOAD_PAGE_SIZE);
+
+            if (loadedStore != null) {
+                loadedComplaints = loadedStore.rows();
+                replaceAllComplaints(loadedComplaints, loadedStore);
+            } else {
+                replaceAllComplaints(loadedComplaints);
+            }
+            metrics.databaseLoaded(loadedComplaints.size());
             return !loadedComplaints.isEmpty();
 
         } catch (SQLException e) {
             System.err.println("Error loading data from database: " + e.getMessage());
+            metrics.recordError(ComplaintMetrics.Operation.LOAD_DATA_FROM_DATABASE);
+            return false;
+        }
+    }
+
+    // Tracking IDs come from idGenerator, which starts at 1, and every in-memory index relies on that.
+    // Rows with any other ID (a hand-edited table, a damaged backup) are skipped with a warning instead,
+    // so one bad row cannot abort a whole load.
+    static boolean isValidTrackingId(int trackingID) {
+        return trackingID > 0;
+    }
+
+    private void warnAboutInvalidIdRows() throws SQLException {
+        try (ConnectionPool.PooledConnection pooled = getConnection();
+             ResultSet rs = pooled.prepare(COUNT_INVALID_IDS_SQL).executeQuery()) {
+            rs.next();
+            int invalid = rs.getInt(1);
+            if (invalid > 0) {
+                System.err.println("Skipped " + invalid + " database row(s) with an invalid tracking ID (below 1).");
+            }
+        }
+    }
+
+    // The loaded complaints without those whose tracking ID is invalid (warns when any are dropped).
+    private static List<Complaint> withValidIds(List<Complaint> loaded, String source) {
+        List<Complaint> valid = new ArrayList<>(loaded.size());
+        for (Complaint comp : loaded) {
+            if (isValidTrackingId(comp.getTrackingID())) {
+                valid.add(comp);
+            }
+        }
+        if (valid.size() < loaded.size()) {
+            System.err.println("Skipped " + (loaded.size() - valid.size()) + " complaint(s) in " + source
+                    + " with an invalid tracking ID (below 1).");
+        }
+        return valid;
+    }
+
+    // LAZY startup: reads only the highest tracking ID and the aggregated counts.
+    // Returns false if the table is empty (so the caller can fall back to the file backup).
+    private boolean loadMetadataFromDatabase() {
+        try (ConnectionPool.PooledConnection pooled = getConnection()) {
+            int maxId;
+            try (ResultSet rs = pooled.prepare(SELECT_MAX_ID_SQL).executeQuery()) {
+                rs.next();
+                maxId = rs.getInt(1); // 0 when the table is empty (MAX is NULL)
+            }
+            if (maxId == 0) {
+                return false;
+            }
+            warnAboutInvalidIdRows();
+
+            // First hour the cube keeps; older complaints are counted as the hour before it (totals only)
+            LocalDateTime retainedFrom = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS)
+                    .minusHours(hotspotCube.getRetentionHours() - 1);
+            long olderHour = HotspotCube.hourOf(retainedFrom) - 1;
+            PreparedStatement olderStmt = pooled.prepare(SELECT_OLDER_COUNTS_SQL);
+            PreparedStatement recentStmt = pooled.prepare(SELECT_CUBE_COUNTS_SQL);
+            olderStmt.setString(1, retainedFrom.format(DB_DATE_FORMAT));
+            recentStmt.setString(1, retainedFrom.format(DB_DATE_FORMAT));
+
+            storeLock.writeLock().lock();
+            try {
+                for (LongAdder counter : openCountsByCategory) {
+                    counter.reset();
+                }
+                hotspotCube.clear();
+                try (ResultSet rs = olderStmt.executeQuery()) {
+                    while (rs.next()) {
+                        addMetadataCount(rs.getInt(1), rs.getString(2), rs.getString(3), olderHour, rs.getInt(4));
+                    }
+                }
+                try (ResultSet rs = recentStmt.executeQuery()) {
+                    while (rs.next()) {
+                        // "yyyy-MM-dd HH" prefix of the stored date
+                        LocalDateTime hourStart = LocalDateTime.parse(rs.getString(4) + ":00:00", DB_DATE_FORMAT);
+                        addMetadataCount(rs.getInt(1), rs.getString(2), rs.getString(3),
+                                HotspotCube.hourOf(hourStart), rs.getInt(5));
+                    }
+                }
+            } finally {
+                storeLock.writeLock().unlock();
+            }
+            idGenerator.accumulateAndGet(maxId + 1, Math::max);
+            return true;
+
+        } catch (SQLException e) {
+            System.err.println("Error loading metadata from database: " + e.getMessage());
             return false;
         }
     }
 
+    // One aggregated row of the LAZY startup counts. Caller holds the write lock.
+    private void addMetadataCount(int zoneNumber, String categoryName, String statusName, long hour, int count) {
+        IssueCategory category = IssueCategory.valueOf(categoryName);
+        ComplaintStatus status = ComplaintStatus.valueOf(statusName);
+        hotspotCube.addCount(zoneNumber, category, status, hour, count);
+        if (isOpen(status)) {
+            openCountsByCategory[category.ordinal()].add(count);
+        }
+    }
+
+    // LAZY startup: tracks the open complaints inside the duplicate window, read with an indexed query.
+    private void loadRecentForDuplicateDetection() {
+        if (duplicateDetector == null) {
+            return;
+        }
+        LocalDateTime since = LocalDateTime.now().minusHours(config.getDuplicateWindowHours());
+        try (ConnectionPool.PooledConnection pooled = getConnection()) {
+            PreparedStatement selectStmt = pooled.prepare(SELECT_RECENT_OPEN_SQL);
+            selectStmt.setString(1, since.format(DB_DATE_FORMAT));
+            List<Complaint> recent = new ArrayList<>();
+            try (ResultSet rs = selectStmt.executeQuery()) {
+                while (rs.next()) {
+                    recent.add(mapComplaintRow(rs));
+                }
+            }
+            duplicateDetector.rebuild(recent);
+        } catch (SQLException e) {
+            System.err.println("Error loading recent complaints for duplicate detection: " + e.getMessage());
+        }
+    }
+
+    // Reads one complaint row by ID, or returns null if it does not exist.
+    private Complaint fetchById(int trackingID) throws SQLException {
+        try (ConnectionPool.PooledConnection pooled = getConnection()) {
+            PreparedStatement selectStmt = pooled.prepare(SELECT_BY_ID_SQL);
+            selectStmt.setInt(1, trackingID);
+            try (ResultSet rs = selectStmt.executeQuery()) {
+                return rs.next() ? mapComplaintRow(rs) : null;
+            }
+        }
+    }
+
+    // --- Streaming / Paginated Reads ---
+
+    // Returns up to pageSize complaints with a tracking ID greater than afterTrackingID, in ID order.
+    // Pass 0 for the first page, then the last ID of each page to get the next one.
+    public List<Complaint> getComplaintPage(int afterTrackingID, int pageSize) {
+        flushPendingWrites(); // The page should include complaints still queued for H2
+        try {
+            return fetchPage(afterTrackingID, pageSize);
+        } catch (SQLException e) {
+            System.err.println("Error reading complaints from database: " + e.getMessage());
+            return Collections.emptyList();
+        }
+    }
+
+    // Streams every complaint in the table in tracking-ID order, holding at most one page in memory.
+    // The stream reads lazily, so it can be abandoned early (e.g. after limit()).
+    public Stream<Complaint> streamComplaints(int pageSize) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1.");
+        }
+        flushPendingWrites();
+        Iterator<Complaint> pagedIterator = new Iterator<Complaint>() {
+            private List<Complaint> page = Collections.emptyList();
+            private int position = 0;
+            private int lastId = 0;
+            private boolean lastPage = false;
+
+            @Override
+            public boolean hasNext() {
+                if (position < page.size()) {
+                    return true;
+                }
+                if (lastPage) {
+                    return false;
+                }
+                try {
+                    page = fetchPage(lastId, pageSize);
+                } catch (SQLException e) {
+                    System.err.println("Error reading complaints from database: " + e.getMessage());
+                    page = Collections.emptyList();
+                }
+                position = 0;
+                lastPage = page.size() < pageSize;
+                return !page.isEmpty();
+            }
+
+            @Override
+            public Complaint next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Complaint comp = page.get(position++);
+                lastId = comp.getTrackingID();
+                return comp;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(pagedIterator,
+                Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL), false);
+    }
+
+    // Reads one keyset page; the connection goes back to the pool before the page is returned.
+    private List<Complaint> fetchPage(int afterTrackingID, int pageSize) throws SQLException {
+        List<Complaint> page = new ArrayList<>(Math.min(pageSize, LOAD_PAGE_SIZE));
+        try (ConnectionPool.PooledConnection pooled = getConnection()) {
+            PreparedStatement selectStmt = pooled.prepare(SELECT_PAGE_SQL);
+            selectStmt.setInt(1, afterTrackingID);
+            selectStmt.setInt(2, pageSize);
+            selectStmt.setFetchSize(Math.min(pageSize, LOAD_PAGE_SIZE));
+            try (ResultSet rs = selectStmt.executeQuery()) {
+                while (rs.next()) {
+                    page.add(mapComplaintRow(rs));
+                }
+            }
+        }
+        return page;
+    }
+
+    // Rebuilds a Complaint from the current row of a COMPLAINTS result set.
+    private static Complaint mapComplaintRow(ResultSet rs) throws SQLException {
+        int id = rs.getInt("TRACKING_ID");
+        int zone = rs.getInt("ZONE_NUMBER");
+        String details = rs.getString("DETAILS");
+        String dateStr = rs.getString("SUBMISSION_DATE");
+        String categoryStr = rs.getString("CATEGORY");
+        String statusStr = rs.getString("STATUS");
+
+        // Reconstruct date/time object
+        LocalDateTime submissionDate = LocalDateTime.parse(dateStr, DB_DATE_FORMAT);
+        
+        // Reconstruct the Complaint object
+        Complaint comp = new Complaint(id, zone, details, 
+                IssueCategory.valueOf(categoryStr), 
+                ComplaintStatus.valueOf(statusStr), 
+                submissionDate);
+        comp.setDuplicateReports(rs.getInt("DUPLICATE_REPORTS"));
+        return comp;
+    }
+
     // --- Core Business Logic ---
 
-    // Logs a new complaint, assigns ID, and saves to persistence.
-    public void logNewComplaint(int zoneNumber, String details, IssueCategory category) {
-        Complaint newComplaint = new Complaint(idGenerator++, zoneNumber, details, category);
-        complaints.add(newComplaint);
-        saveDataToDatabase(); // Save change immediately
-        System.out.println("✅ New Complaint Logged. Tracking ID: " + newComplaint.getTrackingID());
+    // Logs a new complaint, assigns ID, and waits until it is saved. Returns the stored complaint.
+    // With the journal enabled the complaint is durable once journaled, so H2 is written in the background.
+    // If the details closely match a recent open complaint in the same zone and category, nothing new is
+    // stored: the original's duplicate report count goes up and the original is returned.
+    public Complaint logNewComplaint(int zoneNumber, String details, IssueCategory category) {
+        Submission submission = submitComplaint(zoneNumber, details, category);
+        Complaint comp = submission.complaint;
+        if (submission.duplicate) {
+            System.out.println("🔁 Likely duplicate of complaint " + comp.getTrackingID()
+                    + "; linked to it instead of logging a new one (" + comp.getDuplicateReports()
+                    + " duplicate report(s)).");
+        } else {
+            System.out.println("✅ New Complaint Logged. Tracking ID: " + comp.getTrackingID());
+        }
+        return comp;
+    }
+
+    // Outcome of submitComplaint: the stored complaint, and whether it is an existing one the
+    // submission was linked to as a likely duplicate
+    public static class Submission {
+        public final Complaint complaint;
+        public final boolean duplicate;
+
+        Submission(Complaint complaint, boolean duplicate) {
+            this.complaint = complaint;
+            this.duplicate = duplicate;
+        }
+    }
+
+    // logNewComplaint without the console messages (used by the HTTP API). Same durability:
+    // returns once the complaint, or the duplicate count of its original, is journaled or committed.
+    // Timed as the logNewComplaint operation in the metrics.
+    public Submission submitComplaint(int zoneNumber, String details, IssueCategory category) {
+        long start = System.nanoTime();
+        Intake intake = admitComplaint(zoneNumber, details, category);
+        metrics.complaintAdmitted(intake.duplicate);
+        Complaint comp = intake.complaint;
+        Submission submission;
+        if (intake.duplicate) {
+            CompletableFuture<Void> dbWrite = intake.rowUpdate;
+            if (!journalDuplicates(comp) && !awaitDurable(dbWrite, "Error saving duplicate report to database: ")) {
+                metrics.recordError(ComplaintMetrics.Operation.LOG_NEW_COMPLAINT);
+            }
+            submission = new Submission(comp, true);
+        } else {
+            CompletableFuture<Void> dbWrite = publishAdmitted(comp);
+            Complaint stored = storedComplaint(comp);
+            if (!journalCreate(stored) && !awaitDurable(dbWrite, "Error saving complaint to database: ")) {
+                metrics.recordError(ComplaintMetrics.Operation.LOG_NEW_COMPLAINT);
+            }
+            submission = new Submission(stored, false);
+        }
+        metrics.recordSince(ComplaintMetrics.Operation.LOG_NEW_COMPLAINT, start);
+        return submission;
     }
 
-    // Finds a complaint by ID and updates its status.
+    // Logs a new complaint without waiting for the database.
+    // The complaint is visible immediately; the future completes once it has been committed.
+    // Likely duplicates are linked to their original as in logNewComplaint, and the future yields the original.
+    public CompletableFuture<Complaint> logNewComplaintAsync(int zoneNumber, String details, IssueCategory category) {
+        Intake intake = admitComplaint(zoneNumber, details, category);
+        metrics.complaintAdmitted(intake.duplicate);
+        Complaint comp = intake.complaint;
+        CompletableFuture<Void> dbWrite;
+        Complaint stored;
+        if (intake.duplicate) {
+            dbWrite = intake.rowUpdate;
+            stored = comp;
+            journalDuplicates(comp);
+        } else {
+            dbWrite = publishAdmitted(comp);
+            stored = storedComplaint(comp);
+            journalCreate(stored);
+        }
+        return dbWrite.thenApply(ignored -> stored);
+    }
+
+    // A submission after the duplicate check: a new complaint, or the existing one it duplicates
+    private static class Intake {
+        final Complaint complaint;
+        final boolean duplicate;
+        final CompletableFuture<Void> rowUpdate; // Duplicates only: the queued write of the new count
+
+        Intake(Complaint complaint) {
+            this(complaint, false, null);
+        }
+
+        Intake(Complaint complaint, boolean duplicate, CompletableFuture<Void> rowUpdate) {
+            this.complaint = complaint;
+            this.duplicate = duplicate;
+            this.rowUpdate = rowUpdate;
+        }
+    }
+
+    // Creates the complaint for a submission, or links it to the recent open complaint it duplicates.
+    // The check and the registration of a new complaint happen under the detector's lock, so two
+    // identical submissions arriving together cannot both be stored.
+    private Intake admitComplaint(int zoneNumber, String details, IssueCategory category) {
+        validateDetails(details);
+        if (duplicateDetector == null) {
+            return new Intake(new Complaint(idGenerator.getAndIncrement(), zoneNumber, details, category));
+        }
+        DuplicateDetector.Signature signature = DuplicateDetector.signatureOf(details); // Outside the lock
+        long now = LocalDateTime.now().toEpochSecond(ZoneOffset.UTC);
+        int originalId;
+        synchronized (duplicateDetector) {
+            originalId = duplicateDetector.findDuplicate(zoneNumber, category, signature, now);
+            if (originalId == 0) {
+                return new Intake(registerNewComplaint(zoneNumber, details, category, signature));
+            }
+        }
+
+        // The original may still be on its way in (registered above by another submission but not
+        // yet published); wait for it so it is found and counted, not taken for a closed one
+        CompletableFuture<Void> unpublished = unpublishedIntakes.get(originalId);
+        if (unpublished != null) {
+            unpublished.join();
+        }
+        Complaint original = lookupForUpdate(originalId);
+        try {
+            if (original == null || original.getStatus() == ComplaintStatus.CLOSED) {
+                // Closed (or gone) since it was matched: this is a new report after all
+                synchronized (duplicateDetector) {
+                    duplicateDetector.forget(originalId);
+                    return new Intake(registerNewComplaint(zoneNumber, details, category, signature));
+                }
+            }
+            original.recordDuplicateReport();
+            return new Intake(original, true, queueRowUpdate(original));
+        } finally {
+            releaseAfterUpdate(original);
+        }
+    }
+
+    // A new complaint becomes a match candidate as soon as it is registered, before it is published;
+    // it stays in unpublishedIntakes until publishAdmitted has added it. Caller holds the detector's lock.
+    private Complaint registerNewComplaint(int zoneNumber, String details, IssueCategory category,
+                                           DuplicateDetector.Signature signature) {
+        Complaint newComplaint = new Complaint(idGenerator.getAndIncrement(), zoneNumber, details, category);
+        unpublishedIntakes.put(newComplaint.getTrackingID(), new CompletableFuture<>());
+        duplicateDetector.add(newComplaint, signature);
+        return newComplaint;
+    }
+
+    // publishNewComplaint for a complaint from admitComplaint: releases submissions waiting on it,
+    // even if publishing failed (they then treat it as gone)
+    private CompletableFuture<Void> publishAdmitted(Complaint newComplaint) {
+        try {
+            return publishNewComplaint(newComplaint);
+        } finally {
+            CompletableFuture<Void> unpublished = unpublishedIntakes.remove(newComplaint.getTrackingID());
+            if (unpublished != null) {
+                unpublished.complete(null);
+            }
+        }
+    }
+
+    // Every intake path (console, HTTP, async) comes through admitComplaint, so a submission the DETAILS
+    // column cannot hold is refused here, before it gets an ID, a journal record or a queued INSERT.
+    private static void validateDetails(String details) {
+        if (details == null) {
+            throw new IllegalArgumentException("Complaint details are required.");
+        }
+        if (details.length() > Complaint.MAX_DETAILS_LENGTH) {
+            throw new IllegalArgumentException("Complaint details are longer than "
+                    + Complaint.MAX_DETAILS_LENGTH + " characters.");
+        }
+    }
+
+    // Adds a complaint to memory and queues its row (shared by new complaints and journal replay).
+    private CompletableFuture<Void> publishNewComplaint(Complaint newComplaint) {
+        // Queue the row before publishing, so a status update can never reach H2 ahead of its INSERT
+        CompletableFuture<Void> durable = complaintWriter != null
+                ? complaintWriter.submitInsert(newComplaint)
+                : CompletableFuture.failedFuture(new SQLException("Database connection pool is not available."));
+
+        storeLock.writeLock().lock();
+        try {
+            addToMemory(newComplaint);
+        } finally {
+            storeLock.writeLock().unlock();
+        }
+        return durable;
+    }
+
+    // Adds a stored complaint to the in-memory structures of the current mode. Caller must hold the write lock.
+    private void addToMemory(Complaint comp) {
+        if (lazyMode) {
+            complaintCache.putIfAbsent(comp);
+        } else {
+            if (compactMode) {
+                compactStore.add(comp);
+            } else {
+                complaints.add(comp);
+                complaintIndex.put(comp);
+            }
+            queryIndex.add(comp);
+        }
+        if (isOpen(comp.getStatus())) { // Always true for new complaints, not for replayed or imported ones
+            openCountsByCategory[comp.getCategory().ordinal()].increment();
+        }
+        hotspotCube.add(comp);
+        if (searchIndex != null) {
+            searchIndex.add(comp);
+        }
+    }
+
+    // --- Bulk Import ---
+
+    // Hands out a block of count consecutive tracking IDs and returns the first one.
+    public int reserveTrackingIds(int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("At least one tracking ID must be reserved.");
+        }
+        return idGenerator.getAndAdd(count);
+    }
+
+    // Inserts complaints that already have tracking IDs (see reserveTrackingIds), committing every
+    // IMPORT_COMMIT_ROWS rows (H2 slows down with larger transactions), and makes each committed
+    // group visible like newly logged complaints. The rows are durable once committed, so they bypass
+    // the journal; they also skip duplicate detection, since imported history is taken as is.
+    // Returns how many were stored: fewer than batch.size() if the database rejected a group.
+    public int importComplaints(List<Complaint> batch) {
+        int stored = 0;
+        try (ConnectionPool.PooledConnection pooled = getConnection()) {
+            Connection conn = pooled.getConnection();
+            try {
+                conn.setAutoCommit(false);
+                PreparedStatement insertStmt = pooled.prepare(INSERT_SQL);
+                while (stored < batch.size()) {
+                    List<Complaint> group = batch.subList(stored, Math.min(batch.size(), stored + IMPORT_COMMIT_ROWS));
+                    for (Complaint comp : group) {
+                        ComplaintWriter.bindComplaintRow(insertStmt, comp);
+                        insertStmt.addBatch();
+                    }
+                    insertStmt.executeBatch();
+                    conn.commit();
+
+                    storeLock.writeLock().lock();
+                    try {
+                        for (Complaint comp : group) {
+                            addToMemory(comp);
+                        }
+                    } finally {
+                        storeLock.writeLock().unlock();
+                    }
+                    stored += group.size();
+                }
+            } catch (SQLException e) {
+                pooled.invalidate(); // Pool rolls back and discards this connection
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error importing complaints into database: " + e.getMessage());
+        }
+        return stored;
+    }
+
+    // In COMPACT mode the store keeps its own copy of a new complaint; returns the live view of it
+    // (so later status changes show through) rather than the object that was passed in.
+    // A new complaint is journaled through this view: it is already published, so a status change
+    // can be journaled before its CREATE, and the CREATE must then carry that newer status.
+    private Complaint storedComplaint(Complaint comp) {
+        if (!compactMode) {
+            return comp;
+        }
+        Complaint stored = lookupComplaint(comp.getTrackingID());
+        return stored != null ? stored : comp;
+    }
+
+    // Finds a complaint by ID, updates its status and waits until the change is saved.
     public boolean modifyStatus(int trackingID, ComplaintStatus newStatus) {
-        for (Complaint comp : complaints) {
-            if (comp.getTrackingID() == trackingID) {
-                comp.setStatus(newStatus);
-                saveDataToDatabase(); // Save change immediately
-                return true;
+        long start = System.nanoTime();
+        Complaint comp = lookupForUpdate(trackingID);
+        boolean changed = false;
+        CompletableFuture<Void> dbWrite = null;
+        try {
+            changed = comp != null && changeStatus(comp, newStatus);
+            if (changed) {
+                dbWrite = queueRowUpdate(comp);
             }
+        } finally {
+            releaseAfterUpdate(comp);
+        }
+        if (changed) {
+            if (!journalStatus(comp) && !awaitDurable(dbWrite, "Error updating complaint status in database: ")) {
+                metrics.recordError(ComplaintMetrics.Operation.MODIFY_STATUS);
+            }
+        }
+        metrics.statusUpdated(comp != null, changed);
+        metrics.recordSince(ComplaintMetrics.Operation.MODIFY_STATUS, start);
+        return comp != null;
+    }
+
+    // Returns false if the complaint already had newStatus.
+    private boolean changeStatus(Complaint comp, ComplaintStatus newStatus) {
+        storeLock.readLock().lock();
+        try {
+            return applyStatusChange(comp, newStatus);
+        } finally {
+            storeLock.readLock().unlock();
+        }
+    }
+
+    // Compare-and-set loop: retry if another thread changed the status in between.
+    // Returns false if the complaint already had newStatus. Caller must hold the read lock.
+    private boolean applyStatusChange(Complaint comp, ComplaintStatus newStatus) {
+        ComplaintStatus oldStatus;
+        do {
+            oldStatus = comp.getStatus();
+            if (oldStatus == newStatus) {
+                return false;
+            }
+        } while (!comp.compareAndSetStatus(oldStatus, newStatus));
+        adjustTrendCounters(comp.getCategory(), oldStatus, newStatus);
+        hotspotCube.moveStatus(comp, oldStatus, newStatus);
+        if (newStatus == ComplaintStatus.CLOSED && duplicateDetector != null) {
+            duplicateDetector.forget(comp.getTrackingID()); // New reports after closing start a new complaint
+        }
+        if (queryIndex != null) {
+            queryIndex.updateStatus(comp);
+        }
+        return true;
+    }
+
+    // Queues a write of the row's status and duplicate count. The writer stores the values current
+    // at write time, so racing updates converge on the latest ones.
+    private CompletableFuture<Void> queueRowUpdate(Complaint comp) {
+        if (complaintWriter == null) {
+            return CompletableFuture.failedFuture(new SQLException("Database connection pool is not available."));
+        }
+        return complaintWriter.submitUpdate(comp);
+    }
+
+    // Blocks until a queued write is committed; a failed write is reported but the in-memory change stays.
+    // Returns false if the write failed.
+    private boolean awaitDurable(CompletableFuture<?> durable, String errorPrefix) {
+        try {
+            durable.join();
+            return true;
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            System.err.println(errorPrefix + cause.getMessage());
+            return false;
+        }
+    }
+
+    // --- Write-Ahead Journal ---
+
+    // Appends a CREATE record; returns false if the complaint could not be journaled.
+    private boolean journalCreate(Complaint comp) {
+        ComplaintJournal current = journal;
+        if (current == null) {
+            return false;
+        }
+        try {
+            current.appendCreate(comp);
+        } catch (IOException e) {
+            System.err.println("Error writing complaint to journal: " + e.getMessage());
+            return false;
+        }
+        scheduleCompactionIfNeeded(current);
+        return true;
+    }
+
+    // Appends a STATUS record; returns false if the change could not be journaled.
+    private boolean journalStatus(Complaint comp) {
+        ComplaintJournal current = journal;
+        if (current == null) {
+            return false;
+        }
+        try {
+            current.appendStatus(comp);
+        } catch (IOException e) {
+            System.err.println("Error writing status change to journal: " + e.getMessage());
+            return false;
+        }
+        scheduleCompactionIfNeeded(current);
+        return true;
+    }
+
+    // Appends a DUPLICATES record; returns false if the count could not be journaled.
+    private boolean journalDuplicates(Complaint comp) {
+        ComplaintJournal current = journal;
+        if (current == null) {
+            return false;
+        }
+        try {
+            current.appendDuplicates(comp);
+        } catch (IOException e) {
+            System.err.println("Error writing duplicate report to journal: " + e.getMessage());
+            return false;
+        }
+        scheduleCompactionIfNeeded(current);
+        return true;
+    }
+
+    // Folds the journal into a new snapshot in the background once it grows past the threshold.
+    private void scheduleCompactionIfNeeded(ComplaintJournal current) {
+        if (current.position() < config.getJournalCompactionBytes()
+                || hasUnrepairedWriteFailures() // Would only rewrite the snapshot and keep the journal
+                || !compactionRunning.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            compactionExecutor.execute(() -> {
+                try {
+                    writeSnapshotAndCompactJournal();
+                } catch (IOException e) {
+                    System.err.println("Error compacting journal: " + e.getMessage());
+                } finally {
+                    compactionRunning.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            compactionRunning.set(false); // Shutting down
+        }
+    }
+
+    // Writes a snapshot and drops the journal records it covers.
+    // The journal offset is captured first: every record before it has already been applied
+    // in memory, so the snapshot contains it. Records after it are replayed idempotently.
+    private void writeSnapshotAndCompactJournal() throws IOException {
+        synchronized (snapshotLock) {
+            ComplaintJournal current = journal;
+            long coveredOffset = current != null ? current.position() : 0;
+            if (lazyMode) {
+                // Straight from H2 page by page into the snapshot, never holding the whole table
+                ComplaintSnapshot.write(backupFile, streamComplaints(LOAD_PAGE_SIZE).iterator());
+            } else {
+                ComplaintSnapshot.write(backupFile, snapshotComplaints());
+            }
+            metrics.backupWritten(Files.size(backupFile));
+            if (current != null) {
+                flushPendingWrites(); // H2 must also hold everything before the offset
+                if (hasUnrepairedWriteFailures()) {
+                    System.err.println("Journal kept: some database writes failed. "
+                            + "Run a full database resync to repair the table.");
+                    return;
+                }
+                current.discardUpTo(coveredOffset);
+            }
+        }
+    }
+
+    // True if a queued H2 write failed after the last full table rewrite (not counting dead-lettered rows)
+    private boolean hasUnrepairedWriteFailures() {
+        return complaintWriter != null && complaintWriter.getUnrejectedFailedWrites() > repairedWriteFailures;
+    }
+
+    // Re-applies journaled mutations that are missing from memory. Returns the number of records read.
+    private int replayJournal() {
+        if (!config.isJournalEnabled()) {
+            return 0;
+        }
+        try {
+            if (lazyMode) {
+                replayKnownIds = journaledIdsInDatabase();
+            }
+            int replayed = readJournal(this::applyJournalRecord);
+            if (replayed > 0) {
+                System.out.println("📜 Replayed " + replayed + " journal record(s).");
+            }
+            return replayed;
+        } catch (IOException | RuntimeException e) {
+            // Records after the failure were not applied, so they must not be compacted away or
+            // appended after: continue without the journal (writes wait for H2) and keep the file.
+            System.err.println("Error replaying journal, continuing without it (file kept for the next start): "
+                    + e.getMessage());
+            suspendJournal();
+            return 0;
+        } finally {
+            replayKnownIds = null;
+        }
+    }
+
+    private int readJournal(ComplaintJournal.RecordHandler handler) throws IOException {
+        return journal != null ? journal.replay(handler) : ComplaintJournal.replay(journalFile, handler);
+    }
+
+    // LAZY replay: a first pass collects the IDs of the journal's CREATE records, then a single range
+    // query finds those H2 already holds, instead of a primary-key SELECT per record.
+    // Returns null (look each one up after all) if the query fails.
+    private Set<Integer> journaledIdsInDatabase() throws IOException {
+        Set<Integer> createdIds = new HashSet<>();
+        readJournal(record -> {
+            if (record.type == ComplaintJournal.TYPE_CREATE) {
+                createdIds.add(record.trackingID);
+            }
+        });
+        Set<Integer> inDatabase = new HashSet<>();
+        if (createdIds.isEmpty()) {
+            return inDatabase;
+        }
+        flushPendingWrites();
+        try (ConnectionPool.PooledConnection pooled = getConnection()) {
+            PreparedStatement rangeStmt = pooled.prepare(SELECT_ID_RANGE_SQL);
+            rangeStmt.setInt(1, Collections.min(createdIds));
+            rangeStmt.setInt(2, Collections.max(createdIds));
+            rangeStmt.setFetchSize(LOAD_PAGE_SIZE);
+            try (ResultSet rs = rangeStmt.executeQuery()) {
+                while (rs.next()) {
+                    int id = rs.getInt(1);
+                    if (createdIds.contains(id)) {
+                        inDatabase.add(id);
+                    }
+                }
+            }
+            return inDatabase;
+        } catch (SQLException e) {
+            System.err.println("Error reading journaled IDs from database: " + e.getMessage());
+            return null;
         }
-        return false;
     }
 
-    // Provides an unmodifiable list of all complaints for display.
+    private void suspendJournal() {
+        journalReplayFailed = true;
+        ComplaintJournal current = journal;
+        journal = null;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (IOException e) {
+                System.err.println("Error closing journal: " + e.getMessage());
+            }
+        }
+    }
+
+    private void applyJournalRecord(ComplaintJournal.Record record) {
+        if (!isValidTrackingId(record.trackingID)) {
+            System.err.println("Skipped a journal record with an invalid tracking ID: " + record.trackingID);
+            return;
+        }
+        if (record.type == ComplaintJournal.TYPE_CREATE) {
+            boolean known = replayKnownIds != null
+                    ? !replayKnownIds.add(record.trackingID) // Also remembers the ones created by this replay
+                    : findById(record.trackingID).isPresent();
+            if (known) {
+                return; // Already in H2 or the snapshot
+            }
+            Complaint comp = record.toComplaint();
+            publishNewComplaint(comp);
+            if (duplicateDetector != null) {
+                duplicateDetector.add(comp);
+            }
+            idGenerator.accumulateAndGet(record.trackingID + 1, Math::max);
+        } else if (record.type == ComplaintJournal.TYPE_STATUS) {
+            Complaint comp = lookupForUpdate(record.trackingID);
+            try {
+                if (comp != null && changeStatus(comp, record.status)) {
+                    queueRowUpdate(comp);
+                }
+            } finally {
+                releaseAfterUpdate(comp);
+            }
+        } else if (record.type == ComplaintJournal.TYPE_DUPLICATES) {
+            Complaint comp = lookupForUpdate(record.trackingID);
+            try {
+                if (comp != null && comp.getDuplicateReports() < record.duplicateReports) {
+                    comp.setDuplicateReports(record.duplicateReports);
+                    queueRowUpdate(comp);
+                }
+            } finally {
+                releaseAfterUpdate(comp);
+            }
+        }
+    }
+
+    // Looks up a single complaint by its tracking ID in constant time
+    // (in LAZY mode a cache miss costs one primary-key read from H2).
+    public Optional<Complaint> findById(int trackingID) {
+        return Optional.ofNullable(lookupComplaint(trackingID));
+    }
+
+    private Complaint lookupComplaint(int trackingID) {
+        if (!isValidTrackingId(trackingID)) {
+            return null; // Never loaded, so never found
+        }
+        if (!lazyMode) {
+            storeLock.readLock().lock();
+            try {
+                return inMemoryComplaint(trackingID);
+            } finally {
+                storeLock.readLock().unlock();
+            }
+        }
+
+        return complaintCache.getOrLoad(trackingID, this::loadComplaint);
+    }
+
+    // lookupComplaint for a caller that is about to change the complaint. In LAZY mode the cache entry is
+    // pinned until releaseAfterUpdate, so every concurrent change works on this one instance (the status
+    // CAS and the counters it adjusts cannot run twice on two copies), and the entry cannot be evicted
+    // and re-read from H2 before the change has been queued for the writer. Queue it before releasing.
+    private Complaint lookupForUpdate(int trackingID) {
+        if (lazyMode && isValidTrackingId(trackingID)) {
+            return complaintCache.getOrLoadPinned(trackingID, this::loadComplaint);
+        }
+        return lookupComplaint(trackingID);
+    }
+
+    private void releaseAfterUpdate(Complaint comp) {
+        if (lazyMode && comp != null) {
+            complaintCache.unpin(comp.getTrackingID());
+        }
+    }
+
+    // EAGER/COMPACT lookup; caller must hold the read lock.
+    private Complaint inMemoryComplaint(int trackingID) {
+        return compactMode ? compactStore.get(trackingID) : complaintIndex.get(trackingID);
+    }
+
+    // Cache loader for LAZY mode.
+    private Complaint loadComplaint(int trackingID) {
+        // The cache is write-through (changes are queued for H2 as they are made), but an evicted
+        // complaint may still be waiting in the writer queue, so make sure its row is there first.
+        // Other complaints' queued writes do not matter, so a busy writer does not slow down every miss.
+        if (complaintWriter != null && complaintWriter.hasPendingWrite(trackingID)) {
+            complaintWriter.flush();
+        }
+        try {
+            return fetchById(trackingID);
+        } catch (SQLException e) {
+            System.err.println("Error reading complaint from database: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Returns the complaints matching every filter of the query, in tracking ID order.
+    // EAGER mode intersects the in-memory indexes; LAZY mode runs an indexed query on H2.
+    public List<Complaint> findComplaints(ComplaintQuery query) {
+        if (lazyMode) {
+            return findComplaintsInDatabase(query);
+        }
+        storeLock.readLock().lock();
+        try {
+            int[] ids = queryIndex.query(query);
+            List<Complaint> results = new ArrayList<>(ids.length);
+            for (int id : ids) {
+                Complaint comp = inMemoryComplaint(id);
+                // Re-check: the status may have changed since the index was read
+                if (comp != null && query.matches(comp)) {
+                    results.add(comp);
+                }
+            }
+            return results;
+        } finally {
+            storeLock.readLock().unlock();
+        }
+    }
+
+    private List<Complaint> findComplaintsInDatabase(ComplaintQuery query) {
+        flushPendingWrites(); // H2 must include every complaint logged so far
+
+        StringBuilder sql = new StringBuilder("SELECT * FROM COMPLAINTS WHERE 1 = 1");
+        List<Object> params = new ArrayList<>();
+        if (query.getZone() != null) {
+            sql.append(" AND ZONE_NUMBER = ?");
+            params.add(query.getZone());
+        }
+        if (query.getCategories() != null) {
+            appendInClause(sql, params, "CATEGORY", query.getCategories());
+        }
+        if (query.getStatuses() != null) {
+            appendInClause(sql, params, "STATUS", query.getStatuses());
+        }
+        // SUBMISSION_DATE is stored as yyyy-MM-dd HH:mm:ss, which sorts like the date itself
+        if (query.getSubmittedFrom() != null) {
+            sql.append(" AND SUBMISSION_DATE >= ?");
+            params.add(query.getSubmittedFrom().format(DB_DATE_FORMAT));
+        }
+        if (query.getSubmittedTo() != null) {
+            sql.append(" AND SUBMISSION_DATE < ?");
+            params.add(query.getSubmittedTo().format(DB_DATE_FORMAT));
+        }
+        sql.append(" ORDER BY TRACKING_ID LIMIT ?");
+        params.add(query.getLimit());
+
+        List<Complaint> results = new ArrayList<>();
+        try (ConnectionPool.PooledConnection pooled = getConnection()) {
+            PreparedStatement selectStmt = pooled.prepare(sql.toString());
+            for (int i = 0; i < params.size(); i++) {
+                selectStmt.setObject(i + 1, params.get(i));
+            }
+            try (ResultSet rs = selectStmt.executeQuery()) {
+                while (rs.next()) {
+                    results.add(mapComplaintRow(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error querying complaints from database: " + e.getMessage());
+        }
+        return results;
+    }
+
+    private static void appendInClause(StringBuilder sql, List<Object> params, String column, Set<? extends Enum<?>> values) {
+        sql.append(" AND ").append(column).append(" IN (");
+        String separator = "";
+        for (Enum<?> value : values) {
+            sql.append(separator).append('?');
+            params.add(value.name());
+            separator = ", ";
+        }
+        sql.append(')');
+    }
+
+    // Provides an unmodifiable point-in-time copy of all complaints for display.
+    // In LAZY mode this reads the whole table; prefer streamComplaints() or getComplaintPage().
     public List<Complaint> getAllComplaints() {
-        return Collections.unmodifiableList(complaints);
+        return Collections.unmodifiableList(snapshotComplaints());
+    }
+
+    // Copies the list under the read lock so callers can iterate while other threads keep writing.
+    private List<Complaint> snapshotComplaints() {
+        if (lazyMode) {
+            return streamComplaints(LOAD_PAGE_SIZE).collect(Collectors.toCollection(ArrayList::new));
+        }
+        storeLock.readLock().lock();
+        try {
+            // The compact store's row list is already a fixed-size copy (of views, not complaints)
+            return compactMode ? compactStore.rows() : new ArrayList<>(complaints);
+        } finally {
+            storeLock.readLock().unlock();
+        }
+    }
+
+    // Swaps in a freshly loaded list and rebuilds everything derived from it in one step.
+    private void replaceAllComplaints(List<Complaint> loadedComplaints) {
+        replaceAllComplaints(loadedComplaints,
+                compactMode ? CompactComplaintStore.copyOf(loadedComplaints) : null);
+    }
+
+    // loadedStore holds the same complaints in compact form (COMPACT mode only, otherwise null).
+    private void replaceAllComplaints(List<Complaint> loadedComplaints, CompactComplaintStore loadedStore) {
+        storeLock.writeLock().lock();
+        try {
+            if (lazyMode) {
+                complaintCache.clear(); // Cached objects may no longer match the restored data
+            } else if (compactMode) {
+                this.compactStore = loadedStore;
+                this.queryIndex.rebuild(loadedStore.rows());
+            } else {
+                this.complaints = new ArrayList<>(loadedComplaints);
+                this.complaintIndex.rebuild(complaints, complaints.size());
+                this.queryIndex.rebuild(complaints);
+            }
+            rebuildTrendCounters(loadedComplaints);
+            hotspotCube.rebuild(loadedComplaints);
+            if (searchIndex != null) {
+                searchIndex.rebuild(loadedComplaints);
+            }
+            if (duplicateDetector != null) {
+                duplicateDetector.rebuild(loadedComplaints);
+            }
+
+            // Move the ID generator past the highest tracking ID found (never backwards)
+            int maxId = 0;
+            for (Complaint comp : loadedComplaints) {
+                maxId = Math.max(maxId, comp.getTrackingID());
+            }
+            int nextId = maxId + 1;
+            idGenerator.accumulateAndGet(nextId, Math::max);
+        } finally {
+            storeLock.writeLock().unlock();
+        }
     }
     
-    // REQUIRED: Implements the Pattern Analyzer using a HashMap.
+    // REQUIRED: Implements the Pattern Analyzer using a Map.
+    // Reads the incrementally maintained counters, so the cost is O(#categories) not O(#complaints).
+    // A status change moves at most one counter, so the read lock (which only keeps a reload from
+    // resetting the counters mid-read) is enough. Returns an immutable map that is reused until a
+    // count changes, so repeated calls on a quiet store allocate nothing.
     public Map<IssueCategory, Integer> getTrendAnalysis() {
-        // Use a HashMap to count open issues (SUBMITTED or IN_REVIEW) by category
-        Map<IssueCategory, Integer> trendMap = new HashMap<>();
+        long start = System.nanoTime();
+        TrendSnapshot snapshot;
+        storeLock.readLock().lock();
+        try {
+            snapshot = trendSnapshot;
+            if (!snapshot.matchesCounters()) {
+                snapshot = new TrendSnapshot(openCountsByCategory);
+                trendSnapshot = snapshot;
+            }
+        } finally {
+            storeLock.readLock().unlock();
+        }
+        metrics.recordSince(ComplaintMetrics.Operation.GET_TREND_ANALYSIS, start);
+        return snapshot.trendMap;
+    }
+
+    // The open counts as last reported by getTrendAnalysis, with the map built from them.
+    private final class TrendSnapshot {
+        private final long[] counts;
+        private final Map<IssueCategory, Integer> trendMap;
+
+        TrendSnapshot(LongAdder[] counters) {
+            counts = new long[counters.length];
+            Map<IssueCategory, Integer> map = new EnumMap<>(IssueCategory.class);
+            for (IssueCategory category : IssueCategory.values()) {
+                long count = counters[category.ordinal()].sum();
+                counts[category.ordinal()] = count;
+                if (count > 0) { // Categories without open issues are left out, as before
+                    map.put(category, (int) count);
+                }
+            }
+            trendMap = Collections.unmodifiableMap(map);
+        }
+
+        boolean matchesCounters() {
+            for (int i = 0; i < counts.length; i++) {
+                if (openCountsByCategory[i].sum() != counts[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
 
-        // Using traditional loop for uniqueness and clarity (AI mitigation)
-        for (Complaint comp : complaints) {
-            if (comp.getStatus() != ComplaintStatus.CLOSED) {
-                 IssueCategory category = comp.getCategory();
-                 
-                 // Classic check-and-increment pattern
-                 Integer count = trendMap.get(category);
-                 if (count == null) {
-                     trendMap.put(category, 1);
-                 } else {
-                     trendMap.put(category, count + 1);
-                 }
+    // The zone/category pairs whose complaint volume grew fastest over the last windowHours,
+    // compared with the window before it. Answered from the hotspot cube without a scan.
+    public List<HotspotCube.Hotspot> getHotspots(int limit, int windowHours) {
+        return hotspotCube.topHotspots(limit, windowHours, EnumSet.allOf(ComplaintStatus.class));
+    }
+
+    // Historical report over every complaint: counts submitted in [from, to) (either bound may be null),
+    // grouped by any mix of zone, category, status and one date bucket, largest groups first.
+    // Scans a primitive columnar copy of the data in parallel; use the counters above for live views.
+    public List<TrendAggregator.GroupCount> getHistoricalTrends(Set<TrendAggregator.Dimension> groupBy,
+                                                                LocalDateTime from, LocalDateTime to) {
+        ComplaintColumns columns;
+        if (lazyMode) {
+            // Only rows in the range go into the columns (the aggregator would skip the rest anyway)
+            columns = ComplaintColumns.of(streamComplaints(LOAD_PAGE_SIZE)
+                    .filter(comp -> (from == null || !comp.getSubmissionDate().isBefore(from))
+                            && (to == null || comp.getSubmissionDate().isBefore(to)))
+                    .iterator());
+        } else if (compactMode) {
+            storeLock.readLock().lock();
+            try {
+                columns = compactStore.toColumns(); // Straight array copies, no per-row objects
+            } finally {
+                storeLock.readLock().unlock();
+            }
+        } else {
+            columns = ComplaintColumns.of(snapshotComplaints());
+        }
+        return trendAggregator.aggregate(columns, groupBy, from, to);
+    }
+
+    // Keyword search over complaint details, best matches first. Words are OR-ed and ranked (BM25);
+    // "word*" matches a prefix and "+word" must appear, e.g. "transformer +pipe burst*".
+    // In LAZY mode, complaints older than this run are searchable once the background indexing finishes.
+    public List<Complaint> searchDetails(String keywords, int limit) {
+        List<Complaint> results = new ArrayList<>();
+        if (searchIndex == null) {
+            return results;
+        }
+        for (ComplaintSearchIndex.Hit hit : searchIndex.search(keywords, limit)) {
+            Complaint comp = lookupComplaint(hit.trackingID);
+            if (comp != null) {
+                results.add(comp);
+            }
+        }
+        return results;
+    }
+
+    // LAZY startup: fills the details index from H2 on a daemon thread so startup stays fast.
+    // Complaints logged meanwhile are indexed as usual; re-adding them from H2 is a no-op.
+    private void indexDetailsInBackground() {
+        Thread indexer = new Thread(() -> searchIndex.addAll(streamComplaints(LOAD_PAGE_SIZE).iterator()),
+                "complaint-search-indexer");
+        indexer.setDaemon(true);
+        indexer.start();
+    }
+
+    // Raw zone/category/status/hour counts for custom trend queries.
+    public HotspotCube getHotspotCube() {
+        return hotspotCube;
+    }
+
+    // --- Trend Counter Maintenance ---
+
+    private static boolean isOpen(ComplaintStatus status) {
+        return status != ComplaintStatus.CLOSED;
+    }
+
+    // Applies a single status transition to the open counters.
+    private void adjustTrendCounters(IssueCategory category, ComplaintStatus oldStatus, ComplaintStatus newStatus) {
+        boolean wasOpen = isOpen(oldStatus);
+        boolean nowOpen = isOpen(newStatus);
+        if (wasOpen && !nowOpen) {
+            openCountsByCategory[category.ordinal()].decrement();
+        } else if (!wasOpen && nowOpen) {
+            openCountsByCategory[category.ordinal()].increment();
+        }
+    }
+
+    // Recounts from the full list; only needed after the list is replaced by a reload.
+    // Caller must hold the write lock.
+    private void rebuildTrendCounters(List<Complaint> allComplaints) {
+        for (LongAdder counter : openCountsByCategory) {
+            counter.reset();
+        }
+        for (Complaint comp : allComplaints) {
+            if (isOpen(comp.getStatus())) {
+                openCountsByCategory[comp.getCategory().ordinal()].increment();
             }
         }
-        return trendMap;
     }
 
     // --- File I/O Backup Methods ---
 
-    // Saves the in-memory list to a file using Java Serialization.
+    // Saves the in-memory list to a file as a columnar binary snapshot.
+    // Journal records covered by the snapshot are dropped at the same time.
     public boolean saveBackupToFile() {
-        try (FileOutputStream fos = new FileOutputStream(SERIAL_BACKUP_FILE);
-             ObjectOutputStream oos = new ObjectOutputStream(fos)) {
-            
-            oos.writeObject(complaints); 
-            System.out.println("🗂️ Backup data saved to file: " + SERIAL_BACKUP_FILE);
+        long start = System.nanoTime();
+        try {
+            writeSnapshotAndCompactJournal();
+            System.out.println("🗂️ Backup data saved to file: " + backupFile.normalize());
             return true;
         } catch (IOException e) {
             // Handling file write errors
             System.err.println("Error writing backup file: " + e.getMessage());
+            metrics.recordError(ComplaintMetrics.Operation.SAVE_BACKUP_TO_FILE);
             return false;
+        } finally {
+            metrics.recordSince(ComplaintMetrics.Operation.SAVE_BACKUP_TO_FILE, start);
         }
     }
 
-    // Loads the in-memory list from the backup file.
-    @SuppressWarnings("unchecked")
+    // Loads the in-memory list from the latest snapshot (or a legacy serialized list),
+    // then replays the journal records written after it.
     public boolean loadBackupFromFile() {
-        File file = new File(SERIAL_BACKUP_FILE);
-        if (!file.exists()) {
+        boolean restored = restoreSnapshot();
+        int replayed = replayJournal();
+        return restored || replayed > 0;
+    }
+
+    private boolean restoreSnapshot() {
+        Path file = backupFile;
+        if (!Files.exists(file)) {
             return false;
         }
         
-        try (FileInputStream fis = new FileInputStream(file);
-             ObjectInputStream ois = new ObjectInputStream(fis)) {
-            
-            Object obj = ois.readObject();
-            if (obj instanceof List) {
-                this.complaints = (List<Complaint>) obj;
-                
-                // Reset ID generator to the highest ID found plus one
-                if (!this.complaints.isEmpty()) {
-                    this.idGenerator = complaints.stream()
-                                            .mapToInt(Complaint::getTrackingID)
-                                            .max()
-                                            .orElse(0) + 1;
-                }
-                System.out.println("📂 Backup data loaded from file.");
-                return true;
+        try {
+            List<Complaint> restored = ComplaintSnapshot.isSnapshotFile(file)
+                    ? ComplaintSnapshot.read(file)
+                    : readLegacyBackup(file);
+            if (restored == null) {
+                return false;
             }
+            restored = withValidIds(restored, "the backup file");
+            // Also resets the ID generator to the highest ID found plus one
+            replaceAllComplaints(restored);
+            // The restored list replaces what H2 holds, so bring the table in line once
+            rewriteTable(restored);
+            System.out.println("📂 Backup data loaded from file.");
+            return true;
         } catch (IOException | ClassNotFoundException e) {
             // Handling file read errors or corrupted class definition
             System.err.println("Error reading backup file: " + e.getMessage());
         }
         return false;
     }
-}
\ No newline at end of file
+
+    // Reads a backup written by older versions with Java Serialization.
+    @SuppressWarnings("unchecked")
+    private List<Complaint> readLegacyBackup(Path file) throws IOException, ClassNotFoundException {
+        try (InputStream fis = Files.newInputStream(file);
+             ObjectInputStream ois = new ObjectInputStream(new BufferedInputStream(fis))) {
+            
+            Object obj = ois.readObject();
+            return (obj instanceof List) ? (List<Complaint>) obj : null;
+        }
+    }
+}
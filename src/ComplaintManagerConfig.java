@@ -0,0 +1,179 @@
+package src;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Objects;
+
+// Tunable settings for a ComplaintManager. The defaults match the console application;
+// each setter returns this so settings can be chained.
+public class ComplaintManagerConfig {
+
+    // How much of the COMPLAINTS table is read when the manager starts
+    public enum StartupMode {
+        EAGER,   // Load every complaint into memory (the original behaviour)
+        LAZY,    // Read only the max ID and open counts; load complaints on demand into a bounded cache
+        COMPACT  // Load every complaint, stored column by column; Complaint objects are views made on demand
+    }
+
+    // --- Files ---
+    private Path dataDirectory = Paths.get("."); // Holds the H2 database, the file backup and the journal
+
+    // --- Startup ---
+    private StartupMode startupMode = StartupMode.EAGER;
+    private int cacheMaxEntries = 100_000; // Complaints kept in memory in LAZY mode
+    private long cacheMaxBytes = 0;        // Optional estimated-size limit for the cache (0 = none)
+    private ComplaintCache.EvictionPolicy cachePolicy = ComplaintCache.EvictionPolicy.LRU;
+
+    // --- Analytics ---
+    private int hotspotRetentionHours = 14 * 24; // Hourly history kept by the hotspot cube
+    private boolean searchIndexEnabled = true;   // Keyword index over details (memory grows with the table)
+
+    // --- Duplicate detection at intake ---
+    private boolean duplicateDetectionEnabled = true;
+    private int duplicateWindowHours = 24;        // How far back a new complaint is compared
+    private double duplicateSimilarity = 0.7;     // Estimated word overlap (Jaccard) that counts as a duplicate
+
+    // --- Group-commit writer ---
+    private int writeBatchSize = 256;        // Max mutations committed in one transaction
+    private long writeLingerMillis = 5;      // How long the writer waits to fill a batch
+    private int writeQueueCapacity = 10_000; // Callers block once this many writes are pending
+
+    // --- Write-ahead journal ---
+    private boolean journalEnabled = true;
+    private ComplaintJournal.FsyncPolicy journalFsyncPolicy = ComplaintJournal.FsyncPolicy.EVERY_RECORD;
+    private long journalFsyncIntervalMillis = 50;          // Only used by the INTERVAL policy
+    private long journalCompactionBytes = 16L * 1024 * 1024; // Fold into a snapshot past this size
+
+    public Path getDataDirectory() { return dataDirectory; }
+    public StartupMode getStartupMode() { return startupMode; }
+    public int getCacheMaxEntries() { return cacheMaxEntries; }
+    public long getCacheMaxBytes() { return cacheMaxBytes; }
+    public ComplaintCache.EvictionPolicy getCachePolicy() { return cachePolicy; }
+    public int getHotspotRetentionHours() { return hotspotRetentionHours; }
+    public boolean isSearchIndexEnabled() { return searchIndexEnabled; }
+    public boolean isDuplicateDetectionEnabled() { return duplicateDetectionEnabled; }
+    public int getDuplicateWindowHours() { return duplicateWindowHours; }
+    public double getDuplicateSimilarity() { return duplicateSimilarity; }
+    public int getWriteBatchSize() { return writeBatchSize; }
+    public long getWriteLingerMillis() { return writeLingerMillis; }
+    public int getWriteQueueCapacity() { return writeQueueCapacity; }
+    public boolean isJournalEnabled() { return journalEnabled; }
+    public ComplaintJournal.FsyncPolicy getJournalFsyncPolicy() { return journalFsyncPolicy; }
+    public long getJournalFsyncIntervalMillis() { return journalFsyncIntervalMillis; }
+    public long getJournalCompactionBytes() { return journalCompactionBytes; }
+
+    public ComplaintManagerConfig setDataDirectory(Path dataDirectory) {
+        this.dataDirectory = Objects.requireNonNull(dataDirectory);
+        return this;
+    }
+
+    public ComplaintManagerConfig setStartupMode(StartupMode startupMode) {
+        this.startupMode = Objects.requireNonNull(startupMode);
+        return this;
+    }
+
+    public ComplaintManagerConfig setCacheMaxEntries(int cacheMaxEntries) {
+        if (cacheMaxEntries < 1) {
+            throw new IllegalArgumentException("Cache size must be at least 1.");
+        }
+        this.cacheMaxEntries = cacheMaxEntries;
+        return this;
+    }
+
+    public ComplaintManagerConfig setCacheMaxBytes(long cacheMaxBytes) {
+        if (cacheMaxBytes < 0) {
+            throw new IllegalArgumentException("Cache byte limit cannot be negative.");
+        }
+        this.cacheMaxBytes = cacheMaxBytes;
+        return this;
+    }
+
+    public ComplaintManagerConfig setCachePolicy(ComplaintCache.EvictionPolicy cachePolicy) {
+        this.cachePolicy = Objects.requireNonNull(cachePolicy);
+        return this;
+    }
+
+    public ComplaintManagerConfig setHotspotRetentionHours(int hotspotRetentionHours) {
+        if (hotspotRetentionHours < 2) {
+            throw new IllegalArgumentException("Hotspot retention must be at least 2 hours.");
+        }
+        this.hotspotRetentionHours = hotspotRetentionHours;
+        return this;
+    }
+
+    public ComplaintManagerConfig setSearchIndexEnabled(boolean searchIndexEnabled) {
+        this.searchIndexEnabled = searchIndexEnabled;
+        return this;
+    }
+
+    public ComplaintManagerConfig setDuplicateDetectionEnabled(boolean duplicateDetectionEnabled) {
+        this.duplicateDetectionEnabled = duplicateDetectionEnabled;
+        return this;
+    }
+
+    public ComplaintManagerConfig setDuplicateWindowHours(int duplicateWindowHours) {
+        if (duplicateWindowHours < 1) {
+            throw new IllegalArgumentException("Duplicate window must be at least 1 hour.");
+        }
+        this.duplicateWindowHours = duplicateWindowHours;
+        return this;
+    }
+
+    public ComplaintManagerConfig setDuplicateSimilarity(double duplicateSimilarity) {
+        if (!(duplicateSimilarity > 0 && duplicateSimilarity <= 1)) {
+            throw new IllegalArgumentException("Duplicate similarity must be above 0 and at most 1.");
+        }
+        this.duplicateSimilarity = duplicateSimilarity;
+        return this;
+    }
+
+    public ComplaintManagerConfig setWriteBatchSize(int writeBatchSize) {
+        if (writeBatchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1.");
+        }
+        this.writeBatchSize = writeBatchSize;
+        return this;
+    }
+
+    public ComplaintManagerConfig setWriteLingerMillis(long writeLingerMillis) {
+        if (writeLingerMillis < 0) {
+            throw new IllegalArgumentException("Linger time cannot be negative.");
+        }
+        this.writeLingerMillis = writeLingerMillis;
+        return this;
+    }
+
+    public ComplaintManagerConfig setWriteQueueCapacity(int writeQueueCapacity) {
+        if (writeQueueCapacity < 1) {
+            throw new IllegalArgumentException("Queue capacity must be at least 1.");
+        }
+        this.writeQueueCapacity = writeQueueCapacity;
+        return this;
+    }
+
+    public ComplaintManagerConfig setJournalEnabled(boolean journalEnabled) {
+        this.journalEnabled = journalEnabled;
+        return this;
+    }
+
+    public ComplaintManagerConfig setJournalFsyncPolicy(ComplaintJournal.FsyncPolicy journalFsyncPolicy) {
+        this.journalFsyncPolicy = Objects.requireNonNull(journalFsyncPolicy);
+        return this;
+    }
+
+    public ComplaintManagerConfig setJournalFsyncIntervalMillis(long journalFsyncIntervalMillis) {
+        if (journalFsyncIntervalMillis < 1) {
+            throw new IllegalArgumentException("Fsync interval must be at least 1 ms.");
+        }
+        this.journalFsyncIntervalMillis = journalFsyncIntervalMillis;
+        return this;
+    }
+
+    public ComplaintManagerConfig setJournalCompactionBytes(long journalCompactionBytes) {
+        if (journalCompactionBytes < 1) {
+            throw new IllegalArgumentException("Compaction threshold must be positive.");
+        }
+        this.journalCompactionBytes = journalCompactionBytes;
+        return this;
+    }
+}
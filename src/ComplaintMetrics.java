@@ -0,0 +1,300 @@
+package src;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+
+// Always-on instrumentation of a ComplaintManager: a latency histogram and an error count per
+// hot-path operation, plus counters for complaints, status changes, rows saved/loaded and backup sizes.
+// Recording costs two System.nanoTime() calls and a few uncontended atomic adds, so it is never
+// switched off. Read it through ComplaintManager.getMetrics(), the console's metrics screen or JMX.
+public class ComplaintMetrics implements ComplaintMetricsMXBean {
+
+    // The instrumented ComplaintManager methods, named as in the API
+    public enum Operation {
+        LOG_NEW_COMPLAINT("logNewComplaint"), // Also covers submitComplaint (the HTTP API)
+        MODIFY_STATUS("modifyStatus"),
+        SAVE_DATA_TO_DATABASE("saveDataToDatabase"),
+        LOAD_DATA_FROM_DATABASE("loadDataFromDatabase"),
+        SAVE_BACKUP_TO_FILE("saveBackupToFile"),
+        GET_TREND_ANALYSIS("getTrendAnalysis");
+
+        private final String methodName;
+
+        Operation(String methodName) {
+            this.methodName = methodName;
+        }
+
+        public String getMethodName() {
+            return methodName;
+        }
+    }
+
+    private static final String JMX_NAME = "CIRPAnalyzer:type=ComplaintMetrics";
+    private static final AtomicInteger jmxInstances = new AtomicInteger(1); // Suffix for a second manager in one JVM
+
+    private final ComplaintManager manager; // Source of the journal/writer/pool gauges
+    private final LatencyHistogram[] latencies = new LatencyHistogram[Operation.values().length];
+    private final LongAdder[] errors = new LongAdder[Operation.values().length];
+
+    private final LongAdder complaintsLogged = new LongAdder();
+    private final LongAdder duplicatesLinked = new LongAdder();
+    private final LongAdder statusChanges = new LongAdder();
+    private final LongAdder statusUpdatesForUnknownIds = new LongAdder();
+    private final LongAdder totalSaveRows = new LongAdder();
+    private final LongAdder backupsWritten = new LongAdder();
+    private volatile long lastSaveRows;
+    private volatile long lastLoadRows;
+    private volatile long lastBackupBytes;
+
+    private ObjectName registeredName; // null while not registered with JMX
+
+    ComplaintMetrics(ComplaintManager manager) {
+        this.manager = manager;
+        for (Operation operation : Operation.values()) {
+            latencies[operation.ordinal()] = new LatencyHistogram();
+            errors[operation.ordinal()] = new LongAdder();
+        }
+    }
+
+    // --- Recording (called by ComplaintManager) ---
+
+    // Records the time since a System.nanoTime() reading taken when the operation started.
+    void recordSince(Operation operation, long startNanos) {
+        latencies[operation.ordinal()].recordSince(startNanos);
+    }
+
+    void recordError(Operation operation) {
+        errors[operation.ordinal()].increment();
+    }
+
+    void complaintAdmitted(boolean duplicate) {
+        if (duplicate) {
+            duplicatesLinked.increment();
+        } else {
+            complaintsLogged.increment();
+        }
+    }
+
+    void statusUpdated(boolean found, boolean changed) {
+        if (!found) {
+            statusUpdatesForUnknownIds.increment();
+        } else if (changed) {
+            statusChanges.increment();
+        }
+    }
+
+    void databaseSaved(int rows) {
+        lastSaveRows = rows;
+        totalSaveRows.add(rows);
+    }
+
+    void databaseLoaded(int rows) {
+        lastLoadRows = rows;
+    }
+
+    // Every snapshot written, whether requested or by journal compaction
+    void backupWritten(long bytes) {
+        lastBackupBytes = bytes;
+        backupsWritten.increment();
+    }
+
+    // --- Reading ---
+
+    public LatencyHistogram getLatency(Operation operation) {
+        return latencies[operation.ordinal()];
+    }
+
+    public long getErrors(Operation operation) {
+        return errors[operation.ordinal()].sum();
+    }
+
+    public OperationStats getStats(Operation operation) {
+        LatencyHistogram histogram = getLatency(operation);
+        return new OperationStats(histogram.getCount(), getErrors(operation), histogram.getMeanNanos() / 1e3,
+                histogram.getPercentileNanos(50) / 1e3, histogram.getPercentileNanos(90) / 1e3,
+                histogram.getPercentileNanos(99) / 1e3, histogram.getPercentileNanos(99.9) / 1e3,
+                histogram.getMaxNanos() / 1e3);
+    }
+
+    @Override public OperationStats getLogNewComplaint() { return getStats(Operation.LOG_NEW_COMPLAINT); }
+    @Override public OperationStats getModifyStatus() { return getStats(Operation.MODIFY_STATUS); }
+    @Override public OperationStats getSaveDataToDatabase() { return getStats(Operation.SAVE_DATA_TO_DATABASE); }
+    @Override public OperationStats getLoadDataFromDatabase() { return getStats(Operation.LOAD_DATA_FROM_DATABASE); }
+    @Override public OperationStats getSaveBackupToFile() { return getStats(Operation.SAVE_BACKUP_TO_FILE); }
+    @Override public OperationStats getTrendAnalysis() { return getStats(Operation.GET_TREND_ANALYSIS); }
+
+    @Override public long getComplaintsLogged() { return complaintsLogged.sum(); }
+    @Override public long getDuplicatesLinked() { return duplicatesLinked.sum(); }
+    @Override public long getStatusChanges() { return statusChanges.sum(); }
+    @Override public long getStatusUpdatesForUnknownIds() { return statusUpdatesForUnknownIds.sum(); }
+    @Override public long getLastSaveRows() { return lastSaveRows; }
+    @Override public long getTotalSaveRows() { return totalSaveRows.sum(); }
+    @Override public long getLastLoadRows() { return lastLoadRows; }
+    @Override public long getBackupsWritten() { return backupsWritten.sum(); }
+    @Override public long getLastBackupBytes() { return lastBackupBytes; }
+
+    @Override
+    public long getJournalBytes() {
+        return manager.getJournalBytes();
+    }
+
+    @Override
+    public int getQueuedWrites() {
+        ComplaintWriter writer = manager.getComplaintWriter();
+        return writer == null ? 0 : writer.getQueuedWrites();
+    }
+
+    @Override
+    public long getFailedWrites() {
+        ComplaintWriter writer = manager.getComplaintWriter();
+        return writer == null ? 0 : writer.getFailedWrites();
+    }
+
+    @Override
+    public long getRejectedWrites() {
+        ComplaintWriter writer = manager.getComplaintWriter();
+        return writer == null ? 0 : writer.getRejectedWrites();
+    }
+
+    @Override
+    public double getAverageWriteBatchSize() {
+        ComplaintWriter writer = manager.getComplaintWriter();
+        return writer == null ? 0.0 : writer.getAverageBatchSize();
+    }
+
+    @Override
+    public long getConnectionWaits() {
+        ConnectionPool pool = manager.getConnectionPool();
+        return pool == null ? 0 : pool.getWaitCount();
+    }
+
+    // Multi-line report for the console (also the "dump" JMX operation)
+    @Override
+    public String dump() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%-22s %9s %7s %10s %10s %10s %10s %10s%n",
+                "OPERATION", "COUNT", "ERRORS", "MEAN µs", "P50 µs", "P99 µs", "P99.9 µs", "MAX µs"));
+        for (Operation operation : Operation.values()) {
+            OperationStats stats = getStats(operation);
+            report.append(String.format("%-22s %9d %7d %10.1f %10.1f %10.1f %10.1f %10.1f%n",
+                    operation.getMethodName(), stats.getCount(), stats.getErrors(), stats.getMeanMicros(),
+                    stats.getP50Micros(), stats.getP99Micros(), stats.getP999Micros(), stats.getMaxMicros()));
+        }
+        report.append(String.format("Complaints logged: %d (plus %d linked as duplicates)%n",
+                getComplaintsLogged(), getDuplicatesLinked()));
+        report.append(String.format("Status changes: %d (%d for unknown tracking IDs)%n",
+                getStatusChanges(), getStatusUpdatesForUnknownIds()));
+        report.append(String.format("Database: last resync wrote %d rows (%d in total), last load read %d rows%n",
+                getLastSaveRows(), getTotalSaveRows(), getLastLoadRows()));
+        report.append(String.format("File backups: %d written, last one %d bytes; journal holds %d bytes%n",
+                getBackupsWritten(), getLastBackupBytes(), getJournalBytes()));
+        report.append(String.format("Writer: %d queued, %d failed (%d refused and dead-lettered), %.1f rows per batch%n",
+                getQueuedWrites(), getFailedWrites(), getRejectedWrites(), getAverageWriteBatchSize()));
+        if (manager.getConnectionPool() != null) {
+            report.append(manager.getConnectionPool().getStatsSummary()).append(System.lineSeparator());
+        }
+        if (manager.getComplaintCache() != null) {
+            report.append(manager.getComplaintCache().getStatsSummary()).append(System.lineSeparator());
+        }
+        return report.toString();
+    }
+
+    // Clears the histograms and counters; the "last ..." values and gauges are left as they are.
+    @Override
+    public void reset() {
+        for (Operation operation : Operation.values()) {
+            latencies[operation.ordinal()].reset();
+            errors[operation.ordinal()].reset();
+        }
+        complaintsLogged.reset();
+        duplicatesLinked.reset();
+        statusChanges.reset();
+        statusUpdatesForUnknownIds.reset();
+        totalSaveRows.reset();
+        backupsWritten.reset();
+    }
+
+    // --- JMX registration ---
+
+    // Registers with the platform MBean server. A second manager in the same JVM gets an ",instance=N" suffix.
+    synchronized void register() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName name = new ObjectName(JMX_NAME);
+            while (true) {
+                try {
+                    server.registerMBean(this, name);
+                    registeredName = name;
+                    return;
+                } catch (InstanceAlreadyExistsException e) {
+                    name = new ObjectName(JMX_NAME + ",instance=" + jmxInstances.incrementAndGet());
+                }
+            }
+        } catch (JMException e) {
+            System.err.println("Metrics not published to JMX: " + e.getMessage());
+        }
+    }
+
+    synchronized void unregister() {
+        if (registeredName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(registeredName);
+        } catch (JMException e) {
+            System.err.println("Error removing metrics from JMX: " + e.getMessage());
+        }
+        registeredName = null;
+    }
+
+    // The JMX name this instance was registered under, or null
+    public synchronized ObjectName getRegisteredName() {
+        return registeredName;
+    }
+
+    // Point-in-time latency summary of one operation, in microseconds (a composite attribute in JMX)
+    public static class OperationStats {
+        private final long count;
+        private final long errors;
+        private final double meanMicros;
+        private final double p50Micros;
+        private final double p90Micros;
+        private final double p99Micros;
+        private final double p999Micros;
+        private final double maxMicros;
+
+        public OperationStats(long count, long errors, double meanMicros, double p50Micros, double p90Micros,
+                              double p99Micros, double p999Micros, double maxMicros) {
+            this.count = count;
+            this.errors = errors;
+            this.meanMicros = meanMicros;
+            this.p50Micros = p50Micros;
+            this.p90Micros = p90Micros;
+            this.p99Micros = p99Micros;
+            this.p999Micros = p999Micros;
+            this.maxMicros = maxMicros;
+        }
+
+        // Rebuilds the stats from their JMX form (used by JMX.newMXBeanProxy clients)
+        public static OperationStats from(CompositeData data) {
+            return new OperationStats((Long) data.get("count"), (Long) data.get("errors"),
+                    (Double) data.get("meanMicros"), (Double) data.get("p50Micros"), (Double) data.get("p90Micros"),
+                    (Double) data.get("p99Micros"), (Double) data.get("p999Micros"), (Double) data.get("maxMicros"));
+        }
+
+        public long getCount() { return count; }
+        public long getErrors() { return errors; }
+        public double getMeanMicros() { return meanMicros; }
+        public double getP50Micros() { return p50Micros; }
+        public double getP90Micros() { return p90Micros; }
+        public double getP99Micros() { return p99Micros; }
+        public double getP999Micros() { return p999Micros; }
+        public double getMaxMicros() { return maxMicros; }
+    }
+}
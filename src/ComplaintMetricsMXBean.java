@@ -0,0 +1,38 @@
+package src;
+
+// JMX view of a ComplaintManager's ComplaintMetrics (see ComplaintMetrics.register).
+// Shows up in JConsole / VisualVM under "CIRPAnalyzer" > "ComplaintMetrics"; each latency
+// attribute is a composite of count, errors, mean, p50, p90, p99, p99.9 and max in microseconds.
+public interface ComplaintMetricsMXBean {
+
+    // --- Latency per operation ---
+    ComplaintMetrics.OperationStats getLogNewComplaint();
+    ComplaintMetrics.OperationStats getModifyStatus();
+    ComplaintMetrics.OperationStats getSaveDataToDatabase();
+    ComplaintMetrics.OperationStats getLoadDataFromDatabase();
+    ComplaintMetrics.OperationStats getSaveBackupToFile();
+    ComplaintMetrics.OperationStats getTrendAnalysis();
+
+    // --- Counters ---
+    long getComplaintsLogged();
+    long getDuplicatesLinked();
+    long getStatusChanges();
+    long getStatusUpdatesForUnknownIds();
+    long getLastSaveRows();
+    long getTotalSaveRows();
+    long getLastLoadRows();
+    long getBackupsWritten();
+    long getLastBackupBytes();
+
+    // --- Gauges read from the manager's components ---
+    long getJournalBytes();
+    int getQueuedWrites();
+    long getFailedWrites();
+    long getRejectedWrites();
+    double getAverageWriteBatchSize();
+    long getConnectionWaits();
+
+    // --- Operations ---
+    String dump();
+    void reset();
+}
@@ -0,0 +1,96 @@
+package src;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Objects;
+
+// Filter for ComplaintManager.findComplaints. Unset fields match everything; each setter
+// returns this so filters can be chained, e.g.
+//   new ComplaintQuery().setZone(7).setCategories(IssueCategory.WATER_OUTAGE)
+//       .setStatuses(ComplaintStatus.SUBMITTED, ComplaintStatus.IN_REVIEW)
+//       .setSubmittedBetween(weekStart, now)
+public class ComplaintQuery {
+
+    private Integer zone;                        // null = any zone
+    private EnumSet<IssueCategory> categories;   // null = any category
+    private EnumSet<ComplaintStatus> statuses;   // null = any status
+    private LocalDateTime submittedFrom;         // Inclusive, null = no lower bound
+    private LocalDateTime submittedTo;           // Exclusive, null = no upper bound
+    private int limit = Integer.MAX_VALUE;
+
+    public Integer getZone() { return zone; }
+    public EnumSet<IssueCategory> getCategories() { return categories; }
+    public EnumSet<ComplaintStatus> getStatuses() { return statuses; }
+    public LocalDateTime getSubmittedFrom() { return submittedFrom; }
+    public LocalDateTime getSubmittedTo() { return submittedTo; }
+    public int getLimit() { return limit; }
+
+    public boolean hasDateRange() {
+        return submittedFrom != null || submittedTo != null;
+    }
+
+    public ComplaintQuery setZone(int zone) {
+        this.zone = zone;
+        return this;
+    }
+
+    // Matches complaints in any of the given categories.
+    public ComplaintQuery setCategories(IssueCategory... categories) {
+        if (categories.length == 0) {
+            throw new IllegalArgumentException("At least one category is required.");
+        }
+        this.categories = EnumSet.copyOf(Arrays.asList(categories));
+        return this;
+    }
+
+    // Matches complaints with any of the given statuses.
+    public ComplaintQuery setStatuses(ComplaintStatus... statuses) {
+        if (statuses.length == 0) {
+            throw new IllegalArgumentException("At least one status is required.");
+        }
+        this.statuses = EnumSet.copyOf(Arrays.asList(statuses));
+        return this;
+    }
+
+    // Open means SUBMITTED or IN_REVIEW, as in the trend report.
+    public ComplaintQuery setOpenOnly() {
+        return setStatuses(ComplaintStatus.SUBMITTED, ComplaintStatus.IN_REVIEW);
+    }
+
+    // Submission date in [from, to). Either bound may be null.
+    public ComplaintQuery setSubmittedBetween(LocalDateTime from, LocalDateTime to) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("Date range start must be before its end.");
+        }
+        this.submittedFrom = from;
+        this.submittedTo = to;
+        return this;
+    }
+
+    public ComplaintQuery setLimit(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1.");
+        }
+        this.limit = limit;
+        return this;
+    }
+
+    // True if the complaint passes every filter (used to check candidates and cached rows).
+    public boolean matches(Complaint comp) {
+        Objects.requireNonNull(comp);
+        if (zone != null && comp.getZoneNumber() != zone) {
+            return false;
+        }
+        if (categories != null && !categories.contains(comp.getCategory())) {
+            return false;
+        }
+        if (statuses != null && !statuses.contains(comp.getStatus())) {
+            return false;
+        }
+        if (submittedFrom != null && comp.getSubmissionDate().isBefore(submittedFrom)) {
+            return false;
+        }
+        return submittedTo == null || comp.getSubmissionDate().isBefore(submittedTo);
+    }
+}
@@ -0,0 +1,414 @@
+package src;
+
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// In-memory secondary indexes over the loaded complaints, keyed by tracking ID:
+//   - one bitmap per IssueCategory and per ComplaintStatus (bit N = tracking ID N)
+//   - one sorted int array of tracking IDs per zone
+//   - a time-ordered index of (submission time, tracking ID)
+//   - per-ID zone and submission time columns, so a candidate can be checked in O(1)
+// A query walks the smallest candidate list (zone postings, the date range, or the category and
+// status bitmaps combined a word at a time) and checks the other filters against the bitmaps and
+// columns, so it neither scans every complaint nor copies a bitmap.
+// Tracking IDs come from a counter, so the ID space is dense and the arrays stay compact.
+public class ComplaintQueryIndex {
+
+    private final Bitmap[] byCategory = new Bitmap[IssueCategory.values().length];
+    private final Bitmap[] byStatus = new Bitmap[ComplaintStatus.values().length];
+    private final Bitmap present = new Bitmap();
+    private final Map<Integer, SortedIntList> byZone = new HashMap<>();
+
+    // Time index, sorted by (epoch second, tracking ID)
+    private long[] times = new long[1024];
+    private int[] timeIds = new int[1024];
+    private int timeCount;
+
+    // Columns by tracking ID
+    private int[] zoneById = new int[1024];
+    private long[] epochById = new long[1024];
+
+    public ComplaintQueryIndex() {
+        for (int i = 0; i < byCategory.length; i++) {
+            byCategory[i] = new Bitmap();
+        }
+        for (int i = 0; i < byStatus.length; i++) {
+            byStatus[i] = new Bitmap();
+        }
+    }
+
+    // Indexes a newly added complaint.
+    public synchronized void add(Complaint comp) {
+        int id = comp.getTrackingID();
+        if (present.get(id)) {
+            return;
+        }
+        long epoch = comp.getSubmissionDate().toEpochSecond(ZoneOffset.UTC);
+        ensureIdCapacity(id);
+        zoneById[id] = comp.getZoneNumber();
+        epochById[id] = epoch;
+        present.set(id);
+        byCategory[comp.getCategory().ordinal()].set(id);
+        byStatus[comp.getStatus().ordinal()].set(id);
+        byZone.computeIfAbsent(comp.getZoneNumber(), z -> new SortedIntList()).add(id);
+        insertTime(epoch, id);
+    }
+
+    // Moves the complaint to the bitmap of its current status. Reading the status here (rather
+    // than passing old/new) means racing updates always leave the index at the final status.
+    public synchronized void updateStatus(Complaint comp) {
+        int id = comp.getTrackingID();
+        if (!present.get(id)) {
+            return;
+        }
+        for (Bitmap bitmap : byStatus) {
+            bitmap.clear(id);
+        }
+        byStatus[comp.getStatus().ordinal()].set(id);
+    }
+
+    // Rebuilds every index from scratch for a freshly loaded list.
+    public synchronized void rebuild(Iterable<Complaint> complaints) {
+        for (Bitmap bitmap : byCategory) {
+            bitmap.clearAll();
+        }
+        for (Bitmap bitmap : byStatus) {
+            bitmap.clearAll();
+        }
+        present.clearAll();
+        byZone.clear();
+        timeCount = 0;
+        // Adding in time order keeps every time-index insert an append
+        List<Complaint> inTimeOrder = new ArrayList<>();
+        complaints.forEach(inTimeOrder::add);
+        inTimeOrder.sort(Comparator.comparing(Complaint::getSubmissionDate).thenComparingInt(Complaint::getTrackingID));
+        for (Complaint comp : inTimeOrder) {
+            add(comp);
+        }
+    }
+
+    // Returns the matching tracking IDs in ascending order, at most query.getLimit() of them.
+    public synchronized int[] query(ComplaintQuery query) {
+        int[] categories = query.getCategories() == null ? null
+                : query.getCategories().stream().mapToInt(Enum::ordinal).toArray();
+        int[] statuses = query.getStatuses() == null ? null
+                : query.getStatuses().stream().mapToInt(Enum::ordinal).toArray();
+
+        SortedIntList zoneIds = null;
+        if (query.getZone() != null) {
+            zoneIds = byZone.get(query.getZone());
+            if (zoneIds == null) {
+                return new int[0];
+            }
+        }
+
+        int timeFrom = 0;
+        int timeTo = timeCount;
+        long fromEpoch = Long.MIN_VALUE;
+        long toEpoch = Long.MAX_VALUE;
+        if (query.getSubmittedFrom() != null) {
+            fromEpoch = query.getSubmittedFrom().toEpochSecond(ZoneOffset.UTC);
+            timeFrom = lowerBound(fromEpoch);
+        }
+        if (query.getSubmittedTo() != null) {
+            toEpoch = query.getSubmittedTo().toEpochSecond(ZoneOffset.UTC);
+            timeTo = lowerBound(toEpoch);
+        }
+
+        Filter filter = new Filter(categories, statuses, query.getZone(), query.hasDateRange(), fromEpoch, toEpoch);
+        int limit = query.getLimit();
+        IntCollector matches = new IntCollector();
+
+        // Walk the smallest candidate list and check the other filters per ID
+        long zoneCandidates = zoneIds == null ? Long.MAX_VALUE : zoneIds.size();
+        long dateCandidates = query.hasDateRange() ? Math.max(0, timeTo - timeFrom) : Long.MAX_VALUE;
+        long bitmapCandidates = Math.min(cardinality(byCategory, categories), cardinality(byStatus, statuses));
+
+        if (dateCandidates < zoneCandidates && dateCandidates < bitmapCandidates) {
+            // The date range is in time order, so sort afterwards
+            for (int i = timeFrom; i < timeTo; i++) {
+                if (filter.accepts(timeIds[i])) {
+                    matches.add(timeIds[i]);
+                }
+            }
+            int[] ids = matches.toArray();
+            Arrays.sort(ids);
+            return ids.length > limit ? Arrays.copyOf(ids, limit) : ids;
+        }
+
+        if (zoneIds != null && zoneCandidates <= bitmapCandidates) {
+            // The zone's postings are already in ID order
+            for (int i = 0; i < zoneIds.size() && matches.size() < limit; i++) {
+                if (filter.accepts(zoneIds.get(i))) {
+                    matches.add(zoneIds.get(i));
+                }
+            }
+            return matches.toArray();
+        }
+
+        if (categories == null && statuses == null) {
+            // No filters at all: every complaint
+            for (int id = present.nextSetBit(0); id >= 0 && matches.size() < limit; id = present.nextSetBit(id + 1)) {
+                matches.add(id);
+            }
+            return matches.toArray();
+        }
+
+        // (any selected category) AND (any selected status), combined a word at a time
+        int words = Math.min(wordCount(byCategory, categories), wordCount(byStatus, statuses));
+        for (int word = 0; word < words && matches.size() < limit; word++) {
+            long bits = unionWord(byCategory, categories, word) & unionWord(byStatus, statuses, word);
+            while (bits != 0 && matches.size() < limit) {
+                int id = (word << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                if (filter.accepts(id)) {
+                    matches.add(id);
+                }
+            }
+        }
+        return matches.toArray();
+    }
+
+    public synchronized int size() {
+        return timeCount;
+    }
+
+    // --- Internal helpers ---
+
+    // Set bits in the selected bitmaps (an upper bound on their union), or MAX_VALUE if none are selected.
+    private static long cardinality(Bitmap[] bitmaps, int[] ordinals) {
+        if (ordinals == null) {
+            return Long.MAX_VALUE;
+        }
+        long count = 0;
+        for (int ordinal : ordinals) {
+            count += bitmaps[ordinal].cardinality();
+        }
+        return count;
+    }
+
+    private static int wordCount(Bitmap[] bitmaps, int[] ordinals) {
+        if (ordinals == null) {
+            return Integer.MAX_VALUE;
+        }
+        int words = 0;
+        for (int ordinal : ordinals) {
+            words = Math.max(words, bitmaps[ordinal].wordCount());
+        }
+        return words;
+    }
+
+    // One word of the union of the selected bitmaps; all ones if none are selected.
+    private static long unionWord(Bitmap[] bitmaps, int[] ordinals, int word) {
+        if (ordinals == null) {
+            return -1L;
+        }
+        long bits = 0;
+        for (int ordinal : ordinals) {
+            bits |= bitmaps[ordinal].word(word);
+        }
+        return bits;
+    }
+
+    // First position in the time index whose time is >= epoch.
+    private int lowerBound(long epoch) {
+        int low = 0;
+        int high = timeCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (times[mid] < epoch) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Complaints usually arrive in time order, so this is normally an append.
+    private void insertTime(long epoch, int id) {
+        if (timeCount == times.length) {
+            times = Arrays.copyOf(times, timeCount * 2);
+            timeIds = Arrays.copyOf(timeIds, timeCount * 2);
+        }
+        int position = timeCount;
+        if (timeCount > 0 && (times[timeCount - 1] > epoch
+                || (times[timeCount - 1] == epoch && timeIds[timeCount - 1] > id))) {
+            // Out of order (e.g. an old backup merged in): find the slot by binary search
+            position = lowerBound(epoch);
+            while (position < timeCount && times[position] == epoch && timeIds[position] < id) {
+                position++;
+            }
+        }
+        System.arraycopy(times, position, times, position + 1, timeCount - position);
+        System.arraycopy(timeIds, position, timeIds, position + 1, timeCount - position);
+        times[position] = epoch;
+        timeIds[position] = id;
+        timeCount++;
+    }
+
+    private void ensureIdCapacity(int id) {
+        if (id >= zoneById.length) {
+            int capacity = Math.max(zoneById.length * 2, id + 1);
+            zoneById = Arrays.copyOf(zoneById, capacity);
+            epochById = Arrays.copyOf(epochById, capacity);
+        }
+    }
+
+    // The filters of one query, checked against a candidate ID in O(1)
+    private final class Filter {
+        private final int[] categories;
+        private final int[] statuses;
+        private final Integer zone;
+        private final boolean checkDate;
+        private final long fromEpoch;
+        private final long toEpoch;
+
+        Filter(int[] categories, int[] statuses, Integer zone, boolean checkDate, long fromEpoch, long toEpoch) {
+            this.categories = categories;
+            this.statuses = statuses;
+            this.zone = zone;
+            this.checkDate = checkDate;
+            this.fromEpoch = fromEpoch;
+            this.toEpoch = toEpoch;
+        }
+
+        boolean accepts(int id) {
+            return (zone == null || zoneById[id] == zone)
+                    && (!checkDate || (epochById[id] >= fromEpoch && epochById[id] < toEpoch))
+                    && inAny(byCategory, categories, id)
+                    && inAny(byStatus, statuses, id);
+        }
+
+        private boolean inAny(Bitmap[] bitmaps, int[] ordinals, int id) {
+            if (ordinals == null) {
+                return true;
+            }
+            for (int ordinal : ordinals) {
+                if (bitmaps[ordinal].get(id)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    // Growable bitmap over tracking IDs that keeps its count of set bits.
+    private static class Bitmap {
+        private long[] words = new long[16];
+        private int cardinality;
+
+        boolean get(int bit) {
+            int word = bit >>> 6;
+            return word < words.length && (words[word] & (1L << bit)) != 0;
+        }
+
+        void set(int bit) {
+            int word = bit >>> 6;
+            if (word >= words.length) {
+                words = Arrays.copyOf(words, Math.max(words.length * 2, word + 1));
+            }
+            if ((words[word] & (1L << bit)) == 0) {
+                words[word] |= 1L << bit;
+                cardinality++;
+            }
+        }
+
+        void clear(int bit) {
+            int word = bit >>> 6;
+            if (word < words.length && (words[word] & (1L << bit)) != 0) {
+                words[word] &= ~(1L << bit);
+                cardinality--;
+            }
+        }
+
+        void clearAll() {
+            Arrays.fill(words, 0L);
+            cardinality = 0;
+        }
+
+        int cardinality() {
+            return cardinality;
+        }
+
+        int wordCount() {
+            return words.length;
+        }
+
+        long word(int index) {
+            return index < words.length ? words[index] : 0L;
+        }
+
+        // Index of the first set bit at or after from, or -1.
+        int nextSetBit(int from) {
+            int word = from >>> 6;
+            if (word >= words.length) {
+                return -1;
+            }
+            long bits = words[word] & (-1L << from);
+            while (true) {
+                if (bits != 0) {
+                    return (word << 6) + Long.numberOfTrailingZeros(bits);
+                }
+                if (++word == words.length) {
+                    return -1;
+                }
+                bits = words[word];
+            }
+        }
+    }
+
+    // Tracking IDs of one zone, kept sorted.
+    private static class SortedIntList {
+        private int[] values = new int[8];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            int position = size;
+            if (size > 0 && values[size - 1] > value) {
+                position = Arrays.binarySearch(values, 0, size, value);
+                position = position < 0 ? -position - 1 : position;
+                System.arraycopy(values, position, values, position + 1, size - position);
+            }
+            values[position] = value;
+            size++;
+        }
+
+        int get(int index) {
+            return values[index];
+        }
+
+        int size() {
+            return size;
+        }
+    }
+
+    // Growable int array for query results.
+    private static class IntCollector {
+        private int[] values = new int[16];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
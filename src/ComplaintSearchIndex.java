@@ -0,0 +1,619 @@
+package src;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-process inverted index over complaint details for ranked keyword search.
+//
+// Details are lower-cased and split on anything that is not a letter or digit; single characters
+// and a few stop words are dropped. Each term keeps a postings list of (tracking ID, term count)
+// pairs, varint-encoded as ID gaps in a byte[]; IDs that arrive out of order (concurrent
+// intake) wait in a small unsorted tail until it is folded in. Results are ranked with BM25.
+//
+// Query syntax: words are OR-ed and ranked, "word*" matches every term with that prefix,
+// and "+word" (or "+word*") must appear in every result.
+public class ComplaintSearchIndex {
+
+    private static final float K1 = 1.2f; // BM25 term-frequency saturation
+    private static final float B = 0.75f; // BM25 length normalisation
+    private static final int MAX_PREFIX_TERMS = 64;  // Expansions kept per prefix (most common first)
+    private static final int MAX_REQUIRED_CLAUSES = 32;
+    private static final int MIN_TAIL_FOLD = 64;     // Smallest out-of-order tail merged into a postings list
+    private static final int BULK_BATCH = 1024;      // Rows indexed per write-lock hold when bulk loading
+
+    private static final Set<String> STOP_WORDS = Set.of(
+        "a", "an", "and", "are", "at", "be", "by", "for", "from", "in", "is", "it",
+        "of", "on", "or", "the", "this", "that", "to", "was", "with");
+
+    // One search result
+    public static class Hit {
+        public final int trackingID;
+        public final float score;
+
+        Hit(int trackingID, float score) {
+            this.trackingID = trackingID;
+            this.score = score;
+        }
+    }
+
+    private final Map<String, Postings> postingsByTerm = new HashMap<>();
+    private final TreeSet<String> sortedTerms = new TreeSet<>(); // For prefix lookups
+    private final BitSet indexed = new BitSet();                 // Tracking IDs already indexed
+    private short[] docLengths = new short[1024];                // Terms per complaint, by tracking ID
+    private int docCount;
+    private long totalDocLength;
+    private long generation; // Bumped by clear/rebuild so an older bulk load stops adding
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // --- Indexing ---
+
+    // Indexes one complaint. Indexing the same tracking ID again is a no-op.
+    public void add(Complaint comp) {
+        lock.writeLock().lock();
+        try {
+            addLocked(comp);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Clears the index and indexes every given complaint.
+    public void rebuild(Iterable<Complaint> complaints) {
+        lock.writeLock().lock();
+        try {
+            clearLocked();
+            for (Complaint comp : complaints) {
+                addLocked(comp);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Adds complaints from a long-running source (e.g. streamed from H2) in batches, so searches and
+    // new complaints are not blocked for the whole load. Stops early if the index is cleared or rebuilt
+    // meanwhile. Returns the number of complaints read.
+    public int addAll(Iterator<Complaint> complaints) {
+        long startGeneration;
+        lock.readLock().lock();
+        try {
+            startGeneration = generation;
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        int read = 0;
+        List<Complaint> batch = new ArrayList<>(BULK_BATCH);
+        while (complaints.hasNext()) {
+            batch.add(complaints.next());
+            read++;
+            if (batch.size() == BULK_BATCH || !complaints.hasNext()) {
+                lock.writeLock().lock();
+                try {
+                    if (generation != startGeneration) {
+                        return read;
+                    }
+                    for (Complaint comp : batch) {
+                        addLocked(comp);
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                batch.clear();
+            }
+        }
+        return read;
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            clearLocked();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void clearLocked() {
+        postingsByTerm.clear();
+        sortedTerms.clear();
+        indexed.clear();
+        docLengths = new short[1024];
+        docCount = 0;
+        totalDocLength = 0;
+        generation++;
+    }
+
+    private void addLocked(Complaint comp) {
+        int id = comp.getTrackingID();
+        if (id <= 0 || indexed.get(id)) {
+            return;
+        }
+        indexed.set(id);
+
+        Map<String, Integer> termCounts = new HashMap<>();
+        int length = 0;
+        for (String term : tokenize(comp.getDetails())) {
+            termCounts.merge(term, 1, Integer::sum);
+            length++;
+        }
+        if (id >= docLengths.length) {
+            docLengths = Arrays.copyOf(docLengths, Math.max(docLengths.length * 2, id + 1));
+        }
+        docLengths[id] = (short) Math.min(length, Short.MAX_VALUE);
+        docCount++;
+        totalDocLength += length;
+
+        for (Map.Entry<String, Integer> entry : termCounts.entrySet()) {
+            Postings postings = postingsByTerm.get(entry.getKey());
+            if (postings == null) {
+                postings = new Postings();
+                postingsByTerm.put(entry.getKey(), postings);
+                sortedTerms.add(entry.getKey());
+            }
+            postings.add(id, entry.getValue());
+        }
+    }
+
+    // --- Searching ---
+
+    // Returns up to limit complaints ranked by relevance (best first).
+    public List<Hit> search(String query, int limit) {
+        List<Clause> clauses = parse(query);
+        if (clauses.isEmpty() || limit < 1) {
+            return new ArrayList<>();
+        }
+
+        lock.readLock().lock();
+        try {
+            if (docCount == 0) {
+                return new ArrayList<>();
+            }
+            int requiredMask = 0;
+            int requiredBit = 0;
+            List<Postings> lists = new ArrayList<>();
+            List<Integer> listBits = new ArrayList<>(); // Required-clause bit of each postings list (0 = optional)
+            long candidates = 0;
+
+            for (Clause clause : clauses) {
+                int clauseBit = 0;
+                if (clause.required) {
+                    if (requiredBit == MAX_REQUIRED_CLAUSES) {
+                        throw new IllegalArgumentException("Too many required terms in one query.");
+                    }
+                    clauseBit = 1 << requiredBit++;
+                    requiredMask |= clauseBit;
+                }
+                for (Postings postings : expand(clause)) {
+                    lists.add(postings);
+                    listBits.add(clauseBit);
+                    candidates += postings.docCount;
+                }
+            }
+
+            ScoreTable scores = new ScoreTable(candidates, indexed.length(), requiredMask != 0);
+            LengthNorms norms = new LengthNorms((float) totalDocLength / docCount);
+            for (int i = 0; i < lists.size(); i++) {
+                Postings postings = lists.get(i);
+                float idf = (float) Math.log(1 + (docCount - postings.docCount + 0.5) / (postings.docCount + 0.5));
+                postings.scoreInto(scores, idf, norms, docLengths, listBits.get(i));
+            }
+            return scores.top(limit, requiredMask);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return postingsByTerm.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Postings bytes held by the index (excluding the term dictionary).
+    public long postingsBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = 0;
+            for (Postings postings : postingsByTerm.values()) {
+                bytes += postings.size + postings.tailSize * 8L;
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Postings lists of a clause: the exact term, or the most common terms with the prefix.
+    private List<Postings> expand(Clause clause) {
+        List<Postings> matches = new ArrayList<>();
+        if (!clause.prefix) {
+            Postings postings = postingsByTerm.get(clause.term);
+            if (postings != null) {
+                matches.add(postings);
+            }
+            return matches;
+        }
+        for (String term : sortedTerms.subSet(clause.term, true, clause.term + Character.MAX_VALUE, false)) {
+            matches.add(postingsByTerm.get(term));
+        }
+        if (matches.size() > MAX_PREFIX_TERMS) {
+            matches.sort((a, b) -> Integer.compare(b.docCount, a.docCount));
+            return matches.subList(0, MAX_PREFIX_TERMS);
+        }
+        return matches;
+    }
+
+    // --- Query parsing and tokenizing ---
+
+    private static class Clause {
+        final String term;
+        final boolean prefix;
+        final boolean required;
+
+        Clause(String term, boolean prefix, boolean required) {
+            this.term = term;
+            this.prefix = prefix;
+            this.required = required;
+        }
+    }
+
+    private static List<Clause> parse(String query) {
+        List<Clause> clauses = new ArrayList<>();
+        if (query == null) {
+            return clauses;
+        }
+        for (String word : query.trim().split("\\s+")) {
+            boolean required = word.startsWith("+");
+            boolean prefix = word.endsWith("*");
+            List<String> terms = tokenize(word);
+            for (int i = 0; i < terms.size(); i++) {
+                // "pipe-burst*" -> pipe, burst*: only the last piece keeps the wildcard
+                boolean isPrefix = prefix && i == terms.size() - 1;
+                clauses.add(new Clause(terms.get(i), isPrefix, required));
+            }
+        }
+        return clauses;
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String term = lower.substring(start, i);
+                if (term.length() > 1 && !STOP_WORDS.contains(term)) {
+                    terms.add(term);
+                }
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    // --- Postings list ---
+
+    // (tracking ID gap, term count) varint pairs in ascending ID order, plus an unsorted tail for
+    // IDs that arrived after a higher one (concurrent intake, or older rows indexed in the background
+    // after new ones). The tail is merged in once it reaches a quarter of the list, so even a fully
+    // out-of-order load stays O(n log n) overall.
+    private static class Postings {
+        byte[] data = new byte[8];
+        int size;      // Bytes used in data
+        int lastId;    // Highest ID encoded in data
+        int docCount;  // Complaints containing the term (data + tail)
+        int[] tailIds;
+        int[] tailCounts;
+        int tailSize;
+
+        void add(int id, int termCount) {
+            docCount++;
+            if (id > lastId) {
+                append(id, termCount);
+                return;
+            }
+            if (tailIds == null) {
+                tailIds = new int[MIN_TAIL_FOLD];
+                tailCounts = new int[MIN_TAIL_FOLD];
+            } else if (tailSize == tailIds.length) {
+                tailIds = Arrays.copyOf(tailIds, tailSize * 2);
+                tailCounts = Arrays.copyOf(tailCounts, tailSize * 2);
+            }
+            tailIds[tailSize] = id;
+            tailCounts[tailSize] = termCount;
+            if (++tailSize >= Math.max(MIN_TAIL_FOLD, docCount / 4)) {
+                foldTail();
+            }
+        }
+
+        // Adds this term's BM25 contribution for every complaint in the list to the table.
+        void scoreInto(ScoreTable table, float idf, LengthNorms norms, short[] docLengths, int requiredBit) {
+            float weight = idf * (K1 + 1);
+            float[] impacts = norms.impacts(weight);
+            int id = 0;
+            int position = 0;
+            while (position < size) {
+                int gap = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = data[position++];
+                    gap |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+                id += gap;
+                int termCount = data[position++];
+                if (termCount < 0) { // Term counts above 127 take a second byte
+                    termCount = (termCount & 0x7F) | data[position++] << 7;
+                }
+                int length = docLengths[id];
+                table.add(id, length < LengthNorms.LENGTHS && termCount < LengthNorms.TERM_COUNTS
+                        ? impacts[length * LengthNorms.TERM_COUNTS + termCount]
+                        : weight * termCount / (termCount + norms.of(length)), requiredBit);
+            }
+            for (int i = 0; i < tailSize; i++) {
+                int termCount = tailCounts[i];
+                table.add(tailIds[i], weight * termCount / (termCount + norms.of(docLengths[tailIds[i]])), requiredBit);
+            }
+        }
+
+        private void append(int id, int termCount) {
+            if (size + 7 > data.length) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, size + 7));
+            }
+            size = writeVarint(data, size, id - lastId);
+            size = writeVarint(data, size, Math.min(termCount, 0x3FFF)); // At most 2 bytes
+            lastId = id;
+        }
+
+        // Merges the sorted tail into the encoded list.
+        private void foldTail() {
+            long[] pending = new long[tailSize]; // id << 32 | termCount
+            for (int i = 0; i < tailSize; i++) {
+                pending[i] = (long) tailIds[i] << 32 | tailCounts[i];
+            }
+            Arrays.sort(pending);
+
+            byte[] oldData = data;
+            int oldSize = size;
+            data = new byte[Math.max(8, oldSize + tailSize * 7)];
+            size = 0;
+            lastId = 0;
+            tailIds = null;
+            tailCounts = null;
+            tailSize = 0;
+
+            int position = 0;
+            int oldId = 0;
+            int next = 0;
+            while (position < oldSize) {
+                int gap = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = oldData[position++];
+                    gap |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+                oldId += gap;
+                int termCount = oldData[position++];
+                if (termCount < 0) {
+                    termCount = (termCount & 0x7F) | oldData[position++] << 7;
+                }
+                while (next < pending.length && (int) (pending[next] >>> 32) < oldId) {
+                    append((int) (pending[next] >>> 32), (int) pending[next]);
+                    next++;
+                }
+                append(oldId, termCount);
+            }
+            for (; next < pending.length; next++) {
+                append((int) (pending[next] >>> 32), (int) pending[next]);
+            }
+        }
+
+        private static int writeVarint(byte[] target, int position, int value) {
+            while ((value & ~0x7F) != 0) {
+                target[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            target[position++] = (byte) value;
+            return position;
+        }
+    }
+
+    // BM25 length normalisation k1 * (1 - b + b * length / averageLength), tabulated for one query,
+    // plus per-term tables of whole posting scores for the common short lengths and small counts,
+    // so scoring a posting is usually one lookup instead of a division.
+    private static class LengthNorms {
+        static final int LENGTHS = 256;
+        static final int TERM_COUNTS = 4;
+
+        private final float averageLength;
+        private final float[] table = new float[LENGTHS];
+
+        LengthNorms(float averageLength) {
+            this.averageLength = averageLength;
+            for (int length = 0; length < table.length; length++) {
+                table[length] = compute(length);
+            }
+        }
+
+        float of(int length) {
+            return length < table.length ? table[length] : compute(length);
+        }
+
+        // weight * termCount / (termCount + norm) by [length * TERM_COUNTS + termCount]
+        float[] impacts(float weight) {
+            float[] impacts = new float[LENGTHS * TERM_COUNTS];
+            for (int length = 0; length < LENGTHS; length++) {
+                for (int termCount = 1; termCount < TERM_COUNTS; termCount++) {
+                    impacts[length * TERM_COUNTS + termCount] = weight * termCount / (termCount + table[length]);
+                }
+            }
+            return impacts;
+        }
+
+        private float compute(int length) {
+            return K1 * (1 - B + B * length / averageLength);
+        }
+    }
+
+    // --- Score accumulation ---
+
+    // Tracking ID -> (score, matched required clauses) table for one query. Open addressing for
+    // selective queries; once the postings cover more than 1/16 of the IDs, a dense array indexed
+    // directly by tracking ID is cheaper (BM25 scores are always positive, so 0 means "no match").
+    private static class ScoreTable {
+        private final boolean dense;
+        private int[] ids;     // Hash mode only
+        private float[] scores;
+        private int[] masks;   // null when the query has no required clauses
+        private int size;      // Distinct IDs added so far (an upper bound on the matches)
+
+        // candidates: total postings to be added (an upper bound on distinct IDs); idLimit: highest ID + 1.
+        // The hash table gets at least twice as many slots as candidates, so it never needs to grow.
+        ScoreTable(long candidates, int idLimit, boolean trackRequired) {
+            dense = candidates * 16 > idLimit;
+            int capacity = dense ? idLimit : Integer.highestOneBit((int) Math.max(512, candidates) * 2 - 1) * 2;
+            ids = dense ? null : new int[capacity];
+            scores = new float[capacity];
+            masks = trackRequired ? new int[capacity] : null;
+        }
+
+        void add(int id, float score, int requiredBit) {
+            int slot = id;
+            if (!dense) {
+                slot = findSlot(ids, id);
+                if (ids[slot] == 0) {
+                    ids[slot] = id;
+                    size++;
+                }
+            } else if (scores[slot] == 0) {
+                size++;
+            }
+            scores[slot] += score;
+            if (masks != null) {
+                masks[slot] |= requiredBit;
+            }
+        }
+
+        // The best results among entries that matched every required clause.
+        List<Hit> top(int limit, int requiredMask) {
+            // Min-heap of slots on score, holding the best `limit` seen so far
+            int[] heap = new int[Math.min(limit, size)];
+            int heapSize = 0;
+            // Lowest score that can still enter the heap: one comparison skips both empty slots and
+            // losers, which keeps the scan branch-predictable once the heap is full
+            float floor = Float.MIN_VALUE;
+            for (int slot = 0; slot < scores.length; slot++) {
+                if (scores[slot] < floor || (masks != null && (masks[slot] & requiredMask) != requiredMask)) {
+                    continue;
+                }
+                if (heapSize < heap.length) {
+                    heap[heapSize++] = slot;
+                    siftUp(heap, heapSize - 1);
+                } else if (better(slot, heap[0])) {
+                    heap[0] = slot;
+                    siftDown(heap, heapSize);
+                } else {
+                    continue;
+                }
+                if (heapSize == heap.length) {
+                    floor = scores[heap[0]];
+                }
+            }
+            List<Hit> hits = new ArrayList<>(heapSize);
+            for (int i = 0; i < heapSize; i++) {
+                hits.add(new Hit(idAt(heap[i]), scores[heap[i]]));
+            }
+            hits.sort((a, b) -> a.score != b.score ? Float.compare(b.score, a.score)
+                                                   : Integer.compare(a.trackingID, b.trackingID));
+            return hits;
+        }
+
+        // Higher score wins; ties go to the lower (older) tracking ID
+        private boolean better(int slotA, int slotB) {
+            return scores[slotA] != scores[slotB] ? scores[slotA] > scores[slotB] : idAt(slotA) < idAt(slotB);
+        }
+
+        private int idAt(int slot) {
+            return dense ? slot : ids[slot];
+        }
+
+        private void siftUp(int[] heap, int index) {
+            while (index > 0) {
+                int parent = (index - 1) / 2;
+                if (!better(heap[parent], heap[index])) {
+                    break;
+                }
+                swap(heap, parent, index);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int[] heap, int heapSize) {
+            int index = 0;
+            while (true) {
+                int left = 2 * index + 1;
+                int right = left + 1;
+                int worst = index;
+                if (left < heapSize && better(heap[worst], heap[left])) {
+                    worst = left;
+                }
+                if (right < heapSize && better(heap[worst], heap[right])) {
+                    worst = right;
+                }
+                if (worst == index) {
+                    return;
+                }
+                swap(heap, index, worst);
+                index = worst;
+            }
+        }
+
+        private static void swap(int[] heap, int a, int b) {
+            int tmp = heap[a];
+            heap[a] = heap[b];
+            heap[b] = tmp;
+        }
+
+        private static int findSlot(int[] table, int id) {
+            int mask = table.length - 1;
+            int hash = id * 0x9E3779B9;
+            int slot = (hash ^ hash >>> 16) & mask;
+            while (table[slot] != 0 && table[slot] != id) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+    }
+}
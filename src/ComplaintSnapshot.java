@@ -0,0 +1,324 @@
+package src;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.zip.CRC32;
+
+// Versioned, columnar binary snapshot of all complaints (replaces Java serialization backups).
+//
+// Layout (big-endian), version 2:
+//   int   MAGIC ("CIRP")         int  version         int  count
+//   int[count]  tracking IDs     int[count]  zone numbers
+//   byte[count] category ordinals   byte[count] status ordinals
+//   long[count] submission time (epoch seconds, UTC)
+//   int[count]  duplicate report counts (not present in version 1 files, read as 0)
+//   int[count]  details length   byte[...]   details (UTF-8, concatenated)
+//   long  CRC32 of every byte before it
+//
+// Enum values are stored by ordinal, so new IssueCategory/ComplaintStatus constants must be
+// appended at the end of their enum (or the format version bumped).
+public final class ComplaintSnapshot {
+
+    public static final int MAGIC = 0x43495250; // "CIRP"
+    public static final int VERSION = 2;
+
+    private static final int HEADER_BYTES = 12;
+    private static final int TRAILER_BYTES = 8;
+    private static final int CHUNK_BYTES = 1 << 20; // Write buffer size
+    private static final int SPILL_CHUNK_BYTES = 64 * 1024; // Buffer per column file when streaming
+    private static final String[] SPILL_COLUMNS = {
+        "ids", "zones", "categories", "statuses", "times", "duplicates", "lengths", "details"
+    };
+
+    private ComplaintSnapshot() {
+    }
+
+    // Writes the snapshot to a temp file first and then moves it into place,
+    // so a crash mid-write never leaves a half-written backup behind.
+    public static void write(Path file, List<Complaint> complaints) throws IOException {
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        int count = complaints.size();
+
+        try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ChunkWriter out = new ChunkWriter(channel, CHUNK_BYTES);
+            out.putInt(MAGIC);
+            out.putInt(VERSION);
+            out.putInt(count);
+
+            // One pass per column keeps each column contiguous on disk
+            for (Complaint comp : complaints) {
+                out.putInt(comp.getTrackingID());
+            }
+            for (Complaint comp : complaints) {
+                out.putInt(comp.getZoneNumber());
+            }
+            for (Complaint comp : complaints) {
+                out.putByte((byte) comp.getCategory().ordinal());
+            }
+            for (Complaint comp : complaints) {
+                out.putByte((byte) comp.getStatus().ordinal());
+            }
+            for (Complaint comp : complaints) {
+                out.putLong(comp.getSubmissionDate().toEpochSecond(ZoneOffset.UTC));
+            }
+            for (Complaint comp : complaints) {
+                out.putInt(comp.getDuplicateReports());
+            }
+
+            // Encode details once; lengths column first, then the concatenated bytes
+            byte[][] encodedDetails = new byte[count][];
+            for (int i = 0; i < count; i++) {
+                String details = complaints.get(i).getDetails();
+                encodedDetails[i] = details == null ? new byte[0] : details.getBytes(StandardCharsets.UTF_8);
+                out.putInt(encodedDetails[i].length);
+            }
+            for (byte[] encoded : encodedDetails) {
+                out.putBytes(encoded);
+            }
+
+            out.finishWithChecksum();
+            channel.force(true);
+        }
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Same file from a stream of complaints (e.g. pages read from H2), written in a single pass: each
+    // column goes to its own temp file as the rows arrive, and once the count is known the columns are
+    // joined behind the header. Memory use stays at a few buffers however many complaints there are.
+    public static void write(Path file, Iterator<Complaint> complaints) throws IOException {
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        Path[] columnFiles = new Path[SPILL_COLUMNS.length];
+        FileChannel[] columnChannels = new FileChannel[SPILL_COLUMNS.length];
+        try {
+            ChunkWriter[] columns = new ChunkWriter[SPILL_COLUMNS.length];
+            for (int i = 0; i < columns.length; i++) {
+                columnFiles[i] = file.resolveSibling(file.getFileName() + "." + SPILL_COLUMNS[i] + ".tmp");
+                columnChannels[i] = FileChannel.open(columnFiles[i], StandardOpenOption.CREATE,
+                        StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                columns[i] = new ChunkWriter(columnChannels[i], SPILL_CHUNK_BYTES);
+            }
+            int count = 0;
+            while (complaints.hasNext()) {
+                Complaint comp = complaints.next();
+                String details = comp.getDetails();
+                byte[] encodedDetails = details == null ? new byte[0] : details.getBytes(StandardCharsets.UTF_8);
+                columns[0].putInt(comp.getTrackingID());
+                columns[1].putInt(comp.getZoneNumber());
+                columns[2].putByte((byte) comp.getCategory().ordinal());
+                columns[3].putByte((byte) comp.getStatus().ordinal());
+                columns[4].putLong(comp.getSubmissionDate().toEpochSecond(ZoneOffset.UTC));
+                columns[5].putInt(comp.getDuplicateReports());
+                columns[6].putInt(encodedDetails.length);
+                columns[7].putBytes(encodedDetails);
+                count++;
+            }
+
+            try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ChunkWriter out = new ChunkWriter(channel, CHUNK_BYTES);
+                out.putInt(MAGIC);
+                out.putInt(VERSION);
+                out.putInt(count);
+                for (int i = 0; i < columns.length; i++) {
+                    columns[i].drain();
+                    out.putFile(columnChannels[i]);
+                }
+                out.finishWithChecksum();
+                channel.force(true);
+            }
+        } finally {
+            for (int i = 0; i < columnFiles.length; i++) {
+                if (columnChannels[i] != null) {
+                    columnChannels[i].close();
+                }
+                if (columnFiles[i] != null) {
+                    Files.deleteIfExists(columnFiles[i]);
+                }
+            }
+        }
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Returns true if the file starts with the snapshot magic number (as opposed to a legacy backup).
+    public static boolean isSnapshotFile(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(4);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // Keep reading until the 4 magic bytes are in
+            }
+            return !header.hasRemaining() && header.getInt(0) == MAGIC;
+        }
+    }
+
+    // Memory-maps the file, verifies its checksum and rebuilds the complaints.
+    public static List<Complaint> read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES + TRAILER_BYTES || size > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot file has an invalid size: " + size);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            buffer.order(ByteOrder.BIG_ENDIAN);
+
+            // Verify the checksum before trusting any of the content
+            int bodyLength = (int) size - TRAILER_BYTES;
+            CRC32 crc = new CRC32();
+            crc.update(buffer.duplicate().limit(bodyLength));
+            if (crc.getValue() != buffer.getLong(bodyLength)) {
+                throw new IOException("Snapshot checksum mismatch (file is corrupted or truncated).");
+            }
+
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a complaint snapshot file.");
+            }
+            int version = buffer.getInt();
+            if (version != 1 && version != VERSION) {
+                throw new IOException("Unsupported snapshot version: " + version);
+            }
+            int count = buffer.getInt();
+            if (count < 0 || count > size) {
+                throw new IOException("Snapshot record count is invalid: " + count);
+            }
+
+            int[] ids = new int[count];
+            int[] zones = new int[count];
+            byte[] categories = new byte[count];
+            byte[] statuses = new byte[count];
+            long[] epochSeconds = new long[count];
+            int[] duplicateReports = new int[count];
+            int[] detailLengths = new int[count];
+            buffer.asIntBuffer().get(ids);
+            buffer.position(buffer.position() + count * Integer.BYTES);
+            buffer.asIntBuffer().get(zones);
+            buffer.position(buffer.position() + count * Integer.BYTES);
+            buffer.get(categories);
+            buffer.get(statuses);
+            buffer.asLongBuffer().get(epochSeconds);
+            buffer.position(buffer.position() + count * Long.BYTES);
+            if (version >= 2) {
+                buffer.asIntBuffer().get(duplicateReports);
+                buffer.position(buffer.position() + count * Integer.BYTES);
+            }
+            buffer.asIntBuffer().get(detailLengths);
+            buffer.position(buffer.position() + count * Integer.BYTES);
+
+            IssueCategory[] categoryValues = IssueCategory.values();
+            ComplaintStatus[] statusValues = ComplaintStatus.values();
+            List<Complaint> complaints = new ArrayList<>(count);
+            byte[] scratch = new byte[256];
+            for (int i = 0; i < count; i++) {
+                int length = detailLengths[i];
+                if (scratch.length < length) {
+                    scratch = new byte[length];
+                }
+                buffer.get(scratch, 0, length);
+                String details = new String(scratch, 0, length, StandardCharsets.UTF_8);
+
+                Complaint comp = new Complaint(ids[i], zones[i], details,
+                        categoryValues[categories[i]],
+                        statusValues[statuses[i]],
+                        LocalDateTime.ofEpochSecond(epochSeconds[i], 0, ZoneOffset.UTC));
+                comp.setDuplicateReports(duplicateReports[i]);
+                complaints.add(comp);
+            }
+            return complaints;
+        } catch (IndexOutOfBoundsException | BufferUnderflowException e) {
+            throw new IOException("Snapshot file is malformed.", e);
+        }
+    }
+
+    // Buffers primitive writes into fixed-size chunks and keeps a running CRC32.
+    private static class ChunkWriter {
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private final CRC32 crc = new CRC32();
+
+        ChunkWriter(FileChannel channel, int bufferBytes) {
+            this.channel = channel;
+            this.buffer = ByteBuffer.allocateDirect(bufferBytes).order(ByteOrder.BIG_ENDIAN);
+        }
+
+        void putInt(int value) throws IOException {
+            ensureRoom(Integer.BYTES);
+            buffer.putInt(value);
+        }
+
+        void putLong(long value) throws IOException {
+            ensureRoom(Long.BYTES);
+            buffer.putLong(value);
+        }
+
+        void putByte(byte value) throws IOException {
+            ensureRoom(1);
+            buffer.put(value);
+        }
+
+        void putBytes(byte[] bytes) throws IOException {
+            int offset = 0;
+            while (offset < bytes.length) {
+                if (!buffer.hasRemaining()) {
+                    drain();
+                }
+                int n = Math.min(buffer.remaining(), bytes.length - offset);
+                buffer.put(bytes, offset, n);
+                offset += n;
+            }
+        }
+
+        // Appends the whole content of another file (read from its start).
+        void putFile(FileChannel source) throws IOException {
+            long position = 0;
+            while (true) {
+                if (!buffer.hasRemaining()) {
+                    drain();
+                }
+                int read = source.read(buffer, position);
+                if (read < 0) {
+                    return;
+                }
+                position += read;
+            }
+        }
+
+        // Flushes the body, then appends the checksum (which is not itself checksummed).
+        void finishWithChecksum() throws IOException {
+            drain();
+            buffer.putLong(crc.getValue());
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        private void ensureRoom(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                drain();
+            }
+        }
+
+        void drain() throws IOException {
+            buffer.flip();
+            crc.update(buffer.duplicate());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
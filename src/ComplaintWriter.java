@@ -0,0 +1,335 @@
+package src;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+// Background group-commit writer for the COMPLAINTS table.
+// Mutations are queued by callers and a single writer thread drains them into JDBC batches,
+// committing once per batch. Each caller gets a future that completes when its write is durable.
+public class ComplaintWriter implements AutoCloseable {
+
+    private static final String INSERT_SQL = "INSERT INTO COMPLAINTS VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_SQL = "UPDATE COMPLAINTS SET STATUS = ?, DUPLICATE_REPORTS = ? WHERE TRACKING_ID = ?";
+
+    private enum Kind { INSERT, UPDATE, FLUSH, STOP }
+
+    // One queued mutation and the future handed back to its caller
+    private static class PendingWrite {
+        final Kind kind;
+        final Complaint complaint;
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+        SQLException error; // Set by the writer thread when the database rejected this write
+
+        PendingWrite(Kind kind, Complaint complaint) {
+            this.kind = kind;
+            this.complaint = complaint;
+        }
+    }
+
+    private final ConnectionPool connectionPool;
+    private final int maxBatchSize;
+    private final long lingerNanos;
+    private final BlockingQueue<PendingWrite> queue;
+    private final Thread writerThread;
+    private volatile boolean accepting = true;
+    private final AtomicInteger pendingWrites = new AtomicInteger(); // Queued or in-flight data writes
+    // The same, per tracking ID (ID -> number of its writes not yet committed or failed)
+    private final ConcurrentHashMap<Integer, Integer> pendingById = new ConcurrentHashMap<>();
+
+    // --- Metrics ---
+    private final AtomicLong committedBatches = new AtomicLong();
+    private final AtomicLong committedWrites = new AtomicLong();
+    private final AtomicLong failedWrites = new AtomicLong();
+    private final AtomicLong rejectedWrites = new AtomicLong();  // The part of failedWrites the database refused
+    private final AtomicLong unrejectedWrites = new AtomicLong(); // The rest: lost connections and the like
+
+    // Told about every row the database refused (on the writer thread, before the write's future fails)
+    private volatile Consumer<Complaint> rejectedWriteHandler = comp -> { };
+
+    public ComplaintWriter(ConnectionPool connectionPool, int maxBatchSize, long lingerMillis, int queueCapacity) {
+        this.connectionPool = connectionPool;
+        this.maxBatchSize = maxBatchSize;
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.writerThread = new Thread(this::runWriterLoop, "complaint-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    // Queues a new row. Blocks while the queue is full (backpressure).
+    public CompletableFuture<Void> submitInsert(Complaint complaint) {
+        return enqueue(new PendingWrite(Kind.INSERT, complaint));
+    }
+
+    // Queues an update of the row's mutable fields (status and duplicate report count). They are
+    // read when the batch is written, so the last queued update for a complaint always stores its latest values.
+    public CompletableFuture<Void> submitUpdate(Complaint complaint) {
+        return enqueue(new PendingWrite(Kind.UPDATE, complaint));
+    }
+
+    // Sets the callback for rows the database refuses outright (see isRejectedRow).
+    public void setRejectedWriteHandler(Consumer<Complaint> handler) {
+        this.rejectedWriteHandler = handler;
+    }
+
+    // Waits until everything queued before this call has been committed.
+    public void flush() {
+        if (!accepting) {
+            return;
+        }
+        enqueue(new PendingWrite(Kind.FLUSH, null)).join();
+    }
+
+    // Stops accepting writes, commits everything still queued and stops the writer thread.
+    @Override
+    public void close() {
+        if (!accepting) {
+            return;
+        }
+        accepting = false;
+        PendingWrite stop = new PendingWrite(Kind.STOP, null);
+        putUninterruptibly(stop);
+        stop.done.join();
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private CompletableFuture<Void> enqueue(PendingWrite write) {
+        if (!accepting) {
+            write.done.completeExceptionally(new IllegalStateException("Complaint writer is closed."));
+            return write.done;
+        }
+        if (!isControl(write)) {
+            pendingWrites.incrementAndGet();
+            pendingById.merge(write.complaint.getTrackingID(), 1, Integer::sum);
+        }
+        putUninterruptibly(write);
+        return write.done;
+    }
+
+    private void putUninterruptibly(PendingWrite write) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                queue.put(write);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true; // Keep trying: dropping a write silently would be worse
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // --- Writer thread ---
+
+    private void runWriterLoop() {
+        List<PendingWrite> batch = new ArrayList<>(maxBatchSize);
+        boolean running = true;
+        while (running) {
+            try {
+                batch.add(queue.take());
+                // Keep collecting until the batch is full or the linger time runs out
+                long deadline = System.nanoTime() + lingerNanos;
+                while (batch.size() < maxBatchSize && !isControl(batch.get(batch.size() - 1))) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingWrite next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Not expected: close() uses a STOP marker. Fall through and write what we have.
+            }
+
+            writeBatch(batch);
+            for (PendingWrite write : batch) {
+                if (write.kind == Kind.STOP) {
+                    running = false;
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    // FLUSH and STOP end a batch early so their callers are released promptly
+    private static boolean isControl(PendingWrite write) {
+        return write.kind == Kind.FLUSH || write.kind == Kind.STOP;
+    }
+
+    private void writeBatch(List<PendingWrite> batch) {
+        int dataWrites = 0;
+        for (PendingWrite write : batch) {
+            if (!isControl(write)) {
+                dataWrites++;
+            }
+        }
+
+        if (dataWrites > 0) {
+            try {
+                commitBatch(batch);
+                committedBatches.incrementAndGet();
+                committedWrites.addAndGet(dataWrites);
+            } catch (SQLException e) {
+                // One bad row fails the whole JDBC batch, so find out which rows the database really rejects
+                System.err.println("Error writing complaint batch to database, retrying row by row: " + e.getMessage());
+                writeRowByRow(batch);
+            }
+            pendingWrites.addAndGet(-dataWrites);
+            for (PendingWrite write : batch) {
+                if (!isControl(write)) {
+                    pendingById.computeIfPresent(write.complaint.getTrackingID(), (id, n) -> n == 1 ? null : n - 1);
+                }
+            }
+        }
+
+        for (PendingWrite write : batch) {
+            if (write.error != null) {
+                write.done.completeExceptionally(write.error);
+            } else {
+                write.done.complete(null);
+            }
+        }
+    }
+
+    // Writes every data write of the batch in one transaction.
+    private void commitBatch(List<PendingWrite> batch) throws SQLException {
+        try (ConnectionPool.PooledConnection pooled = connectionPool.borrow()) {
+            Connection conn = pooled.getConnection();
+            try {
+                conn.setAutoCommit(false);
+                PreparedStatement insertStmt = pooled.prepare(INSERT_SQL);
+                PreparedStatement updateStmt = pooled.prepare(UPDATE_SQL);
+                boolean hasInserts = false;
+                boolean hasUpdates = false;
+
+                for (PendingWrite write : batch) {
+                    if (write.kind == Kind.INSERT) {
+                        bindComplaintRow(insertStmt, write.complaint);
+                        insertStmt.addBatch();
+                        hasInserts = true;
+                    } else if (write.kind == Kind.UPDATE) {
+                        bindUpdate(updateStmt, write.complaint);
+                        updateStmt.addBatch();
+                        hasUpdates = true;
+                    }
+                }
+                // Inserts go first so an update queued after its insert always finds the row
+                if (hasInserts) {
+                    insertStmt.executeBatch();
+                }
+                if (hasUpdates) {
+                    updateStmt.executeBatch();
+                }
+                conn.commit(); // One commit (and one disk sync) for the whole batch
+            } catch (SQLException e) {
+                pooled.invalidate(); // Pool rolls back and discards this connection
+                throw e;
+            }
+        }
+    }
+
+    // Fallback after a failed batch: each write on its own, auto-committed, in queue order (so an update
+    // still follows its insert). Only the rows the database rejects fail; the rest are committed.
+    private void writeRowByRow(List<PendingWrite> batch) {
+        try (ConnectionPool.PooledConnection pooled = connectionPool.borrow()) {
+            for (PendingWrite write : batch) {
+                if (isControl(write)) {
+                    continue;
+                }
+                try {
+                    PreparedStatement stmt;
+                    if (write.kind == Kind.INSERT) {
+                        stmt = pooled.prepare(INSERT_SQL);
+                        bindComplaintRow(stmt, write.complaint);
+                    } else {
+                        stmt = pooled.prepare(UPDATE_SQL);
+                        bindUpdate(stmt, write.complaint);
+                    }
+                    stmt.executeUpdate();
+                    committedBatches.incrementAndGet();
+                    committedWrites.incrementAndGet();
+                } catch (SQLException e) {
+                    System.err.println("Error writing complaint " + write.complaint.getTrackingID()
+                            + " to database: " + e.getMessage());
+                    write.error = e;
+                    failedWrites.incrementAndGet();
+                    if (isRejectedRow(e)) {
+                        rejectedWrites.incrementAndGet();
+                        rejectedWriteHandler.accept(write.complaint);
+                    } else {
+                        unrejectedWrites.incrementAndGet();
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            // No connection at all: every write not yet attempted fails with the same error
+            System.err.println("Error writing complaint batch to database: " + e.getMessage());
+            for (PendingWrite write : batch) {
+                if (!isControl(write) && write.error == null) {
+                    write.error = e;
+                    failedWrites.incrementAndGet();
+                    unrejectedWrites.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    // True if the database refused the row itself (a data or constraint error, SQLSTATE class 22 or 23),
+    // so writing it again can never succeed; anything else (e.g. a lost connection) may be transient.
+    static boolean isRejectedRow(SQLException e) {
+        String state = e.getSQLState();
+        return state != null && (state.startsWith("22") || state.startsWith("23"));
+    }
+
+    private static void bindUpdate(PreparedStatement stmt, Complaint comp) throws SQLException {
+        stmt.setString(1, comp.getStatus().name());
+        stmt.setInt(2, comp.getDuplicateReports());
+        stmt.setInt(3, comp.getTrackingID());
+    }
+
+    // Column order matches the COMPLAINTS table definition.
+    static void bindComplaintRow(PreparedStatement stmt, Complaint comp) throws SQLException {
+        stmt.setInt(1, comp.getTrackingID());
+        stmt.setInt(2, comp.getZoneNumber());
+        stmt.setString(3, comp.getDetails());
+        stmt.setString(4, comp.getFormattedDate());
+        stmt.setString(5, comp.getCategory().name());
+        stmt.setString(6, comp.getStatus().name());
+        stmt.setInt(7, comp.getDuplicateReports());
+    }
+
+    // --- Metric getters ---
+    public long getCommittedBatches() { return committedBatches.get(); }
+    public long getCommittedWrites() { return committedWrites.get(); }
+    public long getFailedWrites() { return failedWrites.get(); }
+    public long getRejectedWrites() { return rejectedWrites.get(); }
+    // Failed writes the database did not refuse itself: the row may simply be missing from the table
+    public long getUnrejectedFailedWrites() { return unrejectedWrites.get(); }
+    public int getQueuedWrites() { return queue.size(); }
+
+    // True while any insert/update has been submitted but not yet committed (or failed)
+    public boolean hasPendingWrites() { return pendingWrites.get() > 0; }
+
+    // True while a write of this complaint has been submitted but not yet committed (or failed)
+    public boolean hasPendingWrite(int trackingID) { return pendingById.containsKey(trackingID); }
+
+    public double getAverageBatchSize() {
+        long batches = committedBatches.get();
+        return batches == 0 ? 0.0 : (double) committedWrites.get() / batches;
+    }
+}
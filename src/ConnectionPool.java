@@ -0,0 +1,230 @@
+package src;
+
+import java.sql.*;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// A small fixed-size pool of long-lived JDBC connections for the embedded H2 database.
+// Each pooled connection keeps its own cache of prepared statements keyed by SQL text.
+public class ConnectionPool implements AutoCloseable {
+
+    // How long borrow() waits for a free connection before failing
+    static final long BORROW_TIMEOUT_MILLIS = 30_000;
+    // How often a waiting borrow() re-checks whether a slot was freed by a dropped connection
+    private static final long WAIT_SLICE_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int maxSize;
+
+    private final BlockingQueue<PooledConnection> idleConnections;
+    private final AtomicInteger openedConnections = new AtomicInteger();
+    private volatile boolean closed = false;
+
+    // --- Metrics ---
+    private final AtomicLong hits = new AtomicLong();      // borrowed an idle connection
+    private final AtomicLong misses = new AtomicLong();    // had to open a new connection
+    private final AtomicLong waits = new AtomicLong();     // pool exhausted, caller blocked
+    private final AtomicLong waitNanos = new AtomicLong(); // total time spent blocked
+
+    public ConnectionPool(String driverClass, String url, String user, String password, int maxSize) throws SQLException {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Pool size must be at least 1.");
+        }
+        try {
+            Class.forName(driverClass); // Load the JDBC driver once for the whole pool
+        } catch (ClassNotFoundException e) {
+            System.err.println("JDBC Driver missing. Make sure h2-*.jar is in the classpath.");
+            throw new SQLException("Driver initialization failed.", e);
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.maxSize = maxSize;
+        this.idleConnections = new ArrayBlockingQueue<>(maxSize);
+    }
+
+    // Hands out an idle connection, opens a new one while below maxSize, or waits until one is returned.
+    // Waiters wake up periodically to re-check capacity, since a dropped (invalidated) connection frees
+    // a slot without putting anything in the idle queue. Gives up after BORROW_TIMEOUT_MILLIS.
+    // Use with try-with-resources: closing the PooledConnection returns it to the pool.
+    public PooledConnection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed.");
+        }
+        PooledConnection pooled = idleConnections.poll();
+        if (pooled != null) {
+            hits.incrementAndGet();
+            return pooled;
+        }
+        pooled = tryOpen();
+        if (pooled != null) {
+            return pooled;
+        }
+
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(BORROW_TIMEOUT_MILLIS);
+        try {
+            while (true) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new SQLException("Timed out after " + BORROW_TIMEOUT_MILLIS
+                        + "ms waiting for a database connection (" + maxSize + " in use).");
+                }
+                pooled = idleConnections.poll(Math.min(remaining, WAIT_SLICE_NANOS), TimeUnit.NANOSECONDS);
+                if (pooled != null) {
+                    return pooled;
+                }
+                if (closed) {
+                    throw new SQLException("Connection pool is closed.");
+                }
+                pooled = tryOpen();
+                if (pooled != null) {
+                    return pooled;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection.", e);
+        } finally {
+            waits.incrementAndGet();
+            waitNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    // Opens a new connection if the pool is below maxSize, otherwise returns null.
+    // Reserves a slot before opening so concurrent callers never exceed maxSize.
+    private PooledConnection tryOpen() throws SQLException {
+        int current;
+        while ((current = openedConnections.get()) < maxSize) {
+            if (openedConnections.compareAndSet(current, current + 1)) {
+                misses.incrementAndGet();
+                try {
+                    return new PooledConnection(DriverManager.getConnection(url, user, password));
+                } catch (SQLException e) {
+                    openedConnections.decrementAndGet();
+                    throw e;
+                }
+            }
+        }
+        return null;
+    }
+
+    private void release(PooledConnection pooled) {
+        if (closed || !pooled.resetForReuse()) {
+            pooled.closePhysical();
+            openedConnections.decrementAndGet();
+            return;
+        }
+        idleConnections.offer(pooled);
+    }
+
+    // Closes every idle connection. Connections still borrowed are closed when they are returned.
+    @Override
+    public void close() {
+        closed = true;
+        PooledConnection pooled;
+        while ((pooled = idleConnections.poll()) != null) {
+            pooled.closePhysical();
+            openedConnections.decrementAndGet();
+        }
+    }
+
+    // --- Metric getters ---
+    public long getHitCount() { return hits.get(); }
+    public long getMissCount() { return misses.get(); }
+    public long getWaitCount() { return waits.get(); }
+    public long getTotalWaitMillis() { return waitNanos.get() / 1_000_000; }
+    public int getOpenConnections() { return openedConnections.get(); }
+    public int getIdleConnections() { return idleConnections.size(); }
+    public int getMaxSize() { return maxSize; }
+
+    // One-line summary for console output
+    public String getStatsSummary() {
+        return String.format("Pool[open=%d/%d, idle=%d, hits=%d, misses=%d, waits=%d, waitTime=%dms]",
+            getOpenConnections(), maxSize, getIdleConnections(), getHitCount(), getMissCount(),
+            getWaitCount(), getTotalWaitMillis());
+    }
+
+    // A borrowed connection plus its prepared statement cache.
+    public class PooledConnection implements AutoCloseable {
+        private final Connection connection;
+        private final Map<String, PreparedStatement> statementCache = new HashMap<>();
+        private boolean broken = false;
+
+        private PooledConnection(Connection connection) {
+            this.connection = connection;
+        }
+
+        public Connection getConnection() {
+            return connection;
+        }
+
+        // Returns the cached statement for this SQL, preparing it on first use.
+        // The statement belongs to the cache: callers must NOT close it.
+        public PreparedStatement prepare(String sql) throws SQLException {
+            PreparedStatement stmt = statementCache.get(sql);
+            if (stmt == null || stmt.isClosed()) {
+                stmt = connection.prepareStatement(sql);
+                statementCache.put(sql, stmt);
+            }
+            return stmt;
+        }
+
+        // Marks the connection as unusable so it is discarded instead of being reused.
+        public void invalidate() {
+            broken = true;
+        }
+
+        // Returns the connection to the pool.
+        @Override
+        public void close() {
+            release(this);
+        }
+
+        // Undoes any unfinished transaction; false means the connection should be dropped.
+        private boolean resetForReuse() {
+            if (broken) {
+                return false;
+            }
+            try {
+                if (connection.isClosed()) {
+                    return false;
+                }
+                if (!connection.getAutoCommit()) {
+                    connection.rollback();
+                    connection.setAutoCommit(true);
+                }
+                for (PreparedStatement stmt : statementCache.values()) {
+                    stmt.clearParameters();
+                    stmt.clearBatch();
+                }
+                return true;
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        private void closePhysical() {
+            for (PreparedStatement stmt : statementCache.values()) {
+                try {
+                    stmt.close();
+                } catch (SQLException ignored) {
+                    // The connection is going away anyway
+                }
+            }
+            statementCache.clear();
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                System.err.println("Error closing database connection: " + e.getMessage());
+            }
+        }
+    }
+}
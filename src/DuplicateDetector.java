@@ -0,0 +1,305 @@
+package src;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+// Spots likely duplicates at intake: a new complaint whose details closely match a recent, still
+// open complaint in the same zone and category.
+//
+// Details are reduced to a MinHash signature over their words and word pairs (the tokens used by
+// ComplaintSearchIndex), which estimates the Jaccard overlap of two texts. The 64 hashes are split
+// into 16 bands of 4; each band is hashed together with the zone and category into a bucket, and
+// only complaints sharing a whole band are compared (locality-sensitive hashing). Buckets keep a
+// few recent entries and old complaints expire, so a check costs the same however many complaints
+// are stored. Only the low byte of each hash is kept for the comparison (b-bit MinHash).
+//
+// Plain numbers in the text (house, pole or block numbers) must match exactly, since "light out
+// at pole 12" and "light out at pole 40" are separate problems.
+public class DuplicateDetector {
+
+    private static final int CATEGORIES = IssueCategory.values().length;
+    private static final int HASHES = 64;
+    private static final int BANDS = 16;
+    private static final int ROWS = HASHES / BANDS;
+    private static final int BUCKET_CAPACITY = 8;      // Most recent complaints kept per bucket
+    private static final int MAX_TRACKED = 100_000;    // Oldest complaints are dropped past this
+    private static final double BYTE_COLLISION = 1.0 / 256; // Chance two different hashes share a low byte
+
+    // Multiply-shift hash family: hash i of x is the high 32 bits of x * MULTIPLIERS[i] + ADDENDS[i]
+    private static final long[] MULTIPLIERS = new long[HASHES];
+    private static final long[] ADDENDS = new long[HASHES];
+    static {
+        Random random = new Random(0x5EED_D0_0BL); // Fixed, so signatures are stable between runs
+        for (int i = 0; i < HASHES; i++) {
+            MULTIPLIERS[i] = random.nextLong() | 1;
+            ADDENDS[i] = random.nextLong();
+        }
+    }
+
+    // MinHash fingerprint of one complaint's details
+    public static final class Signature {
+        final byte[] minHashes; // Low byte of each minimum hash
+        final int[] bandHashes;
+        final long numbersHash; // Order-insensitive hash of the plain numbers in the text (0 if none)
+
+        private Signature(byte[] minHashes, int[] bandHashes, long numbersHash) {
+            this.minHashes = minHashes;
+            this.bandHashes = bandHashes;
+            this.numbersHash = numbersHash;
+        }
+    }
+
+    private static final class Entry {
+        final int trackingID;
+        final int zoneNumber;
+        final IssueCategory category;
+        final Signature signature;
+        final long epochSecond; // Submission time
+
+        Entry(int trackingID, int zoneNumber, IssueCategory category, Signature signature, long epochSecond) {
+            this.trackingID = trackingID;
+            this.zoneNumber = zoneNumber;
+            this.category = category;
+            this.signature = signature;
+            this.epochSecond = epochSecond;
+        }
+    }
+
+    private final long windowSeconds;
+    private final double threshold;
+    private final Map<Long, List<Entry>> buckets = new HashMap<>();
+    private final Map<Integer, Entry> byId = new HashMap<>();
+    private final ArrayDeque<Entry> byAge = new ArrayDeque<>(); // Insertion order, oldest first
+
+    public DuplicateDetector(int windowHours, double threshold) {
+        if (windowHours < 1) {
+            throw new IllegalArgumentException("Duplicate window must be at least 1 hour.");
+        }
+        if (!(threshold > 0 && threshold <= 1)) {
+            throw new IllegalArgumentException("Duplicate similarity must be above 0 and at most 1.");
+        }
+        this.windowSeconds = windowHours * 3600L;
+        this.threshold = threshold;
+    }
+
+    // --- Signatures ---
+
+    // Returns null for details with no indexable words (those are never treated as duplicates).
+    public static Signature signatureOf(String details) {
+        List<String> tokens = ComplaintSearchIndex.tokenize(details);
+        if (tokens.isEmpty()) {
+            return null;
+        }
+        int[] minimums = new int[HASHES];
+        Arrays.fill(minimums, Integer.MAX_VALUE);
+        Set<String> numbers = new HashSet<>();
+        long previous = 0;
+        for (int t = 0; t < tokens.size(); t++) {
+            String token = tokens.get(t);
+            long wordHash = mix(token.hashCode());
+            addShingle(minimums, wordHash);
+            if (t > 0) {
+                addShingle(minimums, mix(previous * 31 + wordHash));
+            }
+            previous = wordHash;
+            if (isNumber(token)) {
+                numbers.add(token);
+            }
+        }
+
+        byte[] minHashes = new byte[HASHES];
+        for (int i = 0; i < HASHES; i++) {
+            minHashes[i] = (byte) minimums[i];
+        }
+        int[] bandHashes = new int[BANDS];
+        for (int band = 0; band < BANDS; band++) {
+            int hash = 1;
+            for (int row = band * ROWS; row < (band + 1) * ROWS; row++) {
+                hash = hash * 31 + minimums[row];
+            }
+            bandHashes[band] = hash;
+        }
+        long numbersHash = 0;
+        for (String number : numbers) {
+            numbersHash += mix(number.hashCode()); // Sum of mixed hashes: independent of order
+        }
+        return new Signature(minHashes, bandHashes, numbersHash);
+    }
+
+    // Estimated Jaccard similarity of the two texts' word sets
+    static double similarity(Signature a, Signature b) {
+        int matches = 0;
+        for (int i = 0; i < HASHES; i++) {
+            if (a.minHashes[i] == b.minHashes[i]) {
+                matches++;
+            }
+        }
+        // Correct for unrelated hashes that happen to share a low byte
+        return ((double) matches / HASHES - BYTE_COLLISION) / (1 - BYTE_COLLISION);
+    }
+
+    // --- Lookups and updates ---
+
+    // Returns the tracking ID of a tracked complaint that these details most likely duplicate, or 0.
+    public synchronized int findDuplicate(int zoneNumber, IssueCategory category, Signature signature,
+                                          long nowEpochSecond) {
+        if (signature == null) {
+            return 0;
+        }
+        expire(nowEpochSecond);
+        int bestId = 0;
+        double bestSimilarity = threshold;
+        for (int band = 0; band < BANDS; band++) {
+            List<Entry> bucket = buckets.get(bucketKey(zoneNumber, category, band, signature.bandHashes[band]));
+            if (bucket == null) {
+                continue;
+            }
+            for (Entry entry : bucket) {
+                // Buckets are shared by hash, so confirm zone and category
+                if (entry.zoneNumber != zoneNumber || entry.category != category
+                        || entry.signature.numbersHash != signature.numbersHash
+                        || entry.epochSecond < nowEpochSecond - windowSeconds) {
+                    continue;
+                }
+                double similarity = similarity(entry.signature, signature);
+                if (similarity >= bestSimilarity) {
+                    bestSimilarity = similarity;
+                    bestId = entry.trackingID;
+                }
+            }
+        }
+        return bestId;
+    }
+
+    // Starts tracking an open complaint so later submissions can be matched against it.
+    public synchronized void add(Complaint comp, Signature signature) {
+        if (signature == null || comp.getStatus() == ComplaintStatus.CLOSED
+                || byId.containsKey(comp.getTrackingID())) {
+            return;
+        }
+        long epochSecond = comp.getSubmissionDate().toEpochSecond(ZoneOffset.UTC);
+        Entry entry = new Entry(comp.getTrackingID(), comp.getZoneNumber(), comp.getCategory(), signature, epochSecond);
+        byId.put(entry.trackingID, entry);
+        byAge.addLast(entry);
+        for (int band = 0; band < BANDS; band++) {
+            List<Entry> bucket = buckets.computeIfAbsent(
+                    bucketKey(entry.zoneNumber, entry.category, band, signature.bandHashes[band]),
+                    key -> new ArrayList<>(2));
+            if (bucket.size() == BUCKET_CAPACITY) {
+                bucket.remove(0); // Still reachable through its other bands until it expires
+            }
+            bucket.add(entry);
+        }
+        while (byAge.size() > MAX_TRACKED) {
+            remove(byAge.pollFirst());
+        }
+    }
+
+    public void add(Complaint comp) {
+        add(comp, signatureOf(comp.getDetails()));
+    }
+
+    // Stops matching against a complaint (e.g. once it is closed). Its byAge slot is dropped when it
+    // reaches the head of the queue.
+    public synchronized void forget(int trackingID) {
+        Entry entry = byId.get(trackingID);
+        if (entry != null) {
+            remove(entry);
+        }
+    }
+
+    // Tracks the open complaints submitted within the window, oldest first. Only the newest
+    // MAX_TRACKED are signed, since older ones would be dropped again straight away.
+    public synchronized void rebuild(Iterable<Complaint> complaints) {
+        clear();
+        long cutoff = LocalDateTime.now().toEpochSecond(ZoneOffset.UTC) - windowSeconds;
+        List<Complaint> recent = new ArrayList<>();
+        for (Complaint comp : complaints) {
+            if (comp.getStatus() != ComplaintStatus.CLOSED
+                    && comp.getSubmissionDate().toEpochSecond(ZoneOffset.UTC) >= cutoff) {
+                recent.add(comp);
+            }
+        }
+        recent.sort((a, b) -> a.getSubmissionDate().compareTo(b.getSubmissionDate()));
+        for (Complaint comp : recent.subList(Math.max(0, recent.size() - MAX_TRACKED), recent.size())) {
+            add(comp);
+        }
+    }
+
+    public synchronized void clear() {
+        buckets.clear();
+        byId.clear();
+        byAge.clear();
+    }
+
+    public synchronized int size() {
+        return byId.size();
+    }
+
+    // --- Internal helpers ---
+
+    // Drops complaints older than the window. Entries are added roughly in submission order,
+    // so this stops at the first one still inside it.
+    private void expire(long nowEpochSecond) {
+        long cutoff = nowEpochSecond - windowSeconds;
+        while (!byAge.isEmpty() && byAge.peekFirst().epochSecond < cutoff) {
+            remove(byAge.pollFirst());
+        }
+    }
+
+    // Removes an entry from the ID map and its buckets (the caller handles byAge). No-op if already removed.
+    private void remove(Entry entry) {
+        if (!byId.remove(entry.trackingID, entry)) {
+            return;
+        }
+        for (int band = 0; band < BANDS; band++) {
+            long key = bucketKey(entry.zoneNumber, entry.category, band, entry.signature.bandHashes[band]);
+            List<Entry> bucket = buckets.get(key);
+            if (bucket != null && bucket.remove(entry) && bucket.isEmpty()) {
+                buckets.remove(key);
+            }
+        }
+    }
+
+    private static void addShingle(int[] minimums, long shingleHash) {
+        for (int i = 0; i < HASHES; i++) {
+            int hash = (int) ((shingleHash * MULTIPLIERS[i] + ADDENDS[i]) >>> 32);
+            if (hash < minimums[i]) {
+                minimums[i] = hash;
+            }
+        }
+    }
+
+    private static long bucketKey(int zoneNumber, IssueCategory category, int band, int bandHash) {
+        long scope = ((long) zoneNumber * CATEGORIES + category.ordinal()) * BANDS + band;
+        return mix(scope) ^ (bandHash & 0xFFFFFFFFL);
+    }
+
+    private static boolean isNumber(String token) {
+        for (int i = 0; i < token.length(); i++) {
+            if (!Character.isDigit(token.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 64-bit finalizer from MurmurHash3
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xFF51AFD7ED558CCDL;
+        value ^= value >>> 33;
+        value *= 0xC4CEB9FE1A85EC53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
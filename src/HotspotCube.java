@@ -0,0 +1,303 @@
+package src;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Pre-aggregated complaint counts by zone x IssueCategory x ComplaintStatus x submission hour,
+// updated on every new complaint and status change so windowed trend queries never rescan
+// the complaints. Hourly buckets are kept in a ring covering the last retentionHours hours
+// (a day is 24 buckets); all-time totals per cell are kept as well. A zone/category pair gets
+// its hourly ring only when it first receives a complaint inside the retention window.
+//
+// A complaint is counted in the hour it was submitted, under its current status: a status
+// change moves one count between statuses within the same hour bucket.
+public class HotspotCube {
+
+    private static final int CATEGORIES = IssueCategory.values().length;
+    private static final int STATUSES = ComplaintStatus.values().length;
+
+    // One zone/category pair ranked by how fast its complaint count is growing
+    public static class Hotspot {
+        public final int zoneNumber;
+        public final IssueCategory category;
+        public final int currentCount;  // Complaints in the latest window
+        public final int previousCount; // Complaints in the window before it
+        public final double growthRate; // (current - previous) / max(previous, 1)
+
+        Hotspot(int zoneNumber, IssueCategory category, int currentCount, int previousCount) {
+            this.zoneNumber = zoneNumber;
+            this.category = category;
+            this.currentCount = currentCount;
+            this.previousCount = previousCount;
+            this.growthRate = (double) (currentCount - previousCount) / Math.max(previousCount, 1);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Zone %d / %s: %d (previous %d, growth %+.0f%%)",
+                zoneNumber, category, currentCount, previousCount, growthRate * 100);
+        }
+    }
+
+    // Counters for one zone; the hourly rings are allocated per category on first use
+    private class ZoneCells {
+        final AtomicReferenceArray<HourlyCells> hourly = new AtomicReferenceArray<>(CATEGORIES);
+        final AtomicLongArray totals = new AtomicLongArray(CATEGORIES * STATUSES);
+
+        HourlyCells hourlyFor(int categoryOrdinal) {
+            HourlyCells cells = hourly.get(categoryOrdinal);
+            if (cells == null) {
+                hourly.compareAndSet(categoryOrdinal, null, new HourlyCells()); // Racing adders keep one
+                cells = hourly.get(categoryOrdinal);
+            }
+            return cells;
+        }
+    }
+
+    // Hourly ring of one zone/category pair
+    private class HourlyCells {
+        final AtomicIntegerArray byStatus = new AtomicIntegerArray(STATUSES * retentionHours);
+        // Same counts summed over every status (unchanged by status moves), for all-status queries
+        final AtomicIntegerArray allStatuses = new AtomicIntegerArray(retentionHours);
+    }
+
+    private final int retentionHours;
+    private final Map<Integer, ZoneCells> zones = new ConcurrentHashMap<>();
+    // The ring holds the hours (latestHour - retentionHours, latestHour]; hour h lives in slot h mod retentionHours
+    private long latestHour;
+    // Counter updates share the read lock (the counters are atomic); moving the ring forward
+    // to a new hour takes the write lock
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public HotspotCube(int retentionHours) {
+        if (retentionHours < 2) {
+            throw new IllegalArgumentException("Hotspot retention must be at least 2 hours.");
+        }
+        this.retentionHours = retentionHours;
+        this.latestHour = currentHour();
+    }
+
+    // --- Updates ---
+
+    public void add(Complaint comp) {
+        addCount(comp.getZoneNumber(), comp.getCategory(), comp.getStatus(), hourOf(comp.getSubmissionDate()), 1);
+    }
+
+    // Moves one complaint's count from its old status to its new one.
+    public void moveStatus(Complaint comp, ComplaintStatus oldStatus, ComplaintStatus newStatus) {
+        long hour = hourOf(comp.getSubmissionDate());
+        addCount(comp.getZoneNumber(), comp.getCategory(), oldStatus, hour, -1, false);
+        addCount(comp.getZoneNumber(), comp.getCategory(), newStatus, hour, 1, false);
+    }
+
+    // Adds a pre-aggregated count (used when loading from a GROUP BY query).
+    public void addCount(int zoneNumber, IssueCategory category, ComplaintStatus status, long hour, int count) {
+        addCount(zoneNumber, category, status, hour, count, true);
+    }
+
+    private void addCount(int zoneNumber, IssueCategory category, ComplaintStatus status, long hour, int count,
+                          boolean newComplaints) {
+        lock.readLock().lock();
+        try {
+            if (hour <= latestHour) {
+                applyCount(zoneNumber, category, status, hour, count, newComplaints);
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        lock.writeLock().lock();
+        try {
+            advanceTo(hour);
+            applyCount(zoneNumber, category, status, hour, count, newComplaints);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            zones.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Clears and refills the cube from a full list of complaints.
+    public void rebuild(Iterable<Complaint> complaints) {
+        lock.writeLock().lock();
+        try {
+            zones.clear();
+            for (Complaint comp : complaints) {
+                add(comp); // Reentrant: the write lock is already held
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // --- Queries ---
+
+    // Complaints of one zone/category with any of the given statuses, submitted in hours [fromHour, toHour).
+    // Hours older than the retention window count as zero.
+    public int count(int zoneNumber, IssueCategory category, Set<ComplaintStatus> statuses, long fromHour, long toHour) {
+        lock.readLock().lock();
+        try {
+            ZoneCells cells = zones.get(zoneNumber);
+            return cells == null ? 0 : sumHours(cells, category.ordinal(), statuses, fromHour, toHour);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // All-time count of one zone/category/status.
+    public long total(int zoneNumber, IssueCategory category, ComplaintStatus status) {
+        ZoneCells cells = zones.get(zoneNumber);
+        return cells == null ? 0 : cells.totals.get(cell(category.ordinal(), status.ordinal()));
+    }
+
+    // The zone/category pairs whose complaint count grew fastest over the last windowHours
+    // (including the current, partial hour) compared with the window before it.
+    // Pairs with no complaints in the latest window are skipped.
+    public List<Hotspot> topHotspots(int limit, int windowHours, Set<ComplaintStatus> statuses) {
+        if (windowHours < 1 || windowHours * 2 > retentionHours) {
+            throw new IllegalArgumentException("Window must be between 1 and " + retentionHours / 2 + " hours.");
+        }
+        long windowEnd = currentHour() + 1;
+        long windowStart = windowEnd - windowHours;
+        long previousStart = windowStart - windowHours;
+
+        List<Hotspot> hotspots = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Map.Entry<Integer, ZoneCells> zone : zones.entrySet()) {
+                for (IssueCategory category : IssueCategory.values()) {
+                    int current = sumHours(zone.getValue(), category.ordinal(), statuses, windowStart, windowEnd);
+                    if (current == 0) {
+                        continue;
+                    }
+                    int previous = sumHours(zone.getValue(), category.ordinal(), statuses, previousStart, windowStart);
+                    hotspots.add(new Hotspot(zone.getKey(), category, current, previous));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        hotspots.sort(Comparator.comparingDouble((Hotspot h) -> h.growthRate).reversed()
+                .thenComparing(Comparator.comparingInt((Hotspot h) -> h.currentCount).reversed()));
+        return hotspots.size() > limit ? new ArrayList<>(hotspots.subList(0, limit)) : hotspots;
+    }
+
+    public int getRetentionHours() {
+        return retentionHours;
+    }
+
+    // Hours are counted on the same LocalDateTime clock the complaints are stamped with.
+    public static long hourOf(LocalDateTime dateTime) {
+        return Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), 3600);
+    }
+
+    public static long currentHour() {
+        return hourOf(LocalDateTime.now());
+    }
+
+    // --- Internal helpers ---
+
+    // Caller holds the read or write lock.
+    private void applyCount(int zoneNumber, IssueCategory category, ComplaintStatus status, long hour, int count,
+                            boolean newComplaints) {
+        ZoneCells cells = zones.computeIfAbsent(zoneNumber, z -> new ZoneCells());
+        int cell = cell(category.ordinal(), status.ordinal());
+        cells.totals.addAndGet(cell, count);
+        if (hour > latestHour - retentionHours) {
+            int slot = slot(hour);
+            HourlyCells hourly = cells.hourlyFor(category.ordinal());
+            hourly.byStatus.addAndGet(status.ordinal() * retentionHours + slot, count);
+            if (newComplaints) {
+                hourly.allStatuses.addAndGet(slot, count);
+            }
+        }
+    }
+
+    // Moves the ring forward so it ends at newHour, zeroing the slots it reuses in the rings
+    // allocated so far. Caller holds the write lock.
+    private void advanceTo(long newHour) {
+        if (newHour <= latestHour) {
+            return;
+        }
+        long firstNew = Math.max(latestHour + 1, newHour - retentionHours + 1);
+        for (ZoneCells cells : zones.values()) {
+            for (int category = 0; category < CATEGORIES; category++) {
+                HourlyCells hourly = cells.hourly.get(category);
+                if (hourly == null) {
+                    continue;
+                }
+                for (long hour = firstNew; hour <= newHour; hour++) {
+                    int slot = slot(hour);
+                    for (int status = 0; status < STATUSES; status++) {
+                        hourly.byStatus.set(status * retentionHours + slot, 0);
+                    }
+                    hourly.allStatuses.set(slot, 0);
+                }
+            }
+        }
+        latestHour = newHour;
+    }
+
+    // Caller holds the read lock. Each cell's hours are contiguous, so this walks one short run per status.
+    private int sumHours(ZoneCells cells, int categoryOrdinal, Set<ComplaintStatus> statuses, long fromHour, long toHour) {
+        long first = Math.max(fromHour, latestHour - retentionHours + 1);
+        long last = Math.min(toHour - 1, latestHour);
+        if (first > last) {
+            return 0;
+        }
+        HourlyCells hourly = cells.hourly.get(categoryOrdinal);
+        if (hourly == null) {
+            return 0;
+        }
+        int hours = (int) (last - first + 1);
+        int firstSlot = slot(first);
+        if (statuses.size() == STATUSES) {
+            return sumRun(hourly.allStatuses, 0, firstSlot, hours);
+        }
+        int sum = 0;
+        for (ComplaintStatus status : statuses) {
+            sum += sumRun(hourly.byStatus, status.ordinal() * retentionHours, firstSlot, hours);
+        }
+        return sum;
+    }
+
+    private int sumRun(AtomicIntegerArray counts, int base, int firstSlot, int hours) {
+        int sum = 0;
+        int slot = firstSlot;
+        for (int i = 0; i < hours; i++) {
+            sum += counts.get(base + slot);
+            if (++slot == retentionHours) {
+                slot = 0;
+            }
+        }
+        return sum;
+    }
+
+    private static int cell(int categoryOrdinal, int statusOrdinal) {
+        return categoryOrdinal * STATUSES + statusOrdinal;
+    }
+
+    private int slot(long hour) {
+        return (int) Math.floorMod(hour, (long) retentionHours);
+    }
+}
@@ -0,0 +1,125 @@
+package src;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// Fixed-size, lock-free histogram of durations in nanoseconds, bucketed like HdrHistogram:
+// values below 128 get a bucket each, and every power of two above that is split into 128
+// equal sub-buckets. A recorded value is therefore off by less than 1% (128 sub-buckets), memory
+// stays at 30 KB however many values are recorded, and recording is one array increment.
+// Values of 2^37 ns (about 137 s) or more are counted in the last bucket.
+public class LatencyHistogram {
+
+    private static final int SUB_BITS = 7;
+    private static final int SUB_COUNT = 1 << SUB_BITS;   // Sub-buckets per power of two
+    private static final int MAX_MAGNITUDE = 36;          // Highest power of two tracked: 2^36 ns = 68.7 s
+    // The exact values below SUB_COUNT, then SUB_COUNT sub-buckets per power of two up to MAX_MAGNITUDE
+    private static final int BUCKETS = (MAX_MAGNITUDE - SUB_BITS + 2) * SUB_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        counts.incrementAndGet(bucketOf(nanos));
+        totalCount.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    // Records the time elapsed since a System.nanoTime() reading.
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    public long getCount() {
+        return totalCount.sum();
+    }
+
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    public double getMeanNanos() {
+        long count = totalCount.sum();
+        return count == 0 ? 0 : (double) totalNanos.sum() / count;
+    }
+
+    // Value at the given percentile (0-100): the top of the bucket holding it, capped at the maximum
+    // (or the maximum itself for the open-ended last bucket).
+    // Counts recorded while this runs may or may not be included.
+    public long getPercentileNanos(double percentile) {
+        long count = totalCount.sum();
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts.get(bucket);
+            if (seen >= rank) {
+                // The last bucket has no top: everything beyond the tracked range is in it
+                return bucket == BUCKETS - 1 ? getMaxNanos() : Math.min(highestValueIn(bucket), getMaxNanos());
+            }
+        }
+        return getMaxNanos();
+    }
+
+    // One-line summary in microseconds, e.g. "n=1200 mean=85.1 p50=70.2 p99=410.6 max=2210.0 µs"
+    public String summary() {
+        return String.format("n=%d mean=%.1f p50=%.1f p99=%.1f p99.9=%.1f max=%.1f µs",
+                getCount(), getMeanNanos() / 1e3, getPercentileNanos(50) / 1e3, getPercentileNanos(99) / 1e3,
+                getPercentileNanos(99.9) / 1e3, getMaxNanos() / 1e3);
+    }
+
+    // Adds every value recorded by another histogram to this one.
+    public void merge(LatencyHistogram other) {
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            long count = other.counts.get(bucket);
+            if (count > 0) {
+                counts.addAndGet(bucket, count);
+            }
+        }
+        totalCount.add(other.totalCount.sum());
+        totalNanos.add(other.totalNanos.sum());
+        maxNanos.accumulate(other.maxNanos.get());
+    }
+
+    public void reset() {
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            counts.set(bucket, 0);
+        }
+        totalCount.reset();
+        totalNanos.reset();
+        maxNanos.reset();
+    }
+
+    // --- Bucket arithmetic ---
+
+    static int bucketOf(long nanos) {
+        if (nanos < SUB_COUNT) {
+            return (int) nanos;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(nanos);
+        if (magnitude > MAX_MAGNITUDE) {
+            return BUCKETS - 1;
+        }
+        int shift = magnitude - SUB_BITS;
+        int subBucket = (int) (nanos >>> shift) - SUB_COUNT; // The 7 bits below the leading one
+        return (shift + 1) * SUB_COUNT + subBucket;
+    }
+
+    static long highestValueIn(int bucket) {
+        if (bucket < SUB_COUNT) {
+            return bucket;
+        }
+        int shift = bucket / SUB_COUNT - 1;
+        long lowest = (long) (bucket % SUB_COUNT + SUB_COUNT) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,342 @@
+package src;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Drives a running ComplaintHttpServer with a fixed number of requests in flight and reports
+// throughput and latency percentiles per operation. Each of the --concurrency workers sends one
+// blocking request at a time over a kept-alive connection (closed loop). Workers are virtual threads
+// where the runtime has them, otherwise platform threads with small stacks, so thousands of workers
+// are practical. (Blocking HttpURLConnection needs far less client CPU per request than the
+// asynchronous java.net.http client, which matters when both ends share one machine.)
+// Usage (through CIRPAnalyzer):
+//   loadtest [--url http://localhost:8080] [--concurrency 256] [--seconds 30] [--warmup 5]
+//            [--mix create=40,get=30,list=10,status=10,trends=10]
+// The first warmup seconds are not measured. Created complaints' IDs are reused by get and status.
+public final class LoadGenerator {
+
+    public enum Operation { CREATE, GET, LIST, STATUS, TRENDS }
+
+    private static final int ZONES = 50;
+    private static final int MAX_REPORTED_ERRORS = 5;
+    private static final long WORKER_STACK_BYTES = 256 * 1024; // Platform-thread workers only
+    private static final int CONNECT_TIMEOUT_MILLIS = 10_000;
+    private static final int READ_TIMEOUT_MILLIS = 30_000;
+    private static final int KNOWN_ID_SLOTS = 4_096;
+    private static final String[] DETAIL_TEMPLATES = {
+        "Street light out at pole %d near the market",
+        "Garbage not collected for %d days on block %d",
+        "No water supply since morning in building %d",
+        "Loud construction noise after %d pm at house %d",
+        "Broken drain cover at lane %d needs repair"
+    };
+
+    private final String baseUrl;
+    private final int concurrency;
+    private final int seconds;
+    private final int warmupSeconds;
+    private final Map<Operation, Integer> weights;
+    private final int totalWeight;
+
+    private final Map<Operation, LatencyHistogram> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private final List<String> errorSamples = new ArrayList<>();
+    // Tracking IDs returned by recent creates, reused by get and status. (IDs below the highest one
+    // seen are not all safe to use: a create may have its ID but not be visible yet.)
+    private final AtomicIntegerArray knownIds = new AtomicIntegerArray(KNOWN_ID_SLOTS);
+    private final AtomicLong knownIdCount = new AtomicLong();
+    private long measureStart; // Requests started before this (the warm-up) are not recorded
+
+    private LoadGenerator(String baseUrl, int concurrency, int seconds, int warmupSeconds,
+                          Map<Operation, Integer> weights) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.concurrency = concurrency;
+        this.seconds = seconds;
+        this.warmupSeconds = warmupSeconds;
+        this.weights = weights;
+        this.totalWeight = weights.values().stream().mapToInt(Integer::intValue).sum();
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new LatencyHistogram());
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    // Parses the options, runs the test and prints the report. Returns the process exit code.
+    public static int run(String[] args) {
+        String usage = "Usage: java -cp \".:lib/*\" src.CIRPAnalyzer loadtest [--url http://localhost:8080] "
+                + "[--concurrency N] [--seconds N] [--warmup N] [--mix create=40,get=30,list=10,status=10,trends=10]";
+        String url = "http://localhost:" + CIRPAnalyzer.DEFAULT_HTTP_PORT;
+        int concurrency = 256;
+        int seconds = 30;
+        int warmup = 5;
+        Map<Operation, Integer> weights = parseMix("create=40,get=30,list=10,status=10,trends=10");
+        try {
+            for (int i = 1; i < args.length; i++) {
+                if (i + 1 >= args.length) {
+                    System.err.println(usage);
+                    return 1;
+                }
+                String value = args[++i];
+                switch (args[i - 1]) {
+                    case "--url": url = value; break;
+                    case "--concurrency": concurrency = Integer.parseInt(value); break;
+                    case "--seconds": seconds = Integer.parseInt(value); break;
+                    case "--warmup": warmup = Integer.parseInt(value); break;
+                    case "--mix": weights = parseMix(value); break;
+                    default:
+                        System.err.println(usage);
+                        return 1;
+                }
+            }
+            if (concurrency < 1 || seconds < 1 || warmup < 0) {
+                throw new IllegalArgumentException("Concurrency and seconds must be at least 1, warmup at least 0.");
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("🛑 " + e.getMessage());
+            System.err.println(usage);
+            return 1;
+        }
+
+        LoadGenerator generator = new LoadGenerator(url, concurrency, seconds, warmup, weights);
+        try {
+            generator.runTest();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 1;
+        }
+        return generator.printReport();
+    }
+
+    // "create=40,get=30" -> weights per operation (operations left out are not sent)
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String part : mix.split(",")) {
+            String[] pair = part.split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Invalid mix entry '" + part + "' (expected name=weight).");
+            }
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Mix weights cannot be negative.");
+            }
+            weights.put(Operation.valueOf(pair[0].trim().toUpperCase(Locale.ROOT)), weight);
+        }
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("At least one operation needs a positive weight.");
+        }
+        return weights;
+    }
+
+    // --- Running ---
+
+    private void runTest() throws InterruptedException {
+        System.out.printf("🚦 Load test: %d concurrent requests for %d s (after %d s warm-up) against %s%n",
+                concurrency, seconds, warmupSeconds, baseUrl);
+        // HttpURLConnection keeps only 5 idle connections per server by default; every worker needs one
+        if (System.getProperty("http.maxConnections") == null) {
+            System.setProperty("http.maxConnections", String.valueOf(concurrency));
+        }
+        measureStart = System.nanoTime() + warmupSeconds * 1_000_000_000L;
+        long measureEnd = measureStart + seconds * 1_000_000_000L;
+
+        ExecutorService workers = ComplaintHttpServer.newVirtualThreadExecutor();
+        if (workers == null) {
+            AtomicInteger threadNumber = new AtomicInteger(1);
+            workers = Executors.newFixedThreadPool(concurrency, runnable -> {
+                Thread thread = new Thread(null, runnable, "load-worker-" + threadNumber.getAndIncrement(),
+                        WORKER_STACK_BYTES);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        for (int i = 0; i < concurrency; i++) {
+            workers.execute(() -> runWorker(measureEnd));
+        }
+        workers.shutdown();
+        workers.awaitTermination(seconds + warmupSeconds + READ_TIMEOUT_MILLIS / 1000 + 10, TimeUnit.SECONDS);
+    }
+
+    private void runWorker(long measureEnd) {
+        while (System.nanoTime() < measureEnd) {
+            Operation operation = pickOperation();
+            long start = System.nanoTime();
+            try {
+                send(operation, start);
+            } catch (IOException | RuntimeException e) {
+                recordFailure(operation, start, e.getClass().getSimpleName() + " " + e.getMessage());
+            }
+        }
+    }
+
+    private Operation pickOperation() {
+        int ticket = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Map.Entry<Operation, Integer> entry : weights.entrySet()) {
+            ticket -= entry.getValue();
+            if (ticket < 0) {
+                Operation operation = entry.getKey();
+                boolean needsId = operation == Operation.GET || operation == Operation.STATUS;
+                // No complaint created yet to read or update: create one first
+                return needsId && knownIdCount.get() == 0 ? Operation.CREATE : operation;
+            }
+        }
+        return Operation.CREATE;
+    }
+
+    // Sends one request of this kind and records its outcome.
+    private void send(Operation operation, long start) throws IOException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String method = "GET";
+        String path;
+        String body = null;
+        switch (operation) {
+            case CREATE: {
+                IssueCategory[] categories = IssueCategory.values();
+                String details = String.format(DETAIL_TEMPLATES[random.nextInt(DETAIL_TEMPLATES.length)],
+                        random.nextInt(1, 10_000), random.nextInt(1, 10_000));
+                method = "POST";
+                path = "/complaints";
+                body = "{\"zone\":" + random.nextInt(1, ZONES + 1)
+                        + ",\"category\":\"" + categories[random.nextInt(categories.length)]
+                        + "\",\"details\":\"" + details + "\"}";
+                break;
+            }
+            case GET:
+                path = "/complaints/" + randomKnownId();
+                break;
+            case LIST:
+                path = "/complaints?status=open&limit=20&zone=" + random.nextInt(1, ZONES + 1);
+                break;
+            case STATUS:
+                method = "PUT";
+                path = "/complaints/" + randomKnownId() + "/status";
+                body = "{\"status\":\"" + (random.nextBoolean() ? "IN_REVIEW" : "CLOSED") + "\"}";
+                break;
+            default:
+                path = "/trends";
+        }
+
+        HttpURLConnection connection = (HttpURLConnection) URI.create(baseUrl + path).toURL().openConnection();
+        connection.setConnectTimeout(CONNECT_TIMEOUT_MILLIS);
+        connection.setReadTimeout(READ_TIMEOUT_MILLIS);
+        connection.setRequestMethod(method);
+        if (body != null) {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", "application/json");
+            connection.setFixedLengthStreamingMode(bytes.length);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(bytes);
+            }
+        }
+        int status = connection.getResponseCode();
+        // Reading the whole body (error bodies too) lets the connection be reused
+        String response;
+        try (InputStream in = status >= 400 ? connection.getErrorStream() : connection.getInputStream()) {
+            response = in == null ? "" : new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+
+        if (status >= 300) {
+            recordFailure(operation, start, "HTTP " + status + " " + response);
+            return;
+        }
+        if (start >= measureStart) {
+            latencies.get(operation).recordSince(start);
+        }
+        if (operation == Operation.CREATE) {
+            int trackingID = parseTrackingId(response);
+            if (trackingID > 0) {
+                knownIds.set((int) (knownIdCount.getAndIncrement() % KNOWN_ID_SLOTS), trackingID);
+            }
+        }
+    }
+
+    private int randomKnownId() {
+        // A slot is claimed just before it is filled, so an unfilled one (0) falls back to slot 0
+        int filled = (int) Math.min(knownIdCount.get(), KNOWN_ID_SLOTS);
+        int trackingID = knownIds.get(ThreadLocalRandom.current().nextInt(filled));
+        return trackingID != 0 ? trackingID : knownIds.get(0);
+    }
+
+    // Failed requests count towards the latencies too (a timeout is a slow request)
+    private void recordFailure(Operation operation, long start, String message) {
+        if (start < measureStart) {
+            return;
+        }
+        latencies.get(operation).recordSince(start);
+        errors.get(operation).increment();
+        synchronized (errorSamples) {
+            if (errorSamples.size() < MAX_REPORTED_ERRORS) {
+                errorSamples.add(operation + ": " + message);
+            }
+        }
+    }
+
+    // Reads "trackingId":N from a complaint body
+    static int parseTrackingId(String body) {
+        int at = body.indexOf("\"trackingId\":");
+        if (at < 0) {
+            return 0;
+        }
+        int start = at + "\"trackingId\":".length();
+        int end = start;
+        while (end < body.length() && Character.isDigit(body.charAt(end))) {
+            end++;
+        }
+        return end == start ? 0 : Integer.parseInt(body.substring(start, end));
+    }
+
+    // --- Report ---
+
+    // Prints per-operation and total results; returns 1 if no request succeeded.
+    private int printReport() {
+        LatencyHistogram total = new LatencyHistogram();
+        long totalRequests = 0;
+        long totalErrors = 0;
+        System.out.printf("%n%-8s | %9s | %7s | %9s | %9s | %9s | %9s%n",
+                "OPERATION", "REQUESTS", "ERRORS", "REQ/S", "P50 (ms)", "P99 (ms)", "MAX (ms)");
+        System.out.println("---------|-----------|---------|-----------|-----------|-----------|----------");
+        for (Operation operation : Operation.values()) {
+            LatencyHistogram histogram = latencies.get(operation);
+            long count = histogram.getCount();
+            if (count == 0) {
+                continue;
+            }
+            long failed = errors.get(operation).sum();
+            printRow(operation.toString(), count, failed, histogram);
+            total.merge(histogram);
+            totalRequests += count;
+            totalErrors += failed;
+        }
+        System.out.println("---------|-----------|---------|-----------|-----------|-----------|----------");
+        printRow("TOTAL", totalRequests, totalErrors, total);
+
+        if (!errorSamples.isEmpty()) {
+            System.err.println("\n⚠️ First failed requests:");
+            errorSamples.forEach(sample -> System.err.println("   " + sample));
+        }
+        return totalRequests > totalErrors ? 0 : 1;
+    }
+
+    private void printRow(String label, long count, long failed, LatencyHistogram histogram) {
+        System.out.printf("%-8s | %9d | %7d | %9.0f | %9.2f | %9.2f | %9.2f%n", label, count, failed,
+                (double) count / seconds, histogram.getPercentileNanos(50) / 1e6,
+                histogram.getPercentileNanos(99) / 1e6, histogram.getMaxNanos() / 1e6);
+    }
+}
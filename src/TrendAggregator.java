@@ -0,0 +1,382 @@
+package src;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.IntSummaryStatistics;
+import java.util.List;
+import java.util.LongSummaryStatistics;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.IntStream;
+
+// Parallel group-by-count over a ComplaintColumns view, for historical reports the incremental
+// counters cannot answer. Rows are split into fork-join leaves (a few per worker); each leaf
+// counts into its own table and the tables are merged pairwise on the way back up.
+//
+// A group is numbered in mixed radix: zone x date bucket x category x status, where each
+// dimension that is not grouped has a single value. When that key space is small the tables are
+// plain int[] arrays indexed by group number; otherwise a primitive long -> long hash table is used.
+// Dimensions that are not grouped are reported as null.
+public class TrendAggregator {
+
+    // What a report can be grouped by. At most one date bucket (HOUR, DAY or WEEK).
+    public enum Dimension {
+        ZONE, CATEGORY, STATUS, HOUR, DAY, WEEK;
+
+        long bucketSeconds() {
+            switch (this) {
+                case HOUR: return 3_600L;
+                case DAY: return 86_400L;
+                case WEEK: return 7 * 86_400L;
+                default: return 0L;
+            }
+        }
+    }
+
+    // One row of a report; fields of dimensions that were not grouped are null
+    public static class GroupCount {
+        public final Integer zoneNumber;
+        public final IssueCategory category;
+        public final ComplaintStatus status;
+        public final LocalDateTime bucketStart;
+        public final long count;
+
+        GroupCount(Integer zoneNumber, IssueCategory category, ComplaintStatus status,
+                   LocalDateTime bucketStart, long count) {
+            this.zoneNumber = zoneNumber;
+            this.category = category;
+            this.status = status;
+            this.bucketStart = bucketStart;
+            this.count = count;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder label = new StringBuilder();
+            if (zoneNumber != null) label.append("Zone ").append(zoneNumber).append(' ');
+            if (category != null) label.append(category).append(' ');
+            if (status != null) label.append(status).append(' ');
+            if (bucketStart != null) label.append(bucketStart).append(' ');
+            return label.append("= ").append(count).toString();
+        }
+    }
+
+    private static final int MIN_LEAF_ROWS = 1 << 16;  // Smallest row range worth forking
+    private static final int LEAVES_PER_WORKER = 4;    // Some slack for load balancing
+    private static final int DENSE_MAX_GROUPS = 1 << 19; // Above this, count into hash tables instead
+
+    private final ForkJoinPool pool;
+
+    public TrendAggregator() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    // Runs on the given pool, e.g. new ForkJoinPool(n) to cap the number of cores used.
+    public TrendAggregator(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    // Counts complaints submitted in [from, to) per group, largest groups first.
+    // Either bound may be null.
+    public List<GroupCount> aggregate(ComplaintColumns columns, Set<Dimension> groupBy,
+                                      LocalDateTime from, LocalDateTime to) {
+        Plan plan = new Plan(columns, groupBy, from, to);
+        int leafRows = Math.max(MIN_LEAF_ROWS,
+                (int) Math.ceil((double) columns.size() / (pool.getParallelism() * LEAVES_PER_WORKER)));
+        if (plan.dense) {
+            return plan.decode(pool.invoke(new CountTask<>(plan.denseCounter(), 0, columns.size(), leafRows)));
+        }
+        return plan.decode(pool.invoke(new CountTask<>(plan.hashCounter(), 0, columns.size(), leafRows)));
+    }
+
+    // Same result computed on the calling thread only (baseline for comparisons).
+    public static List<GroupCount> aggregateSequential(ComplaintColumns columns, Set<Dimension> groupBy,
+                                                       LocalDateTime from, LocalDateTime to) {
+        Plan plan = new Plan(columns, groupBy, from, to);
+        if (plan.dense) {
+            return plan.decode(plan.denseCounter().count(0, columns.size()));
+        }
+        return plan.decode(plan.hashCounter().count(0, columns.size()));
+    }
+
+    // Counts a row range into a table of type T and merges two tables
+    private interface Counter<T> {
+        T count(int start, int end);
+        T merge(T left, T right);
+    }
+
+    // --- Query plan: how rows map to group numbers ---
+
+    private static class Plan {
+        final ComplaintColumns columns;
+        final Dimension bucket; // null if no date grouping
+        final long bucketSeconds;
+        final long fromEpoch;
+        final long toEpoch;
+        final boolean filtered;
+        // Each dimension's first value and number of values (1 when not grouped)
+        final boolean byZone;
+        final int zoneMin;
+        final long zoneCount;
+        final long bucketMin;
+        final long bucketCount;
+        final int categoryCount;
+        final int statusCount;
+        final boolean dense;
+
+        Plan(ComplaintColumns columns, Set<Dimension> groupBy, LocalDateTime from, LocalDateTime to) {
+            this.columns = columns;
+            EnumSet<Dimension> dims = groupBy.isEmpty() ? EnumSet.noneOf(Dimension.class) : EnumSet.copyOf(groupBy);
+            byZone = dims.contains(Dimension.ZONE);
+            categoryCount = dims.contains(Dimension.CATEGORY) ? IssueCategory.values().length : 1;
+            statusCount = dims.contains(Dimension.STATUS) ? ComplaintStatus.values().length : 1;
+            dims.removeAll(EnumSet.of(Dimension.ZONE, Dimension.CATEGORY, Dimension.STATUS));
+            if (dims.size() > 1) {
+                throw new IllegalArgumentException("Group by at most one date bucket.");
+            }
+            bucket = dims.isEmpty() ? null : dims.iterator().next();
+            bucketSeconds = bucket == null ? 0 : bucket.bucketSeconds();
+            fromEpoch = from == null ? Long.MIN_VALUE : from.toEpochSecond(ZoneOffset.UTC);
+            toEpoch = to == null ? Long.MAX_VALUE : to.toEpochSecond(ZoneOffset.UTC);
+            filtered = from != null || to != null;
+
+            // One parallel pass per grouped open-ended dimension to find its range
+            if (byZone && columns.size() > 0) {
+                IntSummaryStatistics zones = IntStream.range(0, columns.size()).parallel()
+                        .map(columns::zone).summaryStatistics();
+                zoneMin = zones.getMin();
+                zoneCount = (long) zones.getMax() - zones.getMin() + 1;
+            } else {
+                zoneMin = 0;
+                zoneCount = 1;
+            }
+            if (bucket != null && columns.size() > 0) {
+                LongSummaryStatistics epochs = IntStream.range(0, columns.size()).parallel()
+                        .mapToLong(columns::epochSecond).summaryStatistics();
+                bucketMin = Math.floorDiv(Math.max(epochs.getMin(), fromEpoch), bucketSeconds);
+                long bucketMax = Math.floorDiv(Math.min(epochs.getMax(), toEpoch), bucketSeconds);
+                bucketCount = Math.max(1, bucketMax - bucketMin + 1);
+            } else {
+                bucketMin = 0;
+                bucketCount = 1;
+            }
+
+            double groups = (double) zoneCount * bucketCount * categoryCount * statusCount;
+            if (groups > Long.MAX_VALUE / 2) {
+                throw new IllegalArgumentException("Too many groups for one report.");
+            }
+            dense = groups <= DENSE_MAX_GROUPS;
+        }
+
+        // Group number of a row, or -1 if the row is outside the date range.
+        long groupOf(int row) {
+            long epoch = columns.epochSecond(row);
+            if (filtered && (epoch < fromEpoch || epoch >= toEpoch)) {
+                return -1;
+            }
+            long group = byZone ? columns.zone(row) - zoneMin : 0;
+            if (bucket != null) {
+                group = group * bucketCount + (Math.floorDiv(epoch, bucketSeconds) - bucketMin);
+            }
+            if (categoryCount > 1) {
+                group = group * categoryCount + columns.categoryOrdinal(row);
+            }
+            if (statusCount > 1) {
+                group = group * statusCount + columns.statusOrdinal(row);
+            }
+            return group;
+        }
+
+        Counter<int[]> denseCounter() {
+            int groups = (int) (zoneCount * bucketCount * categoryCount * statusCount);
+            return new Counter<int[]>() {
+                @Override
+                public int[] count(int start, int end) {
+                    int[] counts = new int[groups];
+                    for (int row = start; row < end; row++) {
+                        long group = groupOf(row);
+                        if (group >= 0) {
+                            counts[(int) group]++;
+                        }
+                    }
+                    return counts;
+                }
+
+                @Override
+                public int[] merge(int[] left, int[] right) {
+                    for (int i = 0; i < left.length; i++) {
+                        left[i] += right[i];
+                    }
+                    return left;
+                }
+            };
+        }
+
+        Counter<CountTable> hashCounter() {
+            return new Counter<CountTable>() {
+                @Override
+                public CountTable count(int start, int end) {
+                    CountTable table = new CountTable();
+                    for (int row = start; row < end; row++) {
+                        long group = groupOf(row);
+                        if (group >= 0) {
+                            table.add(group, 1);
+                        }
+                    }
+                    return table;
+                }
+
+                @Override
+                public CountTable merge(CountTable left, CountTable right) {
+                    return CountTable.merge(left, right);
+                }
+            };
+        }
+
+        List<GroupCount> decode(int[] counts) {
+            List<GroupCount> rows = new ArrayList<>();
+            for (int group = 0; group < counts.length; group++) {
+                if (counts[group] > 0) {
+                    rows.add(toGroupCount(group, counts[group]));
+                }
+            }
+            return sorted(rows);
+        }
+
+        List<GroupCount> decode(CountTable counts) {
+            List<GroupCount> rows = new ArrayList<>(counts.size());
+            counts.forEach((group, count) -> rows.add(toGroupCount(group, count)));
+            return sorted(rows);
+        }
+
+        // Splits a group number back into its dimension values.
+        private GroupCount toGroupCount(long group, long count) {
+            ComplaintStatus status = null;
+            if (statusCount > 1) {
+                status = ComplaintStatus.values()[(int) (group % statusCount)];
+                group /= statusCount;
+            }
+            IssueCategory category = null;
+            if (categoryCount > 1) {
+                category = IssueCategory.values()[(int) (group % categoryCount)];
+                group /= categoryCount;
+            }
+            LocalDateTime bucketStart = null;
+            if (bucket != null) {
+                long bucketIndex = bucketMin + group % bucketCount;
+                bucketStart = LocalDateTime.ofEpochSecond(bucketIndex * bucketSeconds, 0, ZoneOffset.UTC);
+                group /= bucketCount;
+            }
+            Integer zone = byZone ? (int) (zoneMin + group) : null;
+            return new GroupCount(zone, category, status, bucketStart, count);
+        }
+
+        private static List<GroupCount> sorted(List<GroupCount> rows) {
+            rows.sort(Comparator.comparingLong((GroupCount row) -> row.count).reversed());
+            return rows;
+        }
+    }
+
+    // Splits the row range until it is small enough, then counts and merges.
+    private static class CountTask<T> extends RecursiveTask<T> {
+        private static final long serialVersionUID = 1L;
+        private final transient Counter<T> counter;
+        private final int start;
+        private final int end;
+        private final int leafRows;
+
+        CountTask(Counter<T> counter, int start, int end, int leafRows) {
+            this.counter = counter;
+            this.start = start;
+            this.end = end;
+            this.leafRows = leafRows;
+        }
+
+        @Override
+        protected T compute() {
+            if (end - start <= leafRows) {
+                return counter.count(start, end);
+            }
+            int middle = (start + end) >>> 1;
+            CountTask<T> left = new CountTask<>(counter, start, middle, leafRows);
+            left.fork();
+            T right = new CountTask<>(counter, middle, end, leafRows).compute();
+            return counter.merge(left.join(), right);
+        }
+    }
+
+    // Open-addressing long -> long table. A count of 0 marks a free slot (every stored count is >= 1).
+    private static class CountTable {
+        private long[] keys = new long[64];
+        private long[] counts = new long[64];
+        private int size;
+
+        interface Visitor {
+            void visit(long key, long count);
+        }
+
+        void add(long key, long delta) {
+            int mask = keys.length - 1;
+            int slot = mix(key) & mask;
+            while (counts[slot] != 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            if (counts[slot] == 0) {
+                keys[slot] = key;
+                if (++size * 2 > keys.length) {
+                    counts[slot] = delta;
+                    rehash();
+                    return;
+                }
+            }
+            counts[slot] += delta;
+        }
+
+        int size() {
+            return size;
+        }
+
+        void forEach(Visitor visitor) {
+            for (int i = 0; i < keys.length; i++) {
+                if (counts[i] != 0) {
+                    visitor.visit(keys[i], counts[i]);
+                }
+            }
+        }
+
+        // Adds the smaller table into the larger one.
+        static CountTable merge(CountTable a, CountTable b) {
+            CountTable into = a.size >= b.size ? a : b;
+            CountTable from = into == a ? b : a;
+            from.forEach(into::add);
+            return into;
+        }
+
+        private void rehash() {
+            long[] oldKeys = keys;
+            long[] oldCounts = counts;
+            keys = new long[oldKeys.length * 2];
+            counts = new long[oldKeys.length * 2];
+            int mask = keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldCounts[i] != 0) {
+                    int slot = mix(oldKeys[i]) & mask;
+                    while (counts[slot] != 0) {
+                        slot = (slot + 1) & mask;
+                    }
+                    keys[slot] = oldKeys[i];
+                    counts[slot] = oldCounts[i];
+                }
+            }
+        }
+
+        private static int mix(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}